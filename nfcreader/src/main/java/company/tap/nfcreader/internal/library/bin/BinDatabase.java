@@ -0,0 +1,535 @@
+package company.tap.nfcreader.internal.library.bin;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.model.BinInfo;
+import company.tap.nfcreader.internal.library.model.enums.CardTypeEnum;
+import company.tap.nfcreader.internal.library.model.enums.CountryCodeEnum;
+import company.tap.nfcreader.internal.library.utils.EnumUtils;
+
+/**
+ * Read only database of IIN ranges (brand, issuer, country and card type by card number prefix), memory mapped and
+ * searched by dichotomy. Lookups by record index do not allocate.<br/>
+ * Binary format (big endian): magic "TBIN", version, number of strings, the strings (length on 2 bytes and UTF-8
+ * bytes), number of ranges, then the ranges sorted without overlap, 16 bytes each: first and last key (card number
+ * prefix on 9 digits), brand and issuer string indexes, country numeric code and card type.<br/>
+ * The file can be replaced at any time with {@link #save(Collection, File)} and opened again: an open database keeps
+ * reading the previous file.
+ *
+ */
+public final class BinDatabase {
+
+	/**
+	 * Number of digits of the keys (card number prefix)
+	 */
+	static final int KEY_DIGITS = 9;
+
+	/**
+	 * Magic number "TBIN"
+	 */
+	private static final int MAGIC = 0x5442494E;
+
+	/**
+	 * Format version
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Size of a range in bytes
+	 */
+	private static final int RECORD_SIZE = 16;
+
+	/**
+	 * String index of a missing string
+	 */
+	private static final int NO_STRING = 0xFFFF;
+
+	/**
+	 * Strings encoding
+	 */
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/**
+	 * Ranges (absolute reads only, shared by the threads)
+	 */
+	private final ByteBuffer ranges;
+
+	/**
+	 * Number of ranges
+	 */
+	private final int count;
+
+	/**
+	 * Strings by index
+	 */
+	private final String[] strings;
+
+	/**
+	 * Card scheme by string index (null if the string is not the name of a scheme)
+	 */
+	private final EmvCardScheme[] schemes;
+
+	/**
+	 * Constructor used to check the database and to decode the strings
+	 *
+	 * @param pBuffer
+	 *            database
+	 * @throws IOException
+	 *             if the buffer is not a valid BIN database
+	 */
+	private BinDatabase(final ByteBuffer pBuffer) throws IOException {
+		ByteBuffer buffer = pBuffer.duplicate();
+		if (buffer.remaining() < 9 || buffer.getInt() != MAGIC || (buffer.get() & 0xFF) != VERSION) {
+			throw new IOException("Not a BIN database");
+		}
+		int stringCount = buffer.getInt();
+		if (stringCount < 0 || stringCount > NO_STRING) {
+			throw new IOException("Invalid BIN database");
+		}
+		strings = new String[stringCount];
+		schemes = new EmvCardScheme[stringCount];
+		for (int i = 0; i < stringCount; i++) {
+			if (buffer.remaining() < 2) {
+				throw new IOException("Truncated BIN database");
+			}
+			byte[] value = new byte[buffer.getShort() & 0xFFFF];
+			if (buffer.remaining() < value.length) {
+				throw new IOException("Truncated BIN database");
+			}
+			buffer.get(value);
+			strings[i] = new String(value, UTF8);
+			schemes[i] = getScheme(strings[i]);
+		}
+		if (buffer.remaining() < 4) {
+			throw new IOException("Truncated BIN database");
+		}
+		count = buffer.getInt();
+		if (count < 0 || (long) count * RECORD_SIZE != buffer.remaining()) {
+			throw new IOException("Truncated BIN database");
+		}
+		ranges = buffer.slice();
+		int previous = -1;
+		for (int i = 0; i < count; i++) {
+			int low = ranges.getInt(i * RECORD_SIZE);
+			int high = ranges.getInt(i * RECORD_SIZE + 4);
+			if (low <= previous || high < low) {
+				throw new IOException("BIN ranges not sorted at " + i);
+			}
+			previous = high;
+		}
+	}
+
+	/**
+	 * Method used to get the scheme of a brand
+	 *
+	 * @param pBrand
+	 *            brand name
+	 * @return the scheme with this name or null
+	 */
+	private static EmvCardScheme getScheme(final String pBrand) {
+		for (EmvCardScheme scheme : EmvCardScheme.values()) {
+			if (scheme.name().equals(pBrand)) {
+				return scheme;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Method used to memory map a BIN database file
+	 *
+	 * @param pFile
+	 *            database file
+	 * @return the database
+	 * @throws IOException
+	 *             if the file cannot be read or is not a valid BIN database
+	 */
+	public static BinDatabase open(final File pFile) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(pFile, "r");
+		try {
+			// the mapping remains valid once the file is closed
+			FileChannel channel = file.getChannel();
+			return new BinDatabase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Method used to read a BIN database from a buffer (e.g. a database shipped in the application assets)
+	 *
+	 * @param pBuffer
+	 *            database (from its position to its limit, not modified)
+	 * @return the database
+	 * @throws IOException
+	 *             if the buffer is not a valid BIN database
+	 */
+	public static BinDatabase wrap(final ByteBuffer pBuffer) throws IOException {
+		return new BinDatabase(pBuffer);
+	}
+
+	/**
+	 * Method used to get the number of ranges
+	 *
+	 * @return the number of ranges
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Method used to find the range of a card number
+	 *
+	 * @param pCardNumber
+	 *            card number (whitespaces are ignored)
+	 * @return the range index or -1 if not found
+	 */
+	public int find(final CharSequence pCardNumber) {
+		int key = getKey(pCardNumber);
+		if (key < 0) {
+			return -1;
+		}
+		// last range starting before the key
+		int found = -1;
+		int lo = 0;
+		int hi = count - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			if (ranges.getInt(mid * RECORD_SIZE) <= key) {
+				found = mid;
+				lo = mid + 1;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		return found >= 0 && key <= ranges.getInt(found * RECORD_SIZE + 4) ? found : -1;
+	}
+
+	/**
+	 * Method used to get the brand of a range
+	 *
+	 * @param pIndex
+	 *            range index
+	 * @return the brand or null
+	 */
+	public String getBrand(final int pIndex) {
+		return getString(ranges.getShort(pIndex * RECORD_SIZE + 8) & 0xFFFF);
+	}
+
+	/**
+	 * Method used to get the scheme of the brand of a range
+	 *
+	 * @param pIndex
+	 *            range index
+	 * @return the scheme or null if the brand is not the name of a scheme
+	 */
+	public EmvCardScheme getScheme(final int pIndex) {
+		int index = ranges.getShort(pIndex * RECORD_SIZE + 8) & 0xFFFF;
+		return index < schemes.length ? schemes[index] : null;
+	}
+
+	/**
+	 * Method used to get the issuer of a range
+	 *
+	 * @param pIndex
+	 *            range index
+	 * @return the issuer or null
+	 */
+	public String getIssuer(final int pIndex) {
+		return getString(ranges.getShort(pIndex * RECORD_SIZE + 10) & 0xFFFF);
+	}
+
+	/**
+	 * Method used to get the issuer country of a range
+	 *
+	 * @param pIndex
+	 *            range index
+	 * @return the country or null
+	 */
+	public CountryCodeEnum getCountry(final int pIndex) {
+		int numeric = ranges.getShort(pIndex * RECORD_SIZE + 12) & 0xFFFF;
+		return numeric != 0 ? CountryCodeEnum.getByNumeric(numeric) : null;
+	}
+
+	/**
+	 * Method used to get the card type of a range
+	 *
+	 * @param pIndex
+	 *            range index
+	 * @return the card type
+	 */
+	public CardTypeEnum getCardType(final int pIndex) {
+		CardTypeEnum ret = EnumUtils.getValue(ranges.get(pIndex * RECORD_SIZE + 14), CardTypeEnum.class);
+		return ret != null ? ret : CardTypeEnum.UNKNOWN;
+	}
+
+	/**
+	 * Method used to get the data of the range of a card number
+	 *
+	 * @param pCardNumber
+	 *            card number
+	 * @return the range data or null if not found
+	 */
+	public BinInfo lookup(final CharSequence pCardNumber) {
+		int index = find(pCardNumber);
+		if (index < 0) {
+			return null;
+		}
+		return new BinInfo(getBrand(index), getScheme(index), getIssuer(index), getCountry(index), getCardType(index));
+	}
+
+	/**
+	 * Method used to get a string
+	 *
+	 * @param pIndex
+	 *            string index
+	 * @return the string or null
+	 */
+	private String getString(final int pIndex) {
+		return pIndex < strings.length ? strings[pIndex] : null;
+	}
+
+	/**
+	 * Method used to get the key of a card number
+	 *
+	 * @param pCardNumber
+	 *            card number
+	 * @return the first digits padded with 0, or -1 if the card number does not start with a digit
+	 */
+	private static int getKey(final CharSequence pCardNumber) {
+		if (pCardNumber == null) {
+			return -1;
+		}
+		int key = 0;
+		int digits = 0;
+		for (int i = 0; i < pCardNumber.length() && digits < KEY_DIGITS; i++) {
+			char c = pCardNumber.charAt(i);
+			if (c >= '0' && c <= '9') {
+				key = key * 10 + c - '0';
+				digits++;
+			} else if (!Character.isWhitespace(c)) {
+				break;
+			}
+		}
+		if (digits == 0) {
+			return -1;
+		}
+		for (; digits < KEY_DIGITS; digits++) {
+			key *= 10;
+		}
+		return key;
+	}
+
+	/**
+	 * Method used to get the key of a range bound
+	 *
+	 * @param pPrefix
+	 *            card number prefix (1 to 9 digits)
+	 * @param pPad
+	 *            padding digit
+	 * @return the key
+	 */
+	static int toKey(final String pPrefix, final char pPad) {
+		if (pPrefix == null || pPrefix.length() == 0 || pPrefix.length() > KEY_DIGITS) {
+			throw new IllegalArgumentException("Invalid BIN prefix: " + pPrefix);
+		}
+		int key = 0;
+		for (int i = 0; i < KEY_DIGITS; i++) {
+			char c = i < pPrefix.length() ? pPrefix.charAt(i) : pPad;
+			if (c < '0' || c > '9') {
+				throw new IllegalArgumentException("Invalid BIN prefix: " + pPrefix);
+			}
+			key = key * 10 + c - '0';
+		}
+		return key;
+	}
+
+	/**
+	 * Part of a range that is not covered by a narrower range
+	 */
+	private static final class Segment {
+
+		/**
+		 * First key
+		 */
+		private final int low;
+
+		/**
+		 * Last key
+		 */
+		private final int high;
+
+		/**
+		 * Range data
+		 */
+		private final BinRange range;
+
+		/**
+		 * Constructor using fields
+		 *
+		 * @param pLow
+		 *            first key
+		 * @param pHigh
+		 *            last key
+		 * @param pRange
+		 *            range data
+		 */
+		private Segment(final int pLow, final int pHigh, final BinRange pRange) {
+			low = pLow;
+			high = pHigh;
+			range = pRange;
+		}
+	}
+
+	/**
+	 * Method used to split the ranges into sorted segments without overlap: where ranges overlap, the narrowest range
+	 * wins (the last one for ranges of the same width)
+	 *
+	 * @param pRanges
+	 *            ranges
+	 * @return the segments by first key
+	 */
+	private static TreeMap<Integer, Segment> flatten(final Collection<BinRange> pRanges) {
+		List<BinRange> sorted = new ArrayList<BinRange>(pRanges);
+		// stable sort, widest first
+		Collections.sort(sorted, new Comparator<BinRange>() {
+			@Override
+			public int compare(final BinRange pO1, final BinRange pO2) {
+				long width1 = (long) pO1.getHigh() - pO1.getLow();
+				long width2 = (long) pO2.getHigh() - pO2.getLow();
+				return width1 > width2 ? -1 : width1 == width2 ? 0 : 1;
+			}
+		});
+		TreeMap<Integer, Segment> ret = new TreeMap<Integer, Segment>();
+		for (BinRange range : sorted) {
+			int low = range.getLow();
+			int high = range.getHigh();
+			// segment starting before the range
+			Map.Entry<Integer, Segment> before = ret.lowerEntry(low);
+			if (before != null && before.getValue().high >= low) {
+				Segment segment = before.getValue();
+				ret.put(segment.low, new Segment(segment.low, low - 1, segment.range));
+				if (segment.high > high) {
+					ret.put(high + 1, new Segment(high + 1, segment.high, segment.range));
+				}
+			}
+			// segments starting in the range
+			for (Segment segment : new ArrayList<Segment>(ret.subMap(low, true, high, true).values())) {
+				ret.remove(segment.low);
+				if (segment.high > high) {
+					ret.put(high + 1, new Segment(high + 1, segment.high, segment.range));
+				}
+			}
+			ret.put(low, new Segment(low, high, range));
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to get the index of a string, added if needed
+	 *
+	 * @param pStrings
+	 *            indexes by string
+	 * @param pValue
+	 *            string (or null)
+	 * @return the string index
+	 */
+	private static int getIndex(final Map<String, Integer> pStrings, final String pValue) {
+		if (pValue == null) {
+			return NO_STRING;
+		}
+		Integer ret = pStrings.get(pValue);
+		if (ret == null) {
+			if (pStrings.size() == NO_STRING) {
+				throw new IllegalArgumentException("Too many strings in the BIN database");
+			}
+			ret = pStrings.size();
+			pStrings.put(pValue, ret);
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to write a BIN database
+	 *
+	 * @param pRanges
+	 *            ranges in any order, where ranges overlap the narrowest range wins
+	 * @param pOut
+	 *            output stream (not closed)
+	 * @throws IOException
+	 */
+	public static void write(final Collection<BinRange> pRanges, final OutputStream pOut) throws IOException {
+		Collection<Segment> segments = flatten(pRanges).values();
+		Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+		for (Segment segment : segments) {
+			getIndex(strings, segment.range.getBrand());
+			getIndex(strings, segment.range.getIssuer());
+		}
+		DataOutputStream out = new DataOutputStream(pOut);
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeInt(strings.size());
+		for (String value : strings.keySet()) {
+			byte[] bytes = value.getBytes(UTF8);
+			if (bytes.length > 0xFFFF) {
+				throw new IllegalArgumentException("String too long in the BIN database: " + value);
+			}
+			out.writeShort(bytes.length);
+			out.write(bytes);
+		}
+		out.writeInt(segments.size());
+		for (Segment segment : segments) {
+			BinRange range = segment.range;
+			out.writeInt(segment.low);
+			out.writeInt(segment.high);
+			out.writeShort(getIndex(strings, range.getBrand()));
+			out.writeShort(getIndex(strings, range.getIssuer()));
+			out.writeShort(range.getCountry() != null ? range.getCountry().getNumeric() : 0);
+			out.writeByte(range.getCardType().getKey());
+			out.writeByte(0);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Method used to save a BIN database to a file. The file is replaced once written.
+	 *
+	 * @param pRanges
+	 *            ranges in any order, where ranges overlap the narrowest range wins
+	 * @param pFile
+	 *            database file
+	 * @throws IOException
+	 */
+	public static void save(final Collection<BinRange> pRanges, final File pFile) throws IOException {
+		File tmp = new File(pFile.getPath() + ".tmp");
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp));
+		try {
+			write(pRanges, out);
+		} finally {
+			out.close();
+		}
+		if (!tmp.renameTo(pFile)) {
+			tmp.delete();
+			throw new IOException("Cannot replace " + pFile);
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+package company.tap.nfcreader.internal.library.bin;
+
+import company.tap.nfcreader.internal.library.model.enums.CardTypeEnum;
+import company.tap.nfcreader.internal.library.model.enums.CountryCodeEnum;
+
+/**
+ * IIN range of a BIN database, from the card number prefix pLow to the card number prefix pHigh (e.g. "4" to "4"
+ * for all the card numbers starting with 4, or "510000" to "559999")
+ *
+ */
+public final class BinRange {
+
+	/**
+	 * First card number prefix, padded with 0 to the key length
+	 */
+	private final int low;
+
+	/**
+	 * Last card number prefix, padded with 9 to the key length
+	 */
+	private final int high;
+
+	/**
+	 * Brand name
+	 */
+	private final String brand;
+
+	/**
+	 * Issuer name
+	 */
+	private final String issuer;
+
+	/**
+	 * Issuer country
+	 */
+	private final CountryCodeEnum country;
+
+	/**
+	 * Card type
+	 */
+	private final CardTypeEnum cardType;
+
+	/**
+	 * Constructor using fields
+	 *
+	 * @param pLow
+	 *            first card number prefix (1 to 9 digits)
+	 * @param pHigh
+	 *            last card number prefix (1 to 9 digits)
+	 * @param pBrand
+	 *            brand name, the name of an EmvCardScheme to get the scheme at lookup (or null)
+	 * @param pIssuer
+	 *            issuer name (or null)
+	 * @param pCountry
+	 *            issuer country (or null)
+	 * @param pCardType
+	 *            card type (or null)
+	 */
+	public BinRange(final String pLow, final String pHigh, final String pBrand, final String pIssuer,
+			final CountryCodeEnum pCountry, final CardTypeEnum pCardType) {
+		low = BinDatabase.toKey(pLow, '0');
+		high = BinDatabase.toKey(pHigh, '9');
+		if (low > high) {
+			throw new IllegalArgumentException("Invalid BIN range: " + pLow + " - " + pHigh);
+		}
+		brand = pBrand;
+		issuer = pIssuer;
+		country = pCountry;
+		cardType = pCardType != null ? pCardType : CardTypeEnum.UNKNOWN;
+	}
+
+	/**
+	 * Method used to get the first key of the range
+	 *
+	 * @return the first key
+	 */
+	int getLow() {
+		return low;
+	}
+
+	/**
+	 * Method used to get the last key of the range
+	 *
+	 * @return the last key
+	 */
+	int getHigh() {
+		return high;
+	}
+
+	/**
+	 * Method used to get the field brand
+	 *
+	 * @return the brand
+	 */
+	public String getBrand() {
+		return brand;
+	}
+
+	/**
+	 * Method used to get the field issuer
+	 *
+	 * @return the issuer
+	 */
+	public String getIssuer() {
+		return issuer;
+	}
+
+	/**
+	 * Method used to get the field country
+	 *
+	 * @return the country
+	 */
+	public CountryCodeEnum getCountry() {
+		return country;
+	}
+
+	/**
+	 * Method used to get the field cardType
+	 *
+	 * @return the card type
+	 */
+	public CardTypeEnum getCardType() {
+		return cardType;
+	}
+
+}
@@ -0,0 +1,163 @@
+package company.tap.nfcreader.internal.library.enums;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable byte prefix tree of the card scheme AIDs (or RIDs), used to find the scheme of an AID with the longest
+ * matching prefix without converting it to an hexa string
+ *
+ */
+final class AidTrie {
+
+	/**
+	 * Child bytes by node (root is node 0)
+	 */
+	private final byte[][] labels;
+
+	/**
+	 * Child nodes by node, in the order of the labels
+	 */
+	private final int[][] children;
+
+	/**
+	 * Scheme of the AID ending on the node (null if no AID ends on the node)
+	 */
+	private final EmvCardScheme[] schemes;
+
+	/**
+	 * Constructor using the card schemes
+	 *
+	 * @param pSchemes
+	 *            card schemes (for an AID declared by several schemes, the last one is kept)
+	 */
+	AidTrie(final EmvCardScheme[] pSchemes) {
+		List<List<Byte>> nodeLabels = new ArrayList<List<Byte>>();
+		List<List<Integer>> nodeChildren = new ArrayList<List<Integer>>();
+		List<EmvCardScheme> nodeSchemes = new ArrayList<EmvCardScheme>();
+		newNode(nodeLabels, nodeChildren, nodeSchemes);
+		for (EmvCardScheme scheme : pSchemes) {
+			for (byte[] aid : scheme.getAidByte()) {
+				int node = 0;
+				for (byte b : aid) {
+					int index = nodeLabels.get(node).indexOf(b);
+					if (index < 0) {
+						nodeLabels.get(node).add(b);
+						nodeChildren.get(node).add(nodeSchemes.size());
+						node = newNode(nodeLabels, nodeChildren, nodeSchemes);
+					} else {
+						node = nodeChildren.get(node).get(index);
+					}
+				}
+				nodeSchemes.set(node, scheme);
+			}
+		}
+		labels = new byte[nodeSchemes.size()][];
+		children = new int[nodeSchemes.size()][];
+		schemes = nodeSchemes.toArray(new EmvCardScheme[nodeSchemes.size()]);
+		for (int node = 0; node < schemes.length; node++) {
+			List<Byte> nodeLabel = nodeLabels.get(node);
+			labels[node] = new byte[nodeLabel.size()];
+			children[node] = new int[nodeLabel.size()];
+			for (int i = 0; i < nodeLabel.size(); i++) {
+				labels[node][i] = nodeLabel.get(i);
+				children[node][i] = nodeChildren.get(node).get(i);
+			}
+		}
+	}
+
+	/**
+	 * Method used to add an empty node during the construction
+	 *
+	 * @param pLabels
+	 *            child bytes by node
+	 * @param pChildren
+	 *            child nodes by node
+	 * @param pSchemes
+	 *            schemes by node
+	 * @return the new node
+	 */
+	private static int newNode(final List<List<Byte>> pLabels, final List<List<Integer>> pChildren,
+			final List<EmvCardScheme> pSchemes) {
+		pLabels.add(new ArrayList<Byte>());
+		pChildren.add(new ArrayList<Integer>());
+		pSchemes.add(null);
+		return pSchemes.size() - 1;
+	}
+
+	/**
+	 * Method used to get the child of a node
+	 *
+	 * @param pNode
+	 *            node
+	 * @param pByte
+	 *            next byte of the AID
+	 * @return the child node or -1
+	 */
+	private int child(final int pNode, final int pByte) {
+		byte[] label = labels[pNode];
+		for (int i = 0; i < label.length; i++) {
+			if (label[i] == (byte) pByte) {
+				return children[pNode][i];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Method used to find the scheme of an AID
+	 *
+	 * @param pAid
+	 *            AID bytes (application DF name)
+	 * @param pOffset
+	 *            offset of the AID
+	 * @param pLength
+	 *            length of the AID
+	 * @return the scheme of the longest AID prefix or null
+	 */
+	EmvCardScheme find(final byte[] pAid, final int pOffset, final int pLength) {
+		EmvCardScheme ret = null;
+		int node = 0;
+		for (int i = pOffset; i < pOffset + pLength && node >= 0; i++) {
+			node = child(node, pAid[i]);
+			if (node >= 0 && schemes[node] != null) {
+				ret = schemes[node];
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to find the scheme of an AID in hexa
+	 *
+	 * @param pAid
+	 *            AID in hexa (whitespaces are ignored, the AID ends on the first non hexa character)
+	 * @return the scheme of the longest AID prefix or null
+	 */
+	EmvCardScheme find(final String pAid) {
+		EmvCardScheme ret = null;
+		int node = 0;
+		int high = -1;
+		for (int i = 0; i < pAid.length() && node >= 0; i++) {
+			char c = pAid.charAt(i);
+			if (Character.isWhitespace(c)) {
+				continue;
+			}
+			int digit = Character.digit(c, 16);
+			if (digit < 0) {
+				break;
+			}
+			if (high < 0) {
+				high = digit;
+			} else {
+				node = child(node, high << 4 | digit);
+				high = -1;
+				if (node >= 0 && schemes[node] != null) {
+					ret = schemes[node];
+				}
+			}
+		}
+		return ret;
+	}
+
+}
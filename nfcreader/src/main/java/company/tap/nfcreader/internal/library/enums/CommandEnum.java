@@ -41,7 +41,12 @@ public enum CommandEnum {
 	/**
 	 * GPO Command
 	 */
-	GET_DATA(0x80, 0xCA, 0x00, 0x00);
+	GET_DATA(0x80, 0xCA, 0x00, 0x00),
+
+	/**
+	 * Get response command
+	 */
+	GET_RESPONSE(0x00, 0xC0, 0x00, 0x00);
 
 	/**
 	 * Class byte
@@ -55,6 +55,11 @@ public enum EmvCardScheme {
 	GOOGLE("Google", null, "A0 00 00 04 76 6C"), //
 	INTER_SWITCH("InterSwitch", null, "A0 00 00 03 71 00 01");
 
+	/**
+	 * Prefix tree of the AIDs of all schemes
+	 */
+	private static final AidTrie AID_TRIE = new AidTrie(values());
+
 	/**
 	 * array of Card AID or partial AID (RID)
 	 */
@@ -125,19 +130,18 @@ public enum EmvCardScheme {
 	 * @return CardType or null
 	 */
 	public static EmvCardScheme getCardTypeByAid(final String pAid) {
-		EmvCardScheme ret = null;
-		if (pAid != null) {
-			String aid = CommonsUtils.deleteWhitespace(pAid);
-			for (EmvCardScheme val : EmvCardScheme.values()) {
-				for (String schemeAid : val.getAid()) {
-					if (aid.startsWith(CommonsUtils.deleteWhitespace(schemeAid))) {
-						ret = val;
-						break;
-					}
-				}
-			}
-		}
-		return ret;
+		return pAid != null ? AID_TRIE.find(pAid) : null;
+	}
+
+	/**
+	 * Get card type by AID (the scheme of the longest matching AID or RID)
+	 * 
+	 * @param pAid
+	 *            card AID bytes
+	 * @return CardType or null
+	 */
+	public static EmvCardScheme getCardTypeByAid(final byte[] pAid) {
+		return pAid != null ? AID_TRIE.find(pAid, 0, pAid.length) : null;
 	}
 
 	/**
@@ -0,0 +1,49 @@
+package company.tap.nfcreader.internal.library.enums;
+
+/**
+ * Phases of a card read, used to measure where the time of a tap is spent
+ *
+ */
+public enum ReadPhaseEnum {
+
+	/**
+	 * Connection to the card
+	 */
+	CONNECT,
+
+	/**
+	 * Selection of the PPSE/PSE directory
+	 */
+	PPSE,
+
+	/**
+	 * Selection of the applications
+	 */
+	SELECT,
+
+	/**
+	 * GET PROCESSING OPTIONS commands
+	 */
+	GPO,
+
+	/**
+	 * READ RECORD commands of the AFL
+	 */
+	READ_RECORD,
+
+	/**
+	 * GET DATA of the number of PIN try left
+	 */
+	PIN_TRY,
+
+	/**
+	 * GET DATA of the log format and READ RECORD of the transaction log
+	 */
+	TRANSACTION_LOG,
+
+	/**
+	 * Processing after the last command (including the release of the card)
+	 */
+	POST_PROCESSING
+
+}
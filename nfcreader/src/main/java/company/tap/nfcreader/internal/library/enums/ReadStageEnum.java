@@ -0,0 +1,24 @@
+package company.tap.nfcreader.internal.library.enums;
+
+/**
+ * Optional stages of a card read, which can be skipped when the card is not required to answer them
+ *
+ */
+public enum ReadStageEnum {
+
+	/**
+	 * Read the remaining records containing the card holder name (after the track 2 is found)
+	 */
+	HOLDER_NAME,
+
+	/**
+	 * GET DATA of the number of PIN try left
+	 */
+	LEFT_PIN_TRY,
+
+	/**
+	 * GET DATA of the log format and READ RECORD of the transaction log
+	 */
+	TRANSACTION_LOG
+
+}
@@ -0,0 +1,105 @@
+package company.tap.nfcreader.internal.library.enums;
+
+/**
+ * Categories of status word (ISO 7816-4) used to classify APDU responses without looking up the
+ * {@link SwEnum} detail
+ *
+ */
+public enum SwCategoryEnum {
+
+	/**
+	 * 9000: command successfully executed
+	 */
+	SUCCESS,
+
+	/**
+	 * 61xx: command successfully executed, xx bytes are available with GET RESPONSE
+	 */
+	MORE_DATA,
+
+	/**
+	 * 6Cxx: wrong length, the command must be sent again with Le = xx
+	 */
+	WRONG_LE,
+
+	/**
+	 * 62xx, 63xx: warning processing
+	 */
+	WARNING,
+
+	/**
+	 * 64xx to 66xx: execution error
+	 */
+	EXECUTION_ERROR,
+
+	/**
+	 * 67xx to 6Fxx (except 6Cxx): checking error
+	 */
+	CHECKING_ERROR,
+
+	/**
+	 * 9xxx (except 9000): proprietary status word
+	 */
+	PROPRIETARY,
+
+	/**
+	 * Unknown status word or response without status word
+	 */
+	UNKNOWN;
+
+	/**
+	 * Category by SW1 (9000 is handled apart)
+	 */
+	private static final SwCategoryEnum[] BY_SW1 = new SwCategoryEnum[256];
+
+	static {
+		for (int sw1 = 0; sw1 < BY_SW1.length; sw1++) {
+			SwCategoryEnum category = UNKNOWN;
+			if (sw1 == 0x61) {
+				category = MORE_DATA;
+			} else if (sw1 == 0x6C) {
+				category = WRONG_LE;
+			} else if (sw1 == 0x62 || sw1 == 0x63) {
+				category = WARNING;
+			} else if (sw1 >= 0x64 && sw1 <= 0x66) {
+				category = EXECUTION_ERROR;
+			} else if (sw1 >= 0x67 && sw1 <= 0x6F) {
+				category = CHECKING_ERROR;
+			} else if ((sw1 & 0xF0) == 0x90) {
+				category = PROPRIETARY;
+			}
+			BY_SW1[sw1] = category;
+		}
+	}
+
+	/**
+	 * Method used to get the category of a status word
+	 *
+	 * @param pSw1
+	 *            SW1 (0 to 255)
+	 * @param pSw2
+	 *            SW2 (0 to 255)
+	 * @return the category
+	 */
+	public static SwCategoryEnum getCategory(final int pSw1, final int pSw2) {
+		if (pSw1 == 0x90 && pSw2 == 0) {
+			return SUCCESS;
+		}
+		return BY_SW1[pSw1 & 0xFF];
+	}
+
+	/**
+	 * Method used to get the category of the status word of a response
+	 *
+	 * @param pData
+	 *            response (status word in the last 2 bytes)
+	 * @return the category ({@link #UNKNOWN} if the response has no status word)
+	 */
+	public static SwCategoryEnum getCategory(final byte[] pData) {
+		if (pData == null || pData.length < 2) {
+			return UNKNOWN;
+		}
+		return getCategory(pData[pData.length - 2] & 0xFF, pData[pData.length - 1] & 0xFF);
+	}
+
+}
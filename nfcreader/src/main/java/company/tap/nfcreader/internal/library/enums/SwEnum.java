@@ -15,6 +15,8 @@
  */
 package company.tap.nfcreader.internal.library.enums;
 
+import java.util.Arrays;
+
 import company.tap.nfcreader.internal.library.utils.BytesUtils;
 
 /**
@@ -200,6 +202,28 @@ public enum SwEnum {
 	SW_9F00("9F00", "PIN blocked and Unblock Try Counter is 3"),
 	SW_9F04("9F04", "PIN not succesfully verified, PIN blocked and Unblock Try Counter is 3");
 
+	/**
+	 * Status words by SW1 then SW2 (null row if no status word starts with SW1)
+	 */
+	private static final SwEnum[][] TABLE = new SwEnum[256][];
+
+	static {
+		// filled from the last constant so that the first declared match wins, as a 1 byte status word matches every SW2
+		SwEnum[] values = values();
+		for (int i = values.length - 1; i >= 0; i--) {
+			SwEnum val = values[i];
+			int sw1 = val.status[0] & 0xFF;
+			if (TABLE[sw1] == null) {
+				TABLE[sw1] = new SwEnum[256];
+			}
+			if (val.status.length == 1) {
+				Arrays.fill(TABLE[sw1], val);
+			} else {
+				TABLE[sw1][val.status[1] & 0xFF] = val;
+			}
+		}
+	}
+
 	/**
 	 * Status
 	 */
@@ -249,15 +273,23 @@ public enum SwEnum {
 	public static SwEnum getSW(final byte[] pData) {
 		SwEnum ret = null;
 		if (pData != null && pData.length >= 2) {
-			for (SwEnum val : values()) {
-				if (val.status.length == 1 && pData[pData.length - 2] == val.status[0]
-						|| pData[pData.length - 2] == val.status[0] && pData[pData.length - 1] == val.status[1]) {
-					ret = val;
-					break;
-				}
-			}
+			ret = getSW(pData[pData.length - 2] & 0xFF, pData[pData.length - 1] & 0xFF);
 		}
 		return ret;
 	}
 
+	/**
+	 * Method used to get the Status word
+	 * 
+	 * @param pSw1
+	 *            SW1 (0 to 255)
+	 * @param pSw2
+	 *            SW2 (0 to 255)
+	 * @return the status word (null if unknown)
+	 */
+	public static SwEnum getSW(final int pSw1, final int pSw2) {
+		SwEnum[] row = TABLE[pSw1 & 0xFF];
+		return row != null ? row[pSw2 & 0xFF] : null;
+	}
+
 }
@@ -16,7 +16,9 @@
 package company.tap.nfcreader.internal.library.iso7816emv;
 
 import java.lang.reflect.Field;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import company.tap.nfcreader.internal.library.enums.TagValueTypeEnum;
 import company.tap.nfcreader.internal.library.iso7816emv.impl.TagImpl;
@@ -34,7 +36,25 @@ import company.tap.nfcreader.internal.library.iso7816emv.impl.TagImpl;
  */
 public final class EmvTags {
 
-	private static LinkedHashMap<ByteArrayWrapper, ITag> tags = new LinkedHashMap<ByteArrayWrapper, ITag>();
+	/**
+	 * Maximal number of tag bytes which can be packed in an integer
+	 */
+	private static final int MAX_TAG_ID_BYTES = 4;
+
+	/**
+	 * Maximal number of unknown tags kept in cache
+	 */
+	private static final int MAX_UNKNOWN_TAGS = 256;
+
+	/**
+	 * Known tags indexed by tag id
+	 */
+	private static TagTable tags;
+
+	/**
+	 * Unknown tags already encountered (copy on write)
+	 */
+	private static volatile TagTable unknownTags = new TagTable(0);
 
 	// @formatter:off
 	// One byte tags
@@ -378,9 +398,32 @@ public final class EmvTags {
 	 * @return
 	 */
 	public static ITag getNotNull(final byte[] tagBytes) {
-		ITag tag = find(tagBytes);
+		return getNotNull(tagBytes, 0, tagBytes.length);
+	}
+
+	/**
+	 * If the tag is not found, this method returns the "[UNHANDLED TAG]" containing the tag bytes.<br/>
+	 * Unknown tags are cached, so the same instance is returned for the same tag bytes.
+	 * 
+	 * @param pData
+	 *            byte array containing the tag
+	 * @param pOffset
+	 *            tag offset
+	 * @param pLength
+	 *            tag length
+	 * @return the tag
+	 */
+	public static ITag getNotNull(final byte[] pData, final int pOffset, final int pLength) {
+		ITag tag = find(pData, pOffset, pLength);
 		if (tag == null) {
-			tag = createUnknownTag(tagBytes);
+			if (pLength > MAX_TAG_ID_BYTES) {
+				return createUnknownTag(Arrays.copyOfRange(pData, pOffset, pOffset + pLength));
+			}
+			int id = toTagId(pData, pOffset, pLength);
+			tag = unknownTags.get(id);
+			if (tag == null) {
+				tag = addUnknownTag(id, Arrays.copyOfRange(pData, pOffset, pOffset + pLength));
+			}
 		}
 		return tag;
 	}
@@ -389,36 +432,110 @@ public final class EmvTags {
 		return new TagImpl(tagBytes, TagValueTypeEnum.BINARY, "[UNKNOWN TAG]", "");
 	}
 
+	/**
+	 * Method used to add an unknown tag in the cache
+	 * 
+	 * @param pId
+	 *            tag id
+	 * @param pTagBytes
+	 *            tag bytes
+	 * @return the cached tag
+	 */
+	private static synchronized ITag addUnknownTag(final int pId, final byte[] pTagBytes) {
+		TagTable table = unknownTags;
+		ITag tag = table.get(pId);
+		if (tag == null) {
+			tag = createUnknownTag(pTagBytes);
+			if (table.size() < MAX_UNKNOWN_TAGS) {
+				unknownTags = table.copyWith(pId, tag);
+			}
+		}
+		return tag;
+	}
+
 	/**
 	 * Returns null if Tag not found
 	 */
 	public static ITag find(final byte[] tagBytes) {
-		return tags.get(ByteArrayWrapper.wrapperAround(tagBytes));
+		return find(tagBytes, 0, tagBytes.length);
+	}
+
+	/**
+	 * Returns null if Tag not found
+	 * 
+	 * @param pData
+	 *            byte array containing the tag
+	 * @param pOffset
+	 *            tag offset
+	 * @param pLength
+	 *            tag length
+	 * @return the tag or null
+	 */
+	public static ITag find(final byte[] pData, final int pOffset, final int pLength) {
+		if (pLength <= 0 || pLength > MAX_TAG_ID_BYTES) {
+			return null;
+		}
+		return find(toTagId(pData, pOffset, pLength));
+	}
+
+	/**
+	 * Returns null if Tag not found
+	 * 
+	 * @param pTagId
+	 *            tag id (see {@link #toTagId(byte[], int, int)})
+	 * @return the tag or null
+	 */
+	public static ITag find(final int pTagId) {
+		return tags.get(pTagId);
+	}
+
+	/**
+	 * Method used to pack a tag (up to 4 bytes) in an integer
+	 * 
+	 * @param pData
+	 *            byte array containing the tag
+	 * @param pOffset
+	 *            tag offset
+	 * @param pLength
+	 *            tag length (between 1 and 4)
+	 * @return the tag id
+	 */
+	public static int toTagId(final byte[] pData, final int pOffset, final int pLength) {
+		int ret = 0;
+		for (int i = pOffset; i < pOffset + pLength; i++) {
+			ret = ret << 8 | pData[i] & 0xFF;
+		}
+		return ret;
 	}
 
 	private static void addTag(final ITag tag) {
-		// Use 'wrapper around', since the underlaying byte-array will not be changed in this case
-		ByteArrayWrapper baw = ByteArrayWrapper.wrapperAround(tag.getTagBytes());
-		if (tags.containsKey(baw)) {
+		byte[] tagBytes = tag.getTagBytes();
+		if (tagBytes.length > MAX_TAG_ID_BYTES) {
+			throw new IllegalArgumentException("Tag id is too long " + tag);
+		}
+		if (!tags.put(toTagId(tagBytes, 0, tagBytes.length), tag)) {
 			throw new IllegalArgumentException("Tag already added " + tag);
 		}
-		tags.put(baw, tag);
 	}
 
 	static {
 		Field[] fields;
+		List<ITag> list = new ArrayList<ITag>();
 
 		fields = EmvTags.class.getFields();
 		for (Field f : fields) {
 			if (f.getType() == ITag.class) {
 				try {
-					ITag t = (ITag) f.get(null);
-					addTag(t);
+					list.add((ITag) f.get(null));
 				} catch (IllegalAccessException ex) {
 					throw new RuntimeException(ex);
 				}
 			}
 		}
+		tags = new TagTable(list.size());
+		for (ITag t : list) {
+			addTag(t);
+		}
 	}
 
 	/**
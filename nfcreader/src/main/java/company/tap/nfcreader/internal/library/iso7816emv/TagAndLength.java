@@ -61,6 +61,20 @@ public class TagAndLength {
 		return tagAndLengthBytes;
 	}
 
+	@Override
+	public boolean equals(final Object other) {
+		if (!(other instanceof TagAndLength)) {
+			return false;
+		}
+		TagAndLength that = (TagAndLength) other;
+		return length == that.length && (tag == null ? that.tag == null : tag.equals(that.tag));
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (tag == null ? 0 : tag.hashCode()) + length;
+	}
+
 	@Override
 	public String toString() {
 		return tag.toString() + " length: " + length;
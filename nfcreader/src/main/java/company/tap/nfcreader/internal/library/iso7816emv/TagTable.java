@@ -0,0 +1,124 @@
+package company.tap.nfcreader.internal.library.iso7816emv;
+
+/**
+ * Open addressing hash table of tags keyed by the tag id packed in an integer (see {@link EmvTags#toTagId}).<br/>
+ * Lookups do not allocate. The table never grows: {@link #copyWith(int, ITag)} returns a bigger copy.
+ *
+ */
+final class TagTable {
+
+	/**
+	 * Minimal capacity of the table
+	 */
+	private static final int MIN_CAPACITY = 8;
+
+	/**
+	 * Tag ids
+	 */
+	private final int[] ids;
+
+	/**
+	 * Tags (null for an empty slot)
+	 */
+	private final ITag[] tags;
+
+	/**
+	 * Number of tags in the table
+	 */
+	private int size;
+
+	/**
+	 * Constructor using fields
+	 *
+	 * @param pExpectedSize
+	 *            maximal number of tags stored in the table
+	 */
+	TagTable(final int pExpectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < pExpectedSize * 2) {
+			capacity <<= 1;
+		}
+		ids = new int[capacity];
+		tags = new ITag[capacity];
+	}
+
+	/**
+	 * Method used to get the slot of a tag id
+	 *
+	 * @param pId
+	 *            tag id
+	 * @return the slot containing the id or the empty slot where it could be inserted
+	 */
+	private int slot(final int pId) {
+		int mask = tags.length - 1;
+		int slot = pId * 0x9E3779B9 >>> 16 & mask;
+		while (tags[slot] != null && ids[slot] != pId) {
+			slot = slot + 1 & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Method used to get a tag
+	 *
+	 * @param pId
+	 *            tag id
+	 * @return the tag or null
+	 */
+	ITag get(final int pId) {
+		return tags[slot(pId)];
+	}
+
+	/**
+	 * Method used to add a tag
+	 *
+	 * @param pId
+	 *            tag id
+	 * @param pTag
+	 *            tag to add
+	 * @return false if the id is already present
+	 */
+	boolean put(final int pId, final ITag pTag) {
+		if (size * 2 >= tags.length) {
+			throw new IllegalStateException("Tag table is full");
+		}
+		int slot = slot(pId);
+		if (tags[slot] != null) {
+			return false;
+		}
+		ids[slot] = pId;
+		tags[slot] = pTag;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Method used to get the number of tags
+	 *
+	 * @return the size
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Method used to get a copy of this table with one more tag
+	 *
+	 * @param pId
+	 *            tag id
+	 * @param pTag
+	 *            tag to add
+	 * @return a new table
+	 */
+	TagTable copyWith(final int pId, final ITag pTag) {
+		TagTable ret = new TagTable(size + 1);
+		for (int i = 0; i < tags.length; i++) {
+			if (tags[i] != null) {
+				ret.put(ids[i], tags[i]);
+			}
+		}
+		ret.put(pId, pTag);
+		return ret;
+	}
+
+}
@@ -0,0 +1,175 @@
+package company.tap.nfcreader.internal.library.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with power of 2 microsecond buckets.<br/>
+ * Bucket 0 counts the latencies under 1µs, bucket i the latencies in [2^(i-1), 2^i) µs, the last bucket the longer
+ * ones.
+ *
+ */
+public final class LatencyHistogram {
+
+	/**
+	 * Number of buckets
+	 */
+	public static final int BUCKETS = 32;
+
+	/**
+	 * Nanoseconds in a microsecond
+	 */
+	private static final long NANOS_PER_MICRO = 1000L;
+
+	/**
+	 * Counts by bucket
+	 */
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * Number of latencies
+	 */
+	private final AtomicLong count = new AtomicLong();
+
+	/**
+	 * Sum of the latencies (nanoseconds)
+	 */
+	private final AtomicLong total = new AtomicLong();
+
+	/**
+	 * Maximal latency (nanoseconds)
+	 */
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Method used to record a latency
+	 *
+	 * @param pNanos
+	 *            latency in nanoseconds
+	 */
+	public void record(final long pNanos) {
+		long nanos = Math.max(pNanos, 0);
+		buckets.incrementAndGet(getBucket(nanos / NANOS_PER_MICRO));
+		count.incrementAndGet();
+		total.addAndGet(nanos);
+		long current = max.get();
+		while (nanos > current && !max.compareAndSet(current, nanos)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * Method used to get the bucket of a latency
+	 *
+	 * @param pMicros
+	 *            latency in microseconds
+	 * @return the bucket index
+	 */
+	private static int getBucket(final long pMicros) {
+		return Math.min(64 - Long.numberOfLeadingZeros(pMicros), BUCKETS - 1);
+	}
+
+	/**
+	 * Method used to get the upper bound of a bucket
+	 *
+	 * @param pBucket
+	 *            bucket index
+	 * @return the upper bound in microseconds (Long.MAX_VALUE for the last bucket)
+	 */
+	public static long getBucketLimit(final int pBucket) {
+		return pBucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << pBucket;
+	}
+
+	/**
+	 * Method used to get the counts by bucket
+	 *
+	 * @return a copy of the counts
+	 */
+	public long[] getBuckets() {
+		long[] ret = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			ret[i] = buckets.get(i);
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to get the upper bound of the bucket containing a percentile
+	 *
+	 * @param pPercentile
+	 *            percentile (0 to 100)
+	 * @return the upper bound in microseconds (0 if no latency is recorded)
+	 */
+	public long getPercentileMicros(final double pPercentile) {
+		long[] values = getBuckets();
+		long sum = 0;
+		for (long value : values) {
+			sum += value;
+		}
+		long rank = (long) Math.ceil(sum * pPercentile / 100);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += values[i];
+			if (values[i] > 0 && seen >= rank) {
+				return getBucketLimit(i);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Method used to get the number of latencies
+	 *
+	 * @return the count
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Method used to get the sum of the latencies
+	 *
+	 * @return the sum in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return total.get();
+	}
+
+	/**
+	 * Method used to get the maximal latency
+	 *
+	 * @return the maximal latency in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return max.get();
+	}
+
+	/**
+	 * Method used to copy the histogram, so the values written together are read once while latencies are recorded
+	 *
+	 * @return a copy of the histogram
+	 */
+	public LatencyHistogram snapshot() {
+		LatencyHistogram ret = new LatencyHistogram();
+		for (int i = 0; i < BUCKETS; i++) {
+			ret.buckets.set(i, buckets.get(i));
+		}
+		ret.count.set(count.get());
+		ret.total.set(total.get());
+		ret.max.set(max.get());
+		return ret;
+	}
+
+	/**
+	 * Method used to clear the histogram
+	 */
+	void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets.set(i, 0);
+		}
+		count.set(0);
+		total.set(0);
+		max.set(0);
+	}
+
+}
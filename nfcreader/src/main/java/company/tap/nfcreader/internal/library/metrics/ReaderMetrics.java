@@ -0,0 +1,359 @@
+package company.tap.nfcreader.internal.library.metrics;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import company.tap.nfcreader.internal.library.enums.CommandEnum;
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.enums.SwEnum;
+
+/**
+ * In-process registry of the reader metrics: latency histograms by command ({@link CommandEnum}) and by card scheme
+ * ({@link EmvCardScheme}), counters by status word ({@link SwEnum}) and tap outcomes.<br/>
+ * Metrics are updated with atomic operations only, without lock. A snapshot can be exported as text or in a compact
+ * binary format.
+ *
+ */
+public final class ReaderMetrics {
+
+	/**
+	 * Tap outcomes
+	 */
+	public enum Outcome {
+
+		/**
+		 * Card number read
+		 */
+		SUCCESS,
+
+		/**
+		 * Session ended without card number
+		 */
+		NO_CARD_DATA,
+
+		/**
+		 * Session failed (card removed, communication error...)
+		 */
+		ERROR
+	}
+
+	/**
+	 * Magic number of the binary format "TAPM"
+	 */
+	private static final int MAGIC = 0x5441504D;
+
+	/**
+	 * Binary format version
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Nanoseconds in a microsecond
+	 */
+	private static final long NANOS_PER_MICRO = 1000L;
+
+	/**
+	 * Command latencies by command (last index for unknown commands)
+	 */
+	private static final LatencyHistogram[] COMMANDS = newHistograms(CommandEnum.values().length + 1);
+
+	/**
+	 * Read latencies by card scheme (last index for unknown scheme)
+	 */
+	private static final LatencyHistogram[] SCHEMES = newHistograms(EmvCardScheme.values().length + 1);
+
+	/**
+	 * Command index by instruction byte
+	 */
+	private static final byte[] COMMAND_BY_INS = new byte[256];
+
+	/**
+	 * Status word counters
+	 */
+	private static final StatusWordCounter STATUS_WORDS = new StatusWordCounter();
+
+	/**
+	 * Counters by outcome
+	 */
+	private static final AtomicLongArray OUTCOMES = new AtomicLongArray(Outcome.values().length);
+
+	static {
+		Arrays.fill(COMMAND_BY_INS, (byte) CommandEnum.values().length);
+		for (CommandEnum command : CommandEnum.values()) {
+			COMMAND_BY_INS[command.getIns()] = (byte) command.ordinal();
+		}
+	}
+
+	/**
+	 * Method used to create histograms
+	 *
+	 * @param pCount
+	 *            number of histograms
+	 * @return the histograms
+	 */
+	private static LatencyHistogram[] newHistograms(final int pCount) {
+		LatencyHistogram[] ret = new LatencyHistogram[pCount];
+		for (int i = 0; i < pCount; i++) {
+			ret[i] = new LatencyHistogram();
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to record a command sent to the card
+	 *
+	 * @param pCommand
+	 *            command
+	 * @param pResponse
+	 *            response (null if the communication failed)
+	 * @param pNanos
+	 *            duration in nanoseconds
+	 */
+	public static void recordCommand(final byte[] pCommand, final byte[] pResponse, final long pNanos) {
+		int index = pCommand != null && pCommand.length > 1 ? COMMAND_BY_INS[pCommand[1] & 0xFF] : CommandEnum.values().length;
+		COMMANDS[index].record(pNanos);
+		if (pResponse != null && pResponse.length >= 2) {
+			STATUS_WORDS.add((pResponse[pResponse.length - 2] & 0xFF) << 8 | pResponse[pResponse.length - 1] & 0xFF);
+		}
+	}
+
+	/**
+	 * Method used to record the duration of a successful card read
+	 *
+	 * @param pScheme
+	 *            card scheme (or null)
+	 * @param pNanos
+	 *            duration in nanoseconds
+	 */
+	public static void recordRead(final EmvCardScheme pScheme, final long pNanos) {
+		SCHEMES[pScheme == null ? SCHEMES.length - 1 : pScheme.ordinal()].record(pNanos);
+	}
+
+	/**
+	 * Method used to count a tap outcome
+	 *
+	 * @param pOutcome
+	 *            outcome
+	 */
+	public static void recordOutcome(final Outcome pOutcome) {
+		OUTCOMES.incrementAndGet(pOutcome.ordinal());
+	}
+
+	/**
+	 * Method used to get the latency histogram of a command
+	 *
+	 * @param pCommand
+	 *            command (null for unknown commands)
+	 * @return the histogram
+	 */
+	public static LatencyHistogram getCommandHistogram(final CommandEnum pCommand) {
+		return COMMANDS[pCommand == null ? COMMANDS.length - 1 : pCommand.ordinal()];
+	}
+
+	/**
+	 * Method used to get the read latency histogram of a card scheme
+	 *
+	 * @param pScheme
+	 *            card scheme (null for unknown scheme)
+	 * @return the histogram
+	 */
+	public static LatencyHistogram getSchemeHistogram(final EmvCardScheme pScheme) {
+		return SCHEMES[pScheme == null ? SCHEMES.length - 1 : pScheme.ordinal()];
+	}
+
+	/**
+	 * Method used to get the number of taps of an outcome
+	 *
+	 * @param pOutcome
+	 *            outcome
+	 * @return the number of taps
+	 */
+	public static long getOutcomeCount(final Outcome pOutcome) {
+		return OUTCOMES.get(pOutcome.ordinal());
+	}
+
+	/**
+	 * Method used to get the counters by status word
+	 *
+	 * @return number of responses by status word name ({@link SwEnum} name or hexa status word if unknown)
+	 */
+	public static Map<String, Long> getStatusWordCounts() {
+		Map<String, Long> ret = new LinkedHashMap<String, Long>();
+		for (Map.Entry<Integer, Long> entry : STATUS_WORDS.snapshot().entrySet()) {
+			String name = getStatusWordName(entry.getKey());
+			Long previous = ret.get(name);
+			ret.put(name, previous == null ? entry.getValue() : previous + entry.getValue());
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to get the name of a status word
+	 *
+	 * @param pSw
+	 *            status word
+	 * @return the {@link SwEnum} name or the hexa status word
+	 */
+	private static String getStatusWordName(final int pSw) {
+		SwEnum sw = SwEnum.getSW(pSw >> 8, pSw & 0xFF);
+		return sw != null ? sw.name() : String.format("%04X", pSw);
+	}
+
+	/**
+	 * Method used to clear all metrics
+	 */
+	public static void reset() {
+		for (LatencyHistogram histogram : COMMANDS) {
+			histogram.reset();
+		}
+		for (LatencyHistogram histogram : SCHEMES) {
+			histogram.reset();
+		}
+		STATUS_WORDS.reset();
+		for (int i = 0; i < OUTCOMES.length(); i++) {
+			OUTCOMES.set(i, 0);
+		}
+	}
+
+	/**
+	 * Method used to export the metrics as text (one line by metric)
+	 *
+	 * @return the text
+	 */
+	public static String dump() {
+		StringBuilder ret = new StringBuilder();
+		for (int i = 0; i < COMMANDS.length; i++) {
+			dump(ret, "command", i < CommandEnum.values().length ? CommandEnum.values()[i].name() : "OTHER", COMMANDS[i]);
+		}
+		for (int i = 0; i < SCHEMES.length; i++) {
+			dump(ret, "scheme", i < EmvCardScheme.values().length ? EmvCardScheme.values()[i].name() : "UNKNOWN", SCHEMES[i]);
+		}
+		for (Map.Entry<String, Long> entry : getStatusWordCounts().entrySet()) {
+			ret.append("sw ").append(entry.getKey()).append(' ').append(entry.getValue()).append('\n');
+		}
+		if (STATUS_WORDS.getOverflow() > 0) {
+			ret.append("sw OVERFLOW ").append(STATUS_WORDS.getOverflow()).append('\n');
+		}
+		for (Outcome outcome : Outcome.values()) {
+			ret.append("outcome ").append(outcome.name()).append(' ').append(getOutcomeCount(outcome)).append('\n');
+		}
+		return ret.toString();
+	}
+
+	/**
+	 * Method used to export a histogram as text
+	 *
+	 * @param pOut
+	 *            text
+	 * @param pType
+	 *            metric type
+	 * @param pName
+	 *            metric name
+	 * @param pHistogram
+	 *            histogram (not exported if empty)
+	 */
+	private static void dump(final StringBuilder pOut, final String pType, final String pName, final LatencyHistogram pHistogram) {
+		long count = pHistogram.getCount();
+		if (count == 0) {
+			return;
+		}
+		pOut.append(pType).append(' ').append(pName).append(" count=").append(count) //
+				.append(" mean=").append(pHistogram.getTotalNanos() / count / NANOS_PER_MICRO).append("us") //
+				.append(" p50<=").append(pHistogram.getPercentileMicros(50)).append("us") //
+				.append(" p95<=").append(pHistogram.getPercentileMicros(95)).append("us") //
+				.append(" max=").append(pHistogram.getMaxNanos() / NANOS_PER_MICRO).append("us\n");
+	}
+
+	/**
+	 * Method used to export the metrics in binary format: magic "TAPM", version, then the non empty histograms of the
+	 * commands and of the schemes (name, count, total and max in µs, non empty buckets), the raw status words and the
+	 * outcomes.
+	 *
+	 * @param pOut
+	 *            output stream (not closed)
+	 * @throws IOException
+	 */
+	public static void write(final OutputStream pOut) throws IOException {
+		DataOutputStream out = new DataOutputStream(pOut);
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		writeHistograms(out, COMMANDS, CommandEnum.values(), "OTHER");
+		writeHistograms(out, SCHEMES, EmvCardScheme.values(), "UNKNOWN");
+		Map<Integer, Long> statusWords = STATUS_WORDS.snapshot();
+		out.writeShort(statusWords.size());
+		for (Map.Entry<Integer, Long> entry : statusWords.entrySet()) {
+			out.writeShort(entry.getKey());
+			out.writeLong(entry.getValue());
+		}
+		out.writeLong(STATUS_WORDS.getOverflow());
+		out.writeByte(OUTCOMES.length());
+		for (Outcome outcome : Outcome.values()) {
+			out.writeUTF(outcome.name());
+			out.writeLong(getOutcomeCount(outcome));
+		}
+		out.flush();
+	}
+
+	/**
+	 * Method used to write the non empty histograms
+	 *
+	 * @param pOut
+	 *            output
+	 * @param pHistograms
+	 *            histograms
+	 * @param pNames
+	 *            names of the histograms (the last histogram is not named)
+	 * @param pLastName
+	 *            name of the last histogram
+	 * @throws IOException
+	 */
+	private static void writeHistograms(final DataOutputStream pOut, final LatencyHistogram[] pHistograms, final Enum<?>[] pNames,
+			final String pLastName) throws IOException {
+		// histograms are still recorded: the count written and the entries come from the same copies
+		LatencyHistogram[] snapshots = new LatencyHistogram[pHistograms.length];
+		int count = 0;
+		for (int i = 0; i < pHistograms.length; i++) {
+			snapshots[i] = pHistograms[i].snapshot();
+			if (snapshots[i].getCount() > 0) {
+				count++;
+			}
+		}
+		pOut.writeShort(count);
+		for (int i = 0; i < snapshots.length; i++) {
+			LatencyHistogram histogram = snapshots[i];
+			if (histogram.getCount() == 0) {
+				continue;
+			}
+			pOut.writeUTF(i < pNames.length ? pNames[i].name() : pLastName);
+			pOut.writeLong(histogram.getCount());
+			pOut.writeLong(histogram.getTotalNanos() / NANOS_PER_MICRO);
+			pOut.writeLong(histogram.getMaxNanos() / NANOS_PER_MICRO);
+			long[] buckets = histogram.getBuckets();
+			int used = 0;
+			for (long bucket : buckets) {
+				if (bucket > 0) {
+					used++;
+				}
+			}
+			pOut.writeByte(used);
+			for (int b = 0; b < buckets.length; b++) {
+				if (buckets[b] > 0) {
+					pOut.writeByte(b);
+					pOut.writeLong(buckets[b]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Private constructor
+	 */
+	private ReaderMetrics() {
+	}
+
+}
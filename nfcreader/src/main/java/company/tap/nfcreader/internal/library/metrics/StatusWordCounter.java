@@ -0,0 +1,96 @@
+package company.tap.nfcreader.internal.library.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free counters by status word (open addressing table, slots are claimed with a compare-and-set).<br/>
+ * Status words are counted raw, they are decoded only in the snapshot.
+ *
+ */
+final class StatusWordCounter {
+
+	/**
+	 * Number of slots (power of 2)
+	 */
+	private static final int CAPACITY = 128;
+
+	/**
+	 * Slot mask
+	 */
+	private static final int MASK = CAPACITY - 1;
+
+	/**
+	 * Status word + 1 by slot (0 for a free slot)
+	 */
+	private final AtomicIntegerArray keys = new AtomicIntegerArray(CAPACITY);
+
+	/**
+	 * Counts by slot
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(CAPACITY);
+
+	/**
+	 * Status words not counted because the table is full
+	 */
+	private final AtomicLong overflow = new AtomicLong();
+
+	/**
+	 * Method used to count a status word
+	 *
+	 * @param pSw
+	 *            status word (SW1 << 8 | SW2)
+	 */
+	void add(final int pSw) {
+		int key = (pSw & 0xFFFF) + 1;
+		int index = (key * 0x9E3779B1 >>> 16) & MASK;
+		for (int probe = 0; probe < CAPACITY; probe++) {
+			int current = keys.get(index);
+			if (current == key || current == 0 && (keys.compareAndSet(index, 0, key) || keys.get(index) == key)) {
+				counts.incrementAndGet(index);
+				return;
+			}
+			index = index + 1 & MASK;
+		}
+		overflow.incrementAndGet();
+	}
+
+	/**
+	 * Method used to get the counts
+	 *
+	 * @return counts by status word (SW1 << 8 | SW2)
+	 */
+	Map<Integer, Long> snapshot() {
+		Map<Integer, Long> ret = new LinkedHashMap<Integer, Long>();
+		for (int i = 0; i < CAPACITY; i++) {
+			int key = keys.get(i);
+			if (key != 0) {
+				ret.put(key - 1, counts.get(i));
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to get the number of status words not counted
+	 *
+	 * @return the number of status words
+	 */
+	long getOverflow() {
+		return overflow.get();
+	}
+
+	/**
+	 * Method used to clear the counters (the slots are kept)
+	 */
+	void reset() {
+		for (int i = 0; i < CAPACITY; i++) {
+			counts.set(i, 0);
+		}
+		overflow.set(0);
+	}
+
+}
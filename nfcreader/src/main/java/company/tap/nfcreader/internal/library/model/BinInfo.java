@@ -0,0 +1,116 @@
+package company.tap.nfcreader.internal.library.model;
+
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.model.enums.CardTypeEnum;
+import company.tap.nfcreader.internal.library.model.enums.CountryCodeEnum;
+
+/**
+ * Issuer data of the BIN range of a card number
+ *
+ */
+public class BinInfo extends AbstractData {
+
+	/**
+	 * Generated serial UID
+	 */
+	private static final long serialVersionUID = -2722418385139463551L;
+
+	/**
+	 * Brand name
+	 */
+	private final String brand;
+
+	/**
+	 * Card scheme of the brand (null if the brand is not a known scheme)
+	 */
+	private final EmvCardScheme scheme;
+
+	/**
+	 * Issuer name
+	 */
+	private final String issuer;
+
+	/**
+	 * Issuer country
+	 */
+	private final CountryCodeEnum country;
+
+	/**
+	 * Card type
+	 */
+	private final CardTypeEnum cardType;
+
+	/**
+	 * Constructor using fields
+	 * 
+	 * @param pBrand
+	 *            brand name
+	 * @param pScheme
+	 *            card scheme
+	 * @param pIssuer
+	 *            issuer name
+	 * @param pCountry
+	 *            issuer country
+	 * @param pCardType
+	 *            card type
+	 */
+	public BinInfo(final String pBrand, final EmvCardScheme pScheme, final String pIssuer, final CountryCodeEnum pCountry,
+			final CardTypeEnum pCardType) {
+		brand = pBrand;
+		scheme = pScheme;
+		issuer = pIssuer;
+		country = pCountry;
+		cardType = pCardType;
+	}
+
+	/**
+	 * Method used to get the field brand
+	 * 
+	 * @return the brand (or null)
+	 */
+	public String getBrand() {
+		return brand;
+	}
+
+	/**
+	 * Method used to get the field scheme
+	 * 
+	 * @return the scheme (or null)
+	 */
+	public EmvCardScheme getScheme() {
+		return scheme;
+	}
+
+	/**
+	 * Method used to get the field issuer
+	 * 
+	 * @return the issuer (or null)
+	 */
+	public String getIssuer() {
+		return issuer;
+	}
+
+	/**
+	 * Method used to get the field country
+	 * 
+	 * @return the country (or null)
+	 */
+	public CountryCodeEnum getCountry() {
+		return country;
+	}
+
+	/**
+	 * Method used to get the field cardType
+	 * 
+	 * @return the card type
+	 */
+	public CardTypeEnum getCardType() {
+		return cardType;
+	}
+
+	@Override
+	public String toString() {
+		return "BinInfo{brand=" + brand + ", issuer=" + issuer + ", country=" + country + ", cardType=" + cardType + "}";
+	}
+
+}
@@ -80,6 +80,40 @@ public class EmvTransactionRecord extends AbstractByteBean<EmvTransactionRecord>
 	@Data(index = 7, size = 24, dateStandard = DataFactory.BCD_DATE, format = "HHmmss", tag = "9f21")
 	private Date time;
 
+	/**
+	 * Method used to set the value of an annotated field without reflection (index of the {@link Data} annotation)
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected boolean setValue(final int pIndex, final Object pValue) {
+		switch (pIndex) {
+		case 1:
+			amount = (Float) pValue;
+			break;
+		case 2:
+			cyptogramData = (String) pValue;
+			break;
+		case 3:
+			terminalCountry = (CountryCodeEnum) pValue;
+			break;
+		case 4:
+			currency = (CurrencyEnum) pValue;
+			break;
+		case 5:
+			date = (Date) pValue;
+			break;
+		case 6:
+			transactionType = (TransactionTypeEnum) pValue;
+			break;
+		case 7:
+			time = (Date) pValue;
+			break;
+		default:
+			return false;
+		}
+		return true;
+	}
+
 	/**
 	 * Method used to get the field amount
 	 * 
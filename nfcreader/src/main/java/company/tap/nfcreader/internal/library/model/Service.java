@@ -65,6 +65,20 @@ public class Service extends AbstractData{
 		}
 	}
 
+	/**
+	 * Constructor with the service code as a number
+	 * 
+	 * @param pServiceCode
+	 *            service code from 0 to 999 (negative for no service code)
+	 */
+	public Service(final int pServiceCode) {
+		if (pServiceCode >= 0 && pServiceCode <= 999) {
+			serviceCode1 = EnumUtils.getValue(pServiceCode / 100, ServiceCode1Enum.class);
+			serviceCode2 = EnumUtils.getValue(pServiceCode / 10 % 10, ServiceCode2Enum.class);
+			serviceCode3 = EnumUtils.getValue(pServiceCode % 10, ServiceCode3Enum.class);
+		}
+	}
+
 	/**
 	 * Method used to get the field serviceCode1
 	 * 
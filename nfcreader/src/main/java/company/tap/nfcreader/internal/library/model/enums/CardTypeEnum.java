@@ -0,0 +1,48 @@
+package company.tap.nfcreader.internal.library.model.enums;
+
+/**
+ * Card type of a BIN range
+ *
+ */
+public enum CardTypeEnum implements IKeyEnum {
+
+	/**
+	 * Card type not known
+	 */
+	UNKNOWN(0),
+	/**
+	 * Credit card
+	 */
+	CREDIT(1),
+	/**
+	 * Debit card
+	 */
+	DEBIT(2),
+	/**
+	 * Prepaid card
+	 */
+	PREPAID(3),
+	/**
+	 * Charge card (balance paid in full each period)
+	 */
+	CHARGE(4);
+
+	/**
+	 * Value
+	 */
+	private final int value;
+
+	/**
+	 * Constructor using field
+	 * 
+	 * @param value
+	 */
+	private CardTypeEnum(final int value) {
+		this.value = value;
+	}
+
+	@Override
+	public int getKey() {
+		return value;
+	}
+}
@@ -1,5 +1,10 @@
 package company.tap.nfcreader.internal.library.model.enums;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import company.tap.nfcreader.internal.library.utils.EnumUtils;
+
 /*
  * Copyright (C) 2012 Neo Visionaries Inc.
  *
@@ -50,7 +55,7 @@ package company.tap.nfcreader.internal.library.model.enums;
 public enum CountryCodeEnum implements IKeyEnum {
 	// @formatter:off
 	/** <a href="http://en.wikipedia.org/wiki/Andorra">Andorra</a> */
-	AD("Andorra", "AND", 16),
+	AD("Andorra", "AND", 20),
 
 	/**
 	 * <a href="http://en.wikipedia.org/wiki/United_Arab_Emirates">United Arab Emirates</a>
@@ -547,7 +552,7 @@ public enum CountryCodeEnum implements IKeyEnum {
 	MN("Mongolia", "MNG", 496),
 
 	/** <a href="http://en.wikipedia.org/wiki/Macau">Macao</a> */
-	MO("Macao", "MCO", 492),
+	MO("Macao", "MAC", 446),
 
 	/**
 	 * <a href="http://en.wikipedia.org/wiki/Northern_Mariana_Islands">Northern Mariana Islands</a>
@@ -898,6 +903,18 @@ public enum CountryCodeEnum implements IKeyEnum {
 	ZW("Zimbabwe", "ZWE", 716), ;
 	// @formatter:on
 
+	/**
+	 * Countries by alpha-2 and alpha-3 code
+	 */
+	private static final Map<String, CountryCodeEnum> BY_CODE = new HashMap<String, CountryCodeEnum>();
+
+	static {
+		for (CountryCodeEnum country : values()) {
+			BY_CODE.put(country.name(), country);
+			BY_CODE.put(country.alpha3, country);
+		}
+	}
+
 	private final String name;
 	private final String alpha3;
 	private final int numeric;
@@ -944,6 +961,30 @@ public enum CountryCodeEnum implements IKeyEnum {
 		return numeric;
 	}
 
+	/**
+	 * Get a CountryCode that corresponds to a given <a href="http://en.wikipedia.org/wiki/ISO_3166-1_alpha-2" >ISO 3166-1
+	 * alpha-2</a> or <a href="http://en.wikipedia.org/wiki/ISO_3166-1_alpha-3" >alpha-3</a> code.
+	 * 
+	 * @param code
+	 *            An alpha-2 or alpha-3 code, e.g. "JP" or "JPN".
+	 * @return The CountryCode or null if it doesn't exist.
+	 */
+	public static CountryCodeEnum getByCode(final String code) {
+		return code != null ? BY_CODE.get(code) : null;
+	}
+
+	/**
+	 * Get a CountryCode that corresponds to a given <a href="http://en.wikipedia.org/wiki/ISO_3166-1_numeric" >ISO 3166-1
+	 * numeric</a> code.
+	 * 
+	 * @param numeric
+	 *            The numeric code, e.g. 392.
+	 * @return The CountryCode or null if it doesn't exist.
+	 */
+	public static CountryCodeEnum getByNumeric(final int numeric) {
+		return EnumUtils.getValue(numeric, CountryCodeEnum.class);
+	}
+
 	@Override
 	public int getKey() {
 		return numeric;
@@ -15,6 +15,11 @@
  */
 package company.tap.nfcreader.internal.library.model.enums;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import company.tap.nfcreader.internal.library.utils.EnumUtils;
+
 /**
  * The currencies (ISO 4217). Reference: <a href="http://en.wikipedia.org/wiki/ISO_4217">Wikipedia ISO 4217</a>.
  * <p>
@@ -229,6 +234,17 @@ public enum CurrencyEnum implements IKeyEnum {
 	ZAR(710, Digits.DIGITS_2, "South African rand", new CountryCodeEnum[] { CountryCodeEnum.ZA }),
 	ZMK(894, Digits.DIGITS_2, "Zambian kwacha", new CountryCodeEnum[] { CountryCodeEnum.ZM });
 
+	/**
+	 * Currencies by code
+	 */
+	private static final Map<String, CurrencyEnum> BY_CODE = new HashMap<String, CurrencyEnum>();
+
+	static {
+		for (CurrencyEnum currency : values()) {
+			BY_CODE.put(currency.getCode(), currency);
+		}
+	}
+
 	private final String code;
 	private final String name;
 	private final int numeric;
@@ -337,14 +353,18 @@ public enum CurrencyEnum implements IKeyEnum {
 	 * @return The corresponding currency or null if it doesn't exist.
 	 */
 	public static CurrencyEnum find(final String code) {
-		for (int i = 0; i < values().length; i++) {
-			if (values()[i].getCode().equals(code)) {
-				return values()[i];
-			}
-		}
+		return BY_CODE.get(code);
+	}
 
-		// not found
-		return null;
+	/**
+	 * Returns the currency for the given ISO 4217 numeric code.
+	 * 
+	 * @param numeric
+	 *            The numeric code, e.g. 840, 978, etc.
+	 * @return The corresponding currency or null if it doesn't exist.
+	 */
+	public static CurrencyEnum findByNumeric(final int numeric) {
+		return EnumUtils.getValue(numeric, CurrencyEnum.class);
 	}
 
 	/**
@@ -381,15 +401,15 @@ public enum CurrencyEnum implements IKeyEnum {
 			default:
 				// if default rules don't apply, let's see if we can resolve
 				// otherwise!
-				for (int i = 0; i < values().length; i++) {
-					CountryCodeEnum[] countries = values()[i].getCountries();
+				for (CurrencyEnum value : values()) {
+					CountryCodeEnum[] countries = value.getCountries();
 					for (CountryCodeEnum countrie : countries) {
 						if (countrie == pCountryCodeEnum) {
 							if (currency != null) {
 								// more than one currency!
 								return null;
 							} else {
-								currency = values()[i];
+								currency = value;
 							}
 						}
 					}
@@ -0,0 +1,345 @@
+package company.tap.nfcreader.internal.library.parser;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.log.Logger;
+import company.tap.nfcreader.internal.library.log.LoggerFactory;
+import company.tap.nfcreader.internal.library.utils.BytesUtils;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Statistics used to order the known AID selected when the PSE/PPSE is not available.<br/>
+ * Each AID is scored with the prior of its scheme (regional configuration) plus the number of cards read with it, the
+ * AID with the best score is selected first. Counters can be saved in a small properties file.
+ *
+ */
+public final class AidStatistics {
+
+	/**
+	 * Class Logger
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(AidStatistics.class);
+
+	/**
+	 * Maximal value of a counter
+	 */
+	private static final int MAX_COUNT = 1000000;
+
+	/**
+	 * Delay before a requested save (the saves of the cards read in a row are merged)
+	 */
+	private static final long SAVE_DELAY_MS = 2000;
+
+	/**
+	 * All known AID (declaration order)
+	 */
+	private static final List<Entry> ENTRIES = new ArrayList<Entry>();
+
+	/**
+	 * Prior by scheme (ordinal)
+	 */
+	private static final int[] PRIORS = new int[EmvCardScheme.values().length];
+
+	/**
+	 * File used to save the counters (or null)
+	 */
+	private static File file;
+
+	/**
+	 * True if the counters changed since the last save
+	 */
+	private static boolean dirty;
+
+	/**
+	 * File already merged in the counters (a file is merged only once)
+	 */
+	private static File loaded;
+
+	/**
+	 * True if a save is scheduled
+	 */
+	private static boolean savePending;
+
+	static {
+		for (EmvCardScheme scheme : EmvCardScheme.values()) {
+			for (byte[] aid : scheme.getAidByte()) {
+				ENTRIES.add(new Entry(scheme, aid));
+			}
+		}
+	}
+
+	/**
+	 * Method used to set the prior of a scheme (for example the market share of the scheme in the region)
+	 *
+	 * @param pScheme
+	 *            card scheme
+	 * @param pPrior
+	 *            prior added to the counter of each AID of the scheme
+	 */
+	public static synchronized void setPrior(final EmvCardScheme pScheme, final int pPrior) {
+		PRIORS[pScheme.ordinal()] = pPrior;
+	}
+
+	/**
+	 * Method used to get the known AID, best score first
+	 *
+	 * @return a new list of AID
+	 */
+	static synchronized List<Entry> getOrder() {
+		List<Entry> ret = new ArrayList<Entry>(ENTRIES);
+		// stable sort: same score keep the declaration order
+		Collections.sort(ret, new Comparator<Entry>() {
+			@Override
+			public int compare(final Entry pFirst, final Entry pSecond) {
+				long first = (long) PRIORS[pFirst.scheme.ordinal()] + pFirst.count;
+				long second = (long) PRIORS[pSecond.scheme.ordinal()] + pSecond.count;
+				return first > second ? -1 : first == second ? 0 : 1;
+			}
+		});
+		return ret;
+	}
+
+	/**
+	 * Method used to count a card read with an AID
+	 *
+	 * @param pAid
+	 *            selected AID (the longest known AID prefix of this AID is counted, the last declared scheme wins for
+	 *            the same AID as {@link EmvCardScheme#getCardTypeByAid(byte[])})
+	 */
+	static synchronized void addSuccess(final byte[] pAid) {
+		Entry best = null;
+		for (Entry entry : ENTRIES) {
+			if (entry.isPrefixOf(pAid) && (best == null || entry.aid.length >= best.aid.length)) {
+				best = entry;
+			}
+		}
+		if (best != null && best.count < MAX_COUNT) {
+			best.count++;
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Method used to load the counters from a file (the file is also used by {@link #save()}).<br/>
+	 * The saved counters are added to the counters of the cards already read, a file already loaded is not added
+	 * twice. A corrupt file is not merged and is replaced by the next save.
+	 *
+	 * @param pFile
+	 *            counters file
+	 */
+	public static synchronized void load(final File pFile) {
+		file = pFile;
+		if (pFile == null || pFile.equals(loaded) || !pFile.exists()) {
+			return;
+		}
+		Properties properties = new Properties();
+		InputStream is = null;
+		try {
+			is = new FileInputStream(pFile);
+			properties.load(is);
+			// the whole file is read before merging, so a corrupt file leaves the counters unchanged
+			int[] counts = new int[ENTRIES.size()];
+			for (int i = 0; i < counts.length; i++) {
+				String value = properties.getProperty(ENTRIES.get(i).getKey());
+				if (value != null) {
+					counts[i] = Math.max(Integer.parseInt(value.trim()), 0);
+				}
+			}
+			for (int i = 0; i < counts.length; i++) {
+				Entry entry = ENTRIES.get(i);
+				entry.count = (int) Math.min((long) entry.count + counts[i], MAX_COUNT);
+			}
+			loaded = pFile;
+		} catch (IOException e) {
+			LOGGER.error("Unable to load AID statistics: " + e.getMessage());
+		} catch (IllegalArgumentException e) {
+			LOGGER.error("Invalid AID statistics, the file will be replaced: " + e.getMessage());
+			loaded = pFile;
+			dirty = true;
+		} finally {
+			closeQuietly(is);
+		}
+		if (dirty) {
+			// cards read before the load were not saved
+			requestSave();
+		}
+	}
+
+	/**
+	 * Method used to save the counters later on the IO scheduler, the requests received before the save are merged.
+	 * Nothing is saved before {@link #load(File)} is called: the counters are kept until then.
+	 */
+	public static synchronized void requestSave() {
+		if (savePending || !dirty) {
+			return;
+		}
+		savePending = true;
+		Schedulers.io().scheduleDirect(new Runnable() {
+			@Override
+			public void run() {
+				save();
+			}
+		}, SAVE_DELAY_MS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Method used to save the counters in the file given to {@link #load(File)} (nothing is done if the counters did
+	 * not change)
+	 */
+	public static synchronized void save() {
+		savePending = false;
+		// a file not merged in the counters is not replaced
+		if (file == null || !dirty || !file.equals(loaded) && file.exists()) {
+			return;
+		}
+		Properties properties = new Properties();
+		for (Entry entry : ENTRIES) {
+			if (entry.count > 0) {
+				properties.setProperty(entry.getKey(), String.valueOf(entry.count));
+			}
+		}
+		// the file is replaced once written
+		File tmp = new File(file.getPath() + ".tmp");
+		try {
+			OutputStream os = new FileOutputStream(tmp);
+			try {
+				properties.store(os, null);
+			} finally {
+				os.close();
+			}
+			if (!tmp.renameTo(file)) {
+				throw new IOException("Cannot replace " + file);
+			}
+			dirty = false;
+		} catch (IOException e) {
+			LOGGER.error("Unable to save AID statistics: " + e.getMessage());
+			tmp.delete();
+		}
+	}
+
+	/**
+	 * Method used to close a stream without exception
+	 *
+	 * @param pCloseable
+	 *            stream to close
+	 */
+	private static void closeQuietly(final Closeable pCloseable) {
+		if (pCloseable != null) {
+			try {
+				pCloseable.close();
+			} catch (IOException e) {
+				// do nothing
+			}
+		}
+	}
+
+	/**
+	 * Known AID of a scheme
+	 */
+	static final class Entry {
+
+		/**
+		 * Card scheme
+		 */
+		private final EmvCardScheme scheme;
+
+		/**
+		 * AID (or RID)
+		 */
+		private final byte[] aid;
+
+		/**
+		 * Number of cards read with this AID
+		 */
+		private int count;
+
+		/**
+		 * Constructor using fields
+		 *
+		 * @param pScheme
+		 *            card scheme
+		 * @param pAid
+		 *            AID
+		 */
+		private Entry(final EmvCardScheme pScheme, final byte[] pAid) {
+			scheme = pScheme;
+			aid = pAid;
+		}
+
+		/**
+		 * Method used to know if the AID is a prefix of a selected AID
+		 *
+		 * @param pAid
+		 *            selected AID
+		 * @return true if the selected AID starts with this AID
+		 */
+		private boolean isPrefixOf(final byte[] pAid) {
+			if (pAid == null || pAid.length < aid.length) {
+				return false;
+			}
+			for (int i = 0; i < aid.length; i++) {
+				if (aid[i] != pAid[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Method used to get the key of the AID in the counters file
+		 *
+		 * @return the key
+		 */
+		private String getKey() {
+			return scheme.name() + "." + BytesUtils.bytesToStringNoSpace(aid);
+		}
+
+		/**
+		 * Method used to get the field scheme
+		 *
+		 * @return the scheme
+		 */
+		EmvCardScheme getScheme() {
+			return scheme;
+		}
+
+		/**
+		 * Method used to get the field aid
+		 *
+		 * @return the aid
+		 */
+		byte[] getAid() {
+			return aid;
+		}
+
+		/**
+		 * Method used to get the field count
+		 *
+		 * @return the count
+		 */
+		int getCount() {
+			return count;
+		}
+
+	}
+
+	/**
+	 * Private constructor
+	 */
+	private AidStatistics() {
+	}
+
+}
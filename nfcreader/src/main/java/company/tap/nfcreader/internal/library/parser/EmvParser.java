@@ -19,11 +19,15 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import company.tap.nfcreader.internal.library.enums.CommandEnum;
 import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
-import company.tap.nfcreader.internal.library.enums.SwEnum;
+import company.tap.nfcreader.internal.library.enums.ReadPhaseEnum;
+import company.tap.nfcreader.internal.library.enums.ReadStageEnum;
+import company.tap.nfcreader.internal.library.enums.SwCategoryEnum;
 import company.tap.nfcreader.internal.library.exception.CommunicationException;
 import company.tap.nfcreader.internal.library.iso7816emv.EmvTags;
 import company.tap.nfcreader.internal.library.iso7816emv.EmvTerminal;
@@ -31,13 +35,17 @@ import company.tap.nfcreader.internal.library.iso7816emv.TLV;
 import company.tap.nfcreader.internal.library.iso7816emv.TagAndLength;
 import company.tap.nfcreader.internal.library.log.Logger;
 import company.tap.nfcreader.internal.library.log.LoggerFactory;
+import company.tap.nfcreader.internal.library.metrics.ReaderMetrics;
 import company.tap.nfcreader.internal.library.model.Afl;
 import company.tap.nfcreader.open.reader.TapEmvCard;
 import company.tap.nfcreader.internal.library.model.EmvTransactionRecord;
 import company.tap.nfcreader.internal.library.model.enums.CurrencyEnum;
+import company.tap.nfcreader.internal.library.parser.apdu.annotation.AnnotationData;
+import company.tap.nfcreader.internal.library.parser.apdu.annotation.AnnotationUtils;
 import company.tap.nfcreader.internal.library.utils.BytesUtils;
 import company.tap.nfcreader.internal.library.utils.CommandApdu;
 import company.tap.nfcreader.internal.library.utils.ResponseUtils;
+import company.tap.nfcreader.internal.library.utils.TlvIndex;
 import company.tap.nfcreader.internal.library.utils.TlvUtil;
 import company.tap.nfcreader.internal.library.utils.TrackUtils;
 
@@ -66,6 +74,11 @@ public class EmvParser {
 	 */
 	private static final byte[] PSE = "1PAY.SYS.DDF01".getBytes();
 
+	/**
+	 * Maximal number of GET RESPONSE sent for a command
+	 */
+	private static final int MAX_GET_RESPONSE = 16;
+
 	/**
 	 * Unknow response
 	 */
@@ -91,6 +104,46 @@ public class EmvParser {
 	 */
 	private TapEmvCard card;
 
+	/**
+	 * Scheme of the application being read (used to plan the records to read)
+	 */
+	private EmvCardScheme scheme;
+
+	/**
+	 * Read path cache key of the PPSE response
+	 */
+	private String ppseKey;
+
+	/**
+	 * Cached read path of the application being read (or null)
+	 */
+	private ReadPathCache.ReadPath path;
+
+	/**
+	 * True if the GPO of the application being read succeeded only without PDOL data
+	 */
+	private boolean emptyPdol;
+
+	/**
+	 * Listener notified of the card data as soon as each read stage completes (or null)
+	 */
+	private IReadListener listener;
+
+	/**
+	 * Time budget of the read (or null)
+	 */
+	private ReadBudget budget;
+
+	/**
+	 * Optional stages to run (all by default)
+	 */
+	private Set<ReadStageEnum> stages = EnumSet.allOf(ReadStageEnum.class);
+
+	/**
+	 * Timing breakdown of the read (or null)
+	 */
+	private ReadTimings timings;
+
 	/**
 	 * Constructor
 	 *
@@ -111,11 +164,15 @@ public class EmvParser {
 	 * @return data read from card or null if any provider match the card type
 	 */
 	public TapEmvCard readEmvCard() throws CommunicationException {
-		// use PSE first
+		long start = System.nanoTime();
+		// use PSE
 		if (!readWithPSE()) {
 			// Find with AID
 			readWithAID();
 		}
+		if (card.getCardNumber() != null) {
+			ReaderMetrics.recordRead(card.getType(), System.nanoTime() - start);
+		}
 		return card;
 	}
 
@@ -129,8 +186,9 @@ public class EmvParser {
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("Select " + (contactLess ? "PPSE" : "PSE") + " Application");
 		}
+		phase(ReadPhaseEnum.PPSE);
 		// Select the PPSE or PSE directory
-		return provider.transceive(new CommandApdu(CommandEnum.SELECT, contactLess ? PPSE : PSE, 0).toBytes());
+		return transceive(provider, new CommandApdu(CommandEnum.SELECT, contactLess ? PPSE : PSE, 0).toBytes());
 	}
 
 	/**
@@ -144,8 +202,9 @@ public class EmvParser {
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("Get Left PIN try");
 		}
+		phase(ReadPhaseEnum.PIN_TRY);
 		// Left PIN try command
-		byte[] data = provider.transceive(new CommandApdu(CommandEnum.GET_DATA, 0x9F, 0x17, 0).toBytes());
+		byte[] data = transceive(provider, new CommandApdu(CommandEnum.GET_DATA, 0x9F, 0x17, 0).toBytes());
 		if (ResponseUtils.isSucceed(data)) {
 			// Extract PIN try counter
 			byte[] val = TlvUtil.getValue(data, EmvTags.PIN_TRY_COUNTER);
@@ -174,12 +233,7 @@ public class EmvParser {
 			if (LOGGER.isDebugEnabled()) {
 				LOGGER.debug("SFI found:" + sfi);
 			}
-			data = provider.transceive(new CommandApdu(CommandEnum.READ_RECORD, sfi, sfi << 3 | 4, 0).toBytes());
-			// If LE is not correct
-			if (ResponseUtils.isEquals(data, SwEnum.SW_6C)) {
-				data = provider.transceive(new CommandApdu(CommandEnum.READ_RECORD, sfi, sfi << 3 | 4, data[data.length - 1]).toBytes());
-			}
-			return data;
+			return transceive(provider, new CommandApdu(CommandEnum.READ_RECORD, sfi, sfi << 3 | 4, 0).toBytes());
 		}
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("(FCI) Issuer Discretionary Data is already present");
@@ -192,12 +246,12 @@ public class EmvParser {
 	 *
 	 * @return decoded application label or null
 	 */
-	protected String extractApplicationLabel(final byte[] pData) {
+	protected String extractApplicationLabel(final TlvIndex pData) {
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("Extract Application label");
 		}
 		String label = null;
-		byte[] labelByte = TlvUtil.getValue(pData, EmvTags.APPLICATION_LABEL);
+		byte[] labelByte = pData.getValue(EmvTags.APPLICATION_LABEL);
 		if (labelByte != null) {
 			label = new String(labelByte);
 		}
@@ -218,14 +272,26 @@ public class EmvParser {
 		// Select the PPSE or PSE directory
 		byte[] data = selectPaymentEnvironment();
 		if (ResponseUtils.isSucceed(data)) {
+			ppseKey = ReadPathCache.getPpseKey(data);
+			ReadPathCache.ReadPath cached = ReadPathCache.get(ppseKey);
 			// Parse FCI Template
 			data = parseFCIProprietaryTemplate(data);
 			// Extract application label
 			if (ResponseUtils.isSucceed(data)) {
+				TlvIndex index = new TlvIndex(data);
 				// Get Aids
 				List<byte[]> aids = getAids(data);
+				// Select first the AID which succeeded with the same PPSE response
+				for (int i = 1; cached != null && i < aids.size(); i++) {
+					if (cached.isAid(aids.get(i))) {
+						aids.add(0, aids.remove(i));
+						break;
+					}
+				}
 				for (byte[] aid : aids) {
-					ret = extractPublicData(aid, extractApplicationLabel(data));
+					path = cached != null && cached.isAid(aid) ? cached : null;
+					ret = extractPublicData(aid, extractApplicationLabel(index));
+					path = null;
 					if (ret == true) {
 						break;
 					}
@@ -270,12 +336,10 @@ public class EmvParser {
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("Try to read card with AID");
 		}
-		// Test each card from know EMV AID
-		for (EmvCardScheme type : EmvCardScheme.values()) {
-			for (byte[] aid : type.getAidByte()) {
-				if (extractPublicData(aid, type.getName())) {
-					return;
-				}
+		// Test each card from know EMV AID (most frequent first)
+		for (AidStatistics.Entry entry : AidStatistics.getOrder()) {
+			if (extractPublicData(entry.getAid(), entry.getScheme().getName())) {
+				return;
 			}
 		}
 	}
@@ -292,7 +356,8 @@ public class EmvParser {
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("Select AID: " + BytesUtils.bytesToString(pAid));
 		}
-		return provider.transceive(new CommandApdu(CommandEnum.SELECT, pAid, 0).toBytes());
+		phase(ReadPhaseEnum.SELECT);
+		return transceive(provider, new CommandApdu(CommandEnum.SELECT, pAid, 0).toBytes());
 	}
 
 	/**
@@ -310,18 +375,27 @@ public class EmvParser {
 		byte[] data = selectAID(pAid);
 		// check response
 		if (ResponseUtils.isSucceed(data)) {
+			if (listener != null) {
+				listener.onApplicationSelected(BytesUtils.bytesToStringNoSpace(pAid), pApplicationLabel);
+			}
 			// Parse select response
-			ret = parse(data, provider);
+			TlvIndex index = new TlvIndex(data);
+			scheme = EmvCardScheme.getCardTypeByAid(pAid);
+			ret = parse(index, provider);
 			if (ret) {
 				// Get AID
-				String aid = BytesUtils.bytesToStringNoSpace(TlvUtil.getValue(data, EmvTags.DEDICATED_FILE_NAME));
+				byte[] dfName = index.getValue(EmvTags.DEDICATED_FILE_NAME);
+				String aid = BytesUtils.bytesToStringNoSpace(dfName);
 				if (LOGGER.isDebugEnabled()) {
 					LOGGER.debug("Application label:" + pApplicationLabel + " with Aid:" + aid);
 				}
 				card.setAid(aid);
-				card.setType(findCardScheme(aid, card.getCardNumber()));
+				card.setType(findCardScheme(dfName, card.getCardNumber()));
 				card.setApplicationLabel(pApplicationLabel);
-				card.setLeftPinTry(getLeftPinTry());
+				card.setLeftPinTry(allow(ReadStageEnum.LEFT_PIN_TRY, 1) ? getLeftPinTry() : UNKNOW);
+				AidStatistics.addSuccess(pAid);
+				// Save the read path for the next tap of the same card type
+				ReadPathCache.put(ppseKey, new ReadPathCache.ReadPath(pAid, emptyPdol));
 			}
 		}
 		return ret;
@@ -337,7 +411,33 @@ public class EmvParser {
 	 * @return card scheme
 	 */
 	protected EmvCardScheme findCardScheme(final String pAid, final String pCardNumber) {
-		EmvCardScheme type = EmvCardScheme.getCardTypeByAid(pAid);
+		return findCardScheme(EmvCardScheme.getCardTypeByAid(pAid), pCardNumber);
+	}
+
+	/**
+	 * Method used to find the real card scheme
+	 *
+	 * @param pAid
+	 *            card complete AID (application DF name)
+	 * @param pCardNumber
+	 *            card number
+	 * @return card scheme
+	 */
+	protected EmvCardScheme findCardScheme(final byte[] pAid, final String pCardNumber) {
+		return findCardScheme(EmvCardScheme.getCardTypeByAid(pAid), pCardNumber);
+	}
+
+	/**
+	 * Method used to find the real scheme of a card of a domestic scheme
+	 *
+	 * @param pType
+	 *            scheme of the AID
+	 * @param pCardNumber
+	 *            card number
+	 * @return card scheme
+	 */
+	private EmvCardScheme findCardScheme(final EmvCardScheme pType, final String pCardNumber) {
+		EmvCardScheme type = pType;
 		// Get real type for french card
 		if (type == EmvCardScheme.CB) {
 			type = EmvCardScheme.getCardTypeByCardNumber(pCardNumber);
@@ -355,25 +455,30 @@ public class EmvParser {
 	 *            select response
 	 * @return byte array
 	 */
-	protected byte[] getLogEntry(final byte[] pSelectResponse) {
-		return TlvUtil.getValue(pSelectResponse, EmvTags.LOG_ENTRY, EmvTags.VISA_LOG_ENTRY);
+	protected byte[] getLogEntry(final TlvIndex pSelectResponse) {
+		return pSelectResponse.getValue(EmvTags.LOG_ENTRY, EmvTags.VISA_LOG_ENTRY);
 	}
 
 	/**
 	 * Method used to parse EMV card
 	 */
-	protected boolean parse(final byte[] pSelectResponse, final IProvider pProvider) throws CommunicationException {
+	protected boolean parse(final TlvIndex pSelectResponse, final IProvider pProvider) throws CommunicationException {
 		boolean ret = false;
 		// Get TLV log entry
 		byte[] logEntry = getLogEntry(pSelectResponse);
 		// Get PDOL
-		byte[] pdol = TlvUtil.getValue(pSelectResponse, EmvTags.PDOL);
-		// Send GPO Command
-		byte[] gpo = getGetProcessingOptions(pdol, pProvider);
-
-		// Check empty PDOL
+		byte[] pdol = pSelectResponse.getValue(EmvTags.PDOL);
+		// Send GPO Command (without PDOL data first if the card type is known to reject them)
+		phase(ReadPhaseEnum.GPO);
+		boolean withPdol = path == null || !path.isEmptyPdol();
+		byte[] gpo = getGetProcessingOptions(withPdol ? pdol : null, pProvider);
+		emptyPdol = !withPdol;
+
+		// Check response, then try the other GPO (this card may not behave as its card type)
 		if (!ResponseUtils.isSucceed(gpo)) {
-			gpo = getGetProcessingOptions(null, pProvider);
+			retry();
+			emptyPdol = withPdol;
+			gpo = getGetProcessingOptions(withPdol ? null : pdol, pProvider);
 			// Check response
 			if (!ResponseUtils.isSucceed(gpo)) {
 				return false;
@@ -399,45 +504,129 @@ public class EmvParser {
 	 */
 	protected boolean extractCommonsCardData(final byte[] pGpo) throws CommunicationException {
 		boolean ret = false;
+		TlvIndex gpo = new TlvIndex(pGpo);
 		// Extract data from Message Template 1
-		byte data[] = TlvUtil.getValue(pGpo, EmvTags.RESPONSE_MESSAGE_TEMPLATE_1);
+		byte data[] = gpo.getValue(EmvTags.RESPONSE_MESSAGE_TEMPLATE_1);
 		if (data != null) {
 			data = ArrayUtils.subarray(data, 2, data.length);
 		} else { // Extract AFL data from Message template 2
-			ret = TrackUtils.extractTrack2Data(card, pGpo);
+			ret = TrackUtils.extractTrack2Data(card, gpo);
 			if (!ret) {
-				data = TlvUtil.getValue(pGpo, EmvTags.APPLICATION_FILE_LOCATOR);
+				data = gpo.getValue(EmvTags.APPLICATION_FILE_LOCATOR);
 			} else {
-				extractCardHolderName(pGpo);
+				notifyCardNumber();
+				extractCardHolderName(gpo);
 			}
 		}
 
 		if (data != null) {
-			// Extract Afl
-			List<Afl> listAfl = extractAfl(data);
-			// for each AFL
-			for (Afl afl : listAfl) {
-				// check all records
-				for (int index = afl.getFirstRecord(); index <= afl.getLastRecord(); index++) {
-					byte[] info = provider.transceive(new CommandApdu(CommandEnum.READ_RECORD, index, afl.getSfi() << 3 | 4, 0).toBytes());
-					if (ResponseUtils.isEquals(info, SwEnum.SW_6C)) {
-						info = provider.transceive(new CommandApdu(CommandEnum.READ_RECORD, index, afl.getSfi() << 3 | 4,
-								info[info.length - 1]).toBytes());
+			phase(ReadPhaseEnum.READ_RECORD);
+			// Extract Afl and order the records to read
+			int[] plan = RecordReadPlanner.plan(scheme, extractAfl(data));
+			boolean name = false;
+			for (int i = 0; i < plan.length; i++) {
+				// Stop when the track 2 is found, unless a remaining record is known to contain the card holder name
+				if (ret && (name || !RecordReadPlanner.mayContainName(scheme, plan, i) || !allow(ReadStageEnum.HOLDER_NAME, 1))) {
+					break;
+				}
+				byte[] info = transceive(provider, RecordReadPlanner.getReadRecord(plan[i]));
+
+				// Extract card data
+				if (ResponseUtils.isSucceed(info)) {
+					TlvIndex record = new TlvIndex(info);
+					boolean recordName = record.contains(EmvTags.CARDHOLDER_NAME);
+					if (recordName) {
+						extractCardHolderName(record);
+						name = true;
 					}
-
-					// Extract card data
-					if (ResponseUtils.isSucceed(info)) {
-						extractCardHolderName(info);
-						if (TrackUtils.extractTrack2Data(card, info)) {
-							return true;
-						}
+					boolean recordTrack2 = !ret && TrackUtils.extractTrack2Data(card, record);
+					if (recordTrack2) {
+						notifyCardNumber();
 					}
+					ret |= recordTrack2;
+					RecordReadPlanner.update(scheme, plan[i], recordTrack2, recordName);
 				}
 			}
 		}
 		return ret;
 	}
 
+	/**
+	 * Method used to notify the listener that the card number is found
+	 */
+	private void notifyCardNumber() {
+		if (listener != null) {
+			listener.onCardNumber(card.getCardNumber(), card.getExpireDate(), scheme);
+		}
+	}
+
+	/**
+	 * Method used to know if an optional stage is required and can be run before the deadline
+	 *
+	 * @param pStage
+	 *            optional stage
+	 * @param pCommands
+	 *            number of commands of the stage
+	 * @return true if the stage can be run
+	 */
+	private boolean allow(final ReadStageEnum pStage, final int pCommands) {
+		return stages.contains(pStage) && (budget == null || budget.allow(pStage, pCommands));
+	}
+
+	/**
+	 * Method used to start a phase of the timing breakdown
+	 *
+	 * @param pPhase
+	 *            phase
+	 */
+	private void phase(final ReadPhaseEnum pPhase) {
+		if (timings != null) {
+			timings.start(pPhase);
+		}
+	}
+
+	/**
+	 * Method used to send a command and handle the transport status words: 6Cxx (the command is sent again with the
+	 * Le given by the card) and 61xx (the remaining data are read with GET RESPONSE)
+	 *
+	 * @param pProvider
+	 *            provider used to send the command
+	 * @param pCommand
+	 *            command with a Le (last byte)
+	 * @return the response with all its data and the last status word
+	 * @throws CommunicationException
+	 */
+	private byte[] transceive(final IProvider pProvider, final byte[] pCommand) throws CommunicationException {
+		byte[] ret = pProvider.transceive(pCommand);
+		// If LE is not correct
+		if (ResponseUtils.isCategory(ret, SwCategoryEnum.WRONG_LE)) {
+			retry();
+			byte[] command = pCommand.clone();
+			command[command.length - 1] = ret[ret.length - 1];
+			ret = pProvider.transceive(command);
+		}
+		if (!ResponseUtils.isCategory(ret, SwCategoryEnum.MORE_DATA)) {
+			return ret;
+		}
+		// Read the data available with GET RESPONSE
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int i = 0; i < MAX_GET_RESPONSE && ResponseUtils.isCategory(ret, SwCategoryEnum.MORE_DATA); i++) {
+			out.write(ret, 0, ret.length - 2);
+			ret = pProvider.transceive(new CommandApdu(CommandEnum.GET_RESPONSE, 0, 0, ret[ret.length - 1]).toBytes());
+		}
+		out.write(ret, 0, ret.length);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Method used to count a retry in the timing breakdown
+	 */
+	private void retry() {
+		if (timings != null) {
+			timings.retry();
+		}
+	}
+
 	/**
 	 * Method used to get log format
 	 *
@@ -450,7 +639,7 @@ public class EmvParser {
 			LOGGER.debug("GET log format");
 		}
 		// Get log format
-		byte[] data = provider.transceive(new CommandApdu(CommandEnum.GET_DATA, 0x9F, 0x4F, 0).toBytes());
+		byte[] data = transceive(provider, new CommandApdu(CommandEnum.GET_DATA, 0x9F, 0x4F, 0).toBytes());
 		if (ResponseUtils.isSucceed(data)) {
 			ret = TlvUtil.parseTagAndLength(TlvUtil.getValue(data, EmvTags.LOG_FORMAT));
 		}
@@ -465,16 +654,22 @@ public class EmvParser {
 	 */
 	protected List<EmvTransactionRecord> extractLogEntry(final byte[] pLogEntry) throws CommunicationException {
 		List<EmvTransactionRecord> listRecord = new ArrayList<EmvTransactionRecord>();
-		// If log entry is defined
-		if (pLogEntry != null) {
+		// If log entry is defined (and the log format and a record can be read)
+		if (pLogEntry != null && allow(ReadStageEnum.TRANSACTION_LOG, 2)) {
+			phase(ReadPhaseEnum.TRANSACTION_LOG);
 			List<TagAndLength> tals = getLogFormat();
+			// the log format is the same for all records: the parse plan is compiled once
+			List<AnnotationData> plan = AnnotationUtils.getInstance().getParsePlan(EmvTransactionRecord.class, tals);
 			// read all records
 			for (int rec = 1; rec <= pLogEntry[1]; rec++) {
-				byte[] response = provider.transceive(new CommandApdu(CommandEnum.READ_RECORD, rec, pLogEntry[0] << 3 | 4, 0).toBytes());
+				if (rec > 1 && !allow(ReadStageEnum.TRANSACTION_LOG, 1)) {
+					break;
+				}
+				byte[] response = transceive(provider, new CommandApdu(CommandEnum.READ_RECORD, rec, pLogEntry[0] << 3 | 4, 0).toBytes());
 				// Extract data
 				if (ResponseUtils.isSucceed(response)) {
 					EmvTransactionRecord record = new EmvTransactionRecord();
-					record.parse(response, tals);
+					record.parseWithPlan(response, plan);
 
 					// Fix artifact in EMV VISA card
 					if (record.getAmount() >= 1500000000) {
@@ -492,6 +687,9 @@ public class EmvParser {
 							record.setCurrency(CurrencyEnum.XXX);
 						}
 						listRecord.add(record);
+						if (listener != null) {
+							listener.onTransactionRecord(record);
+						}
 					}
 				} else {
 					// No more transaction log or transaction disabled
@@ -527,16 +725,19 @@ public class EmvParser {
 	 * Extract card holder lastname and firstname
 	 *
 	 * @param pData
-	 *            card data
+	 *            indexed card data
 	 */
-	protected void extractCardHolderName(final byte[] pData) {
+	protected void extractCardHolderName(final TlvIndex pData) {
 		// Extract Card Holder name (if exist)
-		byte[] cardHolderByte = TlvUtil.getValue(pData, EmvTags.CARDHOLDER_NAME);
+		byte[] cardHolderByte = pData.getValue(EmvTags.CARDHOLDER_NAME);
 		if (cardHolderByte != null) {
 			String[] name = StringUtils.split(new String(cardHolderByte).trim(), CARD_HOLDER_NAME_SEPARATOR);
 			if (name != null && name.length == 2) {
 				card.setHolderFirstname(StringUtils.trimToNull(name[0]));
 				card.setHolderLastname(StringUtils.trimToNull(name[1]));
+				if (listener != null) {
+					listener.onHolderName(card.getHolderFirstname(), card.getHolderLastname());
+				}
 			}
 		}
 	}
@@ -566,7 +767,53 @@ public class EmvParser {
 		} catch (IOException ioe) {
 			LOGGER.error("Construct GPO Command:" + ioe.getMessage(), ioe);
 		}
-		return pProvider.transceive(new CommandApdu(CommandEnum.GPO, out.toByteArray(), 0).toBytes());
+		return transceive(pProvider, new CommandApdu(CommandEnum.GPO, out.toByteArray(), 0).toBytes());
+	}
+
+	/**
+	 * Method used to set the listener notified of the card data as soon as each read stage completes
+	 *
+	 * @param pListener
+	 *            listener (or null)
+	 */
+	public void setReadListener(final IReadListener pListener) {
+		listener = pListener;
+	}
+
+	/**
+	 * Method used to bound the read with a time budget: the time of each command is measured and the optional stages
+	 * ({@link ReadStageEnum}) are skipped when they cannot be completed before the deadline. Must be called before
+	 * {@link #readEmvCard()}.
+	 *
+	 * @param pBudget
+	 *            time budget
+	 */
+	public void setReadBudget(final ReadBudget pBudget) {
+		budget = pBudget;
+		provider = pBudget.track(provider);
+	}
+
+	/**
+	 * Method used to select the optional stages to run, the commands of the other stages are not sent. The card
+	 * number, expire date and scheme are always read.
+	 *
+	 * @param pStages
+	 *            optional stages to run
+	 */
+	public void setReadStages(final Set<ReadStageEnum> pStages) {
+		stages = pStages.isEmpty() ? EnumSet.noneOf(ReadStageEnum.class) : EnumSet.copyOf(pStages);
+	}
+
+	/**
+	 * Method used to measure the read by phase. Must be called before {@link #readEmvCard()}, the current phase is not
+	 * ended by the parser.
+	 *
+	 * @param pTimings
+	 *            timing breakdown to fill
+	 */
+	public void setReadTimings(final ReadTimings pTimings) {
+		timings = pTimings;
+		provider = pTimings.track(provider);
 	}
 
 	/**
@@ -0,0 +1,55 @@
+package company.tap.nfcreader.internal.library.parser;
+
+import java.util.Date;
+
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.model.EmvTransactionRecord;
+
+/**
+ * Interface used to be notified of the card data as soon as each read stage completes.<br/>
+ * Methods are called on the thread reading the card.
+ *
+ */
+public interface IReadListener {
+
+	/**
+	 * Method called when an application is selected
+	 *
+	 * @param pAid
+	 *            selected AID
+	 * @param pApplicationLabel
+	 *            application label
+	 */
+	void onApplicationSelected(String pAid, String pApplicationLabel);
+
+	/**
+	 * Method called when the card number and the expire date are found
+	 *
+	 * @param pCardNumber
+	 *            card number
+	 * @param pExpireDate
+	 *            expire date (or null)
+	 * @param pScheme
+	 *            card scheme of the selected application (or null)
+	 */
+	void onCardNumber(String pCardNumber, Date pExpireDate, EmvCardScheme pScheme);
+
+	/**
+	 * Method called when the card holder name is found
+	 *
+	 * @param pFirstname
+	 *            card holder first name (or null)
+	 * @param pLastname
+	 *            card holder last name (or null)
+	 */
+	void onHolderName(String pFirstname, String pLastname);
+
+	/**
+	 * Method called when a transaction record is decoded
+	 *
+	 * @param pRecord
+	 *            transaction record
+	 */
+	void onTransactionRecord(EmvTransactionRecord pRecord);
+
+}
@@ -0,0 +1,134 @@
+package company.tap.nfcreader.internal.library.parser;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import company.tap.nfcreader.internal.library.enums.ReadStageEnum;
+import company.tap.nfcreader.internal.library.exception.CommunicationException;
+
+/**
+ * Time budget of a card read.<br/>
+ * The time spent in each {@link IProvider#transceive(byte[])} is measured, an optional stage is run only if its
+ * commands can be sent before the deadline at the measured speed of the card. Skipped stages are recorded.
+ *
+ */
+public final class ReadBudget {
+
+	/**
+	 * Nanoseconds in a millisecond
+	 */
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	/**
+	 * Command duration used before the first command is measured (20ms)
+	 */
+	private static final long DEFAULT_COMMAND_NANOS = 20 * NANOS_PER_MILLI;
+
+	/**
+	 * Deadline (System.nanoTime())
+	 */
+	private final long deadline;
+
+	/**
+	 * Number of commands sent
+	 */
+	private int commands;
+
+	/**
+	 * Time spent in the commands (nanoseconds)
+	 */
+	private long commandsNanos;
+
+	/**
+	 * Skipped stages
+	 */
+	private final EnumSet<ReadStageEnum> skipped = EnumSet.noneOf(ReadStageEnum.class);
+
+	/**
+	 * Constructor, the budget starts now
+	 *
+	 * @param pBudgetMillis
+	 *            time budget in milliseconds
+	 */
+	public ReadBudget(final long pBudgetMillis) {
+		deadline = System.nanoTime() + pBudgetMillis * NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Method used to wrap a provider to measure the time of each command
+	 *
+	 * @param pProvider
+	 *            provider to measure
+	 * @return the measured provider
+	 */
+	IProvider track(final IProvider pProvider) {
+		return new IProvider() {
+			@Override
+			public byte[] transceive(final byte[] pCommand) throws CommunicationException {
+				long start = System.nanoTime();
+				try {
+					return pProvider.transceive(pCommand);
+				} finally {
+					commandsNanos += System.nanoTime() - start;
+					commands++;
+				}
+			}
+		};
+	}
+
+	/**
+	 * Method used to know if an optional stage can be run before the deadline (the stage is recorded as skipped
+	 * otherwise)
+	 *
+	 * @param pStage
+	 *            optional stage
+	 * @param pCommands
+	 *            number of commands of the stage
+	 * @return true if the stage can be run
+	 */
+	boolean allow(final ReadStageEnum pStage, final int pCommands) {
+		long average = commands == 0 ? DEFAULT_COMMAND_NANOS : commandsNanos / commands;
+		if (deadline - System.nanoTime() >= average * pCommands) {
+			return true;
+		}
+		skipped.add(pStage);
+		return false;
+	}
+
+	/**
+	 * Method used to get the remaining time
+	 *
+	 * @return the remaining time in milliseconds (negative if the deadline is passed)
+	 */
+	public long getRemainingMillis() {
+		return (deadline - System.nanoTime()) / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Method used to get the number of commands sent
+	 *
+	 * @return the number of commands
+	 */
+	public int getCommands() {
+		return commands;
+	}
+
+	/**
+	 * Method used to get the time spent in the commands
+	 *
+	 * @return the time in milliseconds
+	 */
+	public long getCommandsMillis() {
+		return commandsNanos / NANOS_PER_MILLI;
+	}
+
+	/**
+	 * Method used to get the stages skipped (or cut) because of the deadline
+	 *
+	 * @return a copy of the skipped stages
+	 */
+	public Set<ReadStageEnum> getSkippedStages() {
+		return EnumSet.copyOf(skipped);
+	}
+
+}
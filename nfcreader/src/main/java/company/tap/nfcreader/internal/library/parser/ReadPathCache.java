@@ -0,0 +1,136 @@
+package company.tap.nfcreader.internal.library.parser;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of the read path (selected AID and GPO command) which succeeded for a card type.<br/>
+ * Entries are keyed by the hash of the PPSE response, so the next tap of the same card type selects first the
+ * application which succeeded among the applications of its own PPSE response. The ATS is not used as a key: it
+ * describes the chip platform, shared by cards of different issuers and applications.
+ *
+ */
+final class ReadPathCache {
+
+	/**
+	 * Maximal number of entries
+	 */
+	private static final int MAX_ENTRIES = 32;
+
+	/**
+	 * Read paths by key (access order)
+	 */
+	private static final Map<String, ReadPath> CACHE = new LinkedHashMap<String, ReadPath>(16, 0.75f, true) {
+
+		/**
+		 * Generated serial UID
+		 */
+		private static final long serialVersionUID = 2941402393137711423L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, ReadPath> pEldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/**
+	 * Method used to get the key of a PPSE response
+	 *
+	 * @param pPpse
+	 *            PPSE (or PSE) response
+	 * @return the key or null if the response is empty
+	 */
+	static String getPpseKey(final byte[] pPpse) {
+		return pPpse == null || pPpse.length == 0 ? null : "PPSE:" + pPpse.length + ":" + Arrays.hashCode(pPpse);
+	}
+
+	/**
+	 * Method used to get a read path
+	 *
+	 * @param pKey
+	 *            key (can be null)
+	 * @return the read path or null
+	 */
+	static ReadPath get(final String pKey) {
+		if (pKey == null) {
+			return null;
+		}
+		synchronized (CACHE) {
+			return CACHE.get(pKey);
+		}
+	}
+
+	/**
+	 * Method used to save a read path
+	 *
+	 * @param pKey
+	 *            key (can be null)
+	 * @param pPath
+	 *            read path which succeeded
+	 */
+	static void put(final String pKey, final ReadPath pPath) {
+		if (pKey != null) {
+			synchronized (CACHE) {
+				CACHE.put(pKey, pPath);
+			}
+		}
+	}
+
+	/**
+	 * Read path which succeeded for a card type
+	 */
+	static final class ReadPath {
+
+		/**
+		 * Selected AID
+		 */
+		private final byte[] aid;
+
+		/**
+		 * True if the GPO succeeded only without PDOL data
+		 */
+		private final boolean emptyPdol;
+
+		/**
+		 * Constructor using fields
+		 *
+		 * @param pAid
+		 *            selected AID
+		 * @param pEmptyPdol
+		 *            true if the GPO succeeded only without PDOL data
+		 */
+		ReadPath(final byte[] pAid, final boolean pEmptyPdol) {
+			aid = pAid.clone();
+			emptyPdol = pEmptyPdol;
+		}
+
+		/**
+		 * Method used to know if the path selects this AID
+		 *
+		 * @param pAid
+		 *            AID
+		 * @return true if the AID is the same
+		 */
+		boolean isAid(final byte[] pAid) {
+			return Arrays.equals(aid, pAid);
+		}
+
+		/**
+		 * Method used to get the field emptyPdol
+		 *
+		 * @return the emptyPdol
+		 */
+		boolean isEmptyPdol() {
+			return emptyPdol;
+		}
+
+	}
+
+	/**
+	 * Private constructor
+	 */
+	private ReadPathCache() {
+	}
+
+}
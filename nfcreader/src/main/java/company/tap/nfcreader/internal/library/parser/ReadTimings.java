@@ -0,0 +1,209 @@
+package company.tap.nfcreader.internal.library.parser;
+
+import company.tap.nfcreader.internal.library.enums.ReadPhaseEnum;
+import company.tap.nfcreader.internal.library.exception.CommunicationException;
+
+/**
+ * Timing breakdown of a card read by phase ({@link ReadPhaseEnum}): duration (monotonic clock), number of commands,
+ * bytes sent and received, and retries (second GPO without PDOL data, READ RECORD sent again after SW 6Cxx).<br/>
+ * The time between two phases is counted in the first one.
+ *
+ */
+public final class ReadTimings {
+
+	/**
+	 * Number of phases
+	 */
+	private static final int PHASES = ReadPhaseEnum.values().length;
+
+	/**
+	 * Duration by phase (nanoseconds)
+	 */
+	private final long[] durations = new long[PHASES];
+
+	/**
+	 * Number of commands by phase
+	 */
+	private final int[] commands = new int[PHASES];
+
+	/**
+	 * Bytes sent by phase
+	 */
+	private final long[] bytesSent = new long[PHASES];
+
+	/**
+	 * Bytes received by phase
+	 */
+	private final long[] bytesReceived = new long[PHASES];
+
+	/**
+	 * Retries by phase
+	 */
+	private final int[] retries = new int[PHASES];
+
+	/**
+	 * Current phase (or null)
+	 */
+	private ReadPhaseEnum phase;
+
+	/**
+	 * Start of the current phase (System.nanoTime())
+	 */
+	private long phaseStart;
+
+	/**
+	 * Method used to start a phase (the current phase ends)
+	 *
+	 * @param pPhase
+	 *            phase
+	 */
+	public void start(final ReadPhaseEnum pPhase) {
+		long now = System.nanoTime();
+		if (phase != null) {
+			durations[phase.ordinal()] += now - phaseStart;
+		}
+		phase = pPhase;
+		phaseStart = now;
+	}
+
+	/**
+	 * Method used to end the current phase
+	 */
+	public void stop() {
+		if (phase != null) {
+			durations[phase.ordinal()] += System.nanoTime() - phaseStart;
+			phase = null;
+		}
+	}
+
+	/**
+	 * Method used to count a retry in the current phase
+	 */
+	void retry() {
+		if (phase != null) {
+			retries[phase.ordinal()]++;
+		}
+	}
+
+	/**
+	 * Method used to wrap a provider to count the commands and bytes of each phase
+	 *
+	 * @param pProvider
+	 *            provider to measure
+	 * @return the measured provider
+	 */
+	IProvider track(final IProvider pProvider) {
+		return new IProvider() {
+			@Override
+			public byte[] transceive(final byte[] pCommand) throws CommunicationException {
+				byte[] response = pProvider.transceive(pCommand);
+				if (phase != null) {
+					int index = phase.ordinal();
+					commands[index]++;
+					bytesSent[index] += pCommand.length;
+					bytesReceived[index] += response == null ? 0 : response.length;
+				}
+				return response;
+			}
+		};
+	}
+
+	/**
+	 * Method used to get the duration of a phase
+	 *
+	 * @param pPhase
+	 *            phase
+	 * @return the duration in nanoseconds
+	 */
+	public long getDuration(final ReadPhaseEnum pPhase) {
+		return durations[pPhase.ordinal()];
+	}
+
+	/**
+	 * Method used to get the number of commands of a phase
+	 *
+	 * @param pPhase
+	 *            phase
+	 * @return the number of commands
+	 */
+	public int getCommands(final ReadPhaseEnum pPhase) {
+		return commands[pPhase.ordinal()];
+	}
+
+	/**
+	 * Method used to get the bytes sent during a phase
+	 *
+	 * @param pPhase
+	 *            phase
+	 * @return the number of bytes sent
+	 */
+	public long getBytesSent(final ReadPhaseEnum pPhase) {
+		return bytesSent[pPhase.ordinal()];
+	}
+
+	/**
+	 * Method used to get the bytes received during a phase
+	 *
+	 * @param pPhase
+	 *            phase
+	 * @return the number of bytes received
+	 */
+	public long getBytesReceived(final ReadPhaseEnum pPhase) {
+		return bytesReceived[pPhase.ordinal()];
+	}
+
+	/**
+	 * Method used to get the retries of a phase
+	 *
+	 * @param pPhase
+	 *            phase
+	 * @return the number of retries
+	 */
+	public int getRetries(final ReadPhaseEnum pPhase) {
+		return retries[pPhase.ordinal()];
+	}
+
+	/**
+	 * Method used to get the duration of all phases
+	 *
+	 * @return the duration in nanoseconds
+	 */
+	public long getTotalDuration() {
+		long ret = 0;
+		for (long duration : durations) {
+			ret += duration;
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to get the number of commands of all phases
+	 *
+	 * @return the number of commands
+	 */
+	public int getTotalCommands() {
+		int ret = 0;
+		for (int count : commands) {
+			ret += count;
+		}
+		return ret;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder ret = new StringBuilder("ReadTimings{");
+		for (ReadPhaseEnum value : ReadPhaseEnum.values()) {
+			int index = value.ordinal();
+			if (durations[index] > 0 || commands[index] > 0) {
+				ret.append(value).append('=').append(durations[index] / 1000).append("us/").append(commands[index]).append("apdu/")
+						.append(bytesSent[index]).append('>').append(bytesReceived[index]).append('B');
+				if (retries[index] > 0) {
+					ret.append('/').append(retries[index]).append("retry");
+				}
+				ret.append(", ");
+			}
+		}
+		return ret.append("total=").append(getTotalDuration() / 1000).append("us}").toString();
+	}
+
+}
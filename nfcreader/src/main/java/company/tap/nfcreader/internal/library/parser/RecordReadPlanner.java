@@ -0,0 +1,281 @@
+package company.tap.nfcreader.internal.library.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import company.tap.nfcreader.internal.library.enums.CommandEnum;
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.model.Afl;
+import company.tap.nfcreader.internal.library.utils.CommandApdu;
+
+/**
+ * Planner of the READ RECORD commands sent after the GPO.<br/>
+ * The records listed in the AFL are ordered by the number of times they contained the track 2 and the card holder
+ * name for the same card scheme, so the read can stop as soon as these data are found. READ RECORD commands are
+ * encoded once and shared.
+ *
+ */
+final class RecordReadPlanner {
+
+	/**
+	 * Number of SFI (5 bits)
+	 */
+	private static final int SFI_COUNT = 32;
+
+	/**
+	 * Number of records by SFI
+	 */
+	private static final int RECORD_COUNT = 256;
+
+	/**
+	 * Number of SFI with pre-encoded commands (SFI 1 to 10 are defined by EMV)
+	 */
+	private static final int ENCODED_SFI_COUNT = 11;
+
+	/**
+	 * Number of records by SFI with pre-encoded commands
+	 */
+	private static final int ENCODED_RECORD_COUNT = 16;
+
+	/**
+	 * Pre-encoded READ RECORD commands (Le = 0)
+	 */
+	private static final byte[][] COMMANDS = new byte[ENCODED_SFI_COUNT * ENCODED_RECORD_COUNT][];
+
+	/**
+	 * Statistics by card scheme (index 0 for unknown scheme)
+	 */
+	private static final Statistics[] STATISTICS = new Statistics[EmvCardScheme.values().length + 1];
+
+	static {
+		for (int i = 0; i < STATISTICS.length; i++) {
+			STATISTICS[i] = new Statistics();
+		}
+		for (int sfi = 0; sfi < ENCODED_SFI_COUNT; sfi++) {
+			for (int record = 0; record < ENCODED_RECORD_COUNT; record++) {
+				COMMANDS[sfi * ENCODED_RECORD_COUNT + record] = encode(sfi, record);
+			}
+		}
+	}
+
+	/**
+	 * Method used to get the key of a record
+	 *
+	 * @param pSfi
+	 *            short file identifier
+	 * @param pRecord
+	 *            record number
+	 * @return the record key
+	 */
+	static int getKey(final int pSfi, final int pRecord) {
+		return (pSfi & SFI_COUNT - 1) * RECORD_COUNT + (pRecord & RECORD_COUNT - 1);
+	}
+
+	/**
+	 * Method used to get the SFI of a record key
+	 *
+	 * @param pKey
+	 *            record key
+	 * @return the SFI
+	 */
+	static int getSfi(final int pKey) {
+		return pKey / RECORD_COUNT;
+	}
+
+	/**
+	 * Method used to get the record number of a record key
+	 *
+	 * @param pKey
+	 *            record key
+	 * @return the record number
+	 */
+	static int getRecord(final int pKey) {
+		return pKey % RECORD_COUNT;
+	}
+
+	/**
+	 * Method used to get the READ RECORD command of a record (the returned array must not be modified)
+	 *
+	 * @param pKey
+	 *            record key
+	 * @return the encoded command
+	 */
+	static byte[] getReadRecord(final int pKey) {
+		int sfi = getSfi(pKey);
+		int record = getRecord(pKey);
+		if (sfi < ENCODED_SFI_COUNT && record < ENCODED_RECORD_COUNT) {
+			return COMMANDS[sfi * ENCODED_RECORD_COUNT + record];
+		}
+		return encode(sfi, record);
+	}
+
+	/**
+	 * Method used to encode a READ RECORD command
+	 *
+	 * @param pSfi
+	 *            short file identifier
+	 * @param pRecord
+	 *            record number
+	 * @return the encoded command
+	 */
+	private static byte[] encode(final int pSfi, final int pRecord) {
+		return new CommandApdu(CommandEnum.READ_RECORD, pRecord, pSfi << 3 | 4, 0).toBytes();
+	}
+
+	/**
+	 * Method used to order the records of the AFL
+	 *
+	 * @param pScheme
+	 *            card scheme (or null)
+	 * @param pAfl
+	 *            list of AFL
+	 * @return the record keys to read (without duplicate)
+	 */
+	static int[] plan(final EmvCardScheme pScheme, final List<Afl> pAfl) {
+		List<Integer> keys = new ArrayList<Integer>();
+		boolean[] planned = new boolean[SFI_COUNT * RECORD_COUNT];
+		for (Afl afl : pAfl) {
+			for (int index = afl.getFirstRecord(); index <= afl.getLastRecord(); index++) {
+				int key = getKey(afl.getSfi(), index);
+				if (!planned[key]) {
+					planned[key] = true;
+					keys.add(key);
+				}
+			}
+		}
+		return getStatistics(pScheme).sort(keys);
+	}
+
+	/**
+	 * Method used to know if a remaining record may contain the card holder name
+	 *
+	 * @param pScheme
+	 *            card scheme (or null)
+	 * @param pPlan
+	 *            record keys
+	 * @param pFrom
+	 *            index of the first remaining record
+	 * @return true if the card holder name has already been found in one of the remaining records
+	 */
+	static boolean mayContainName(final EmvCardScheme pScheme, final int[] pPlan, final int pFrom) {
+		Statistics statistics = getStatistics(pScheme);
+		for (int i = pFrom; i < pPlan.length; i++) {
+			if (statistics.getNameHits(pPlan[i]) > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Method used to save the content of a record read
+	 *
+	 * @param pScheme
+	 *            card scheme (or null)
+	 * @param pKey
+	 *            record key
+	 * @param pTrack2
+	 *            true if the record contains the track 2
+	 * @param pName
+	 *            true if the record contains the card holder name
+	 */
+	static void update(final EmvCardScheme pScheme, final int pKey, final boolean pTrack2, final boolean pName) {
+		if (pTrack2 || pName) {
+			getStatistics(pScheme).add(pKey, pTrack2, pName);
+		}
+	}
+
+	/**
+	 * Method used to get the statistics of a card scheme
+	 *
+	 * @param pScheme
+	 *            card scheme (or null)
+	 * @return the statistics
+	 */
+	private static Statistics getStatistics(final EmvCardScheme pScheme) {
+		return STATISTICS[pScheme == null ? 0 : pScheme.ordinal() + 1];
+	}
+
+	/**
+	 * Number of track 2 and card holder name found by record for a card scheme
+	 */
+	private static final class Statistics {
+
+		/**
+		 * Hits by record key ([0] track 2, [1] card holder name)
+		 */
+		private final Map<Integer, int[]> hits = new HashMap<Integer, int[]>();
+
+		/**
+		 * Method used to add a hit
+		 *
+		 * @param pKey
+		 *            record key
+		 * @param pTrack2
+		 *            track 2 found
+		 * @param pName
+		 *            card holder name found
+		 */
+		private synchronized void add(final int pKey, final boolean pTrack2, final boolean pName) {
+			int[] value = hits.get(pKey);
+			if (value == null) {
+				value = new int[2];
+				hits.put(pKey, value);
+			}
+			if (pTrack2 && value[0] < Integer.MAX_VALUE) {
+				value[0]++;
+			}
+			if (pName && value[1] < Integer.MAX_VALUE) {
+				value[1]++;
+			}
+		}
+
+		/**
+		 * Method used to get the number of card holder name found in a record
+		 *
+		 * @param pKey
+		 *            record key
+		 * @return the number of hits
+		 */
+		private synchronized int getNameHits(final int pKey) {
+			int[] value = hits.get(pKey);
+			return value == null ? 0 : value[1];
+		}
+
+		/**
+		 * Method used to sort records (most track 2 hits first, then most name hits, then AFL order)
+		 *
+		 * @param pKeys
+		 *            record keys in AFL order
+		 * @return sorted keys
+		 */
+		private synchronized int[] sort(final List<Integer> pKeys) {
+			int size = pKeys.size();
+			// sort value: track 2 hits, name hits, AFL position
+			long[] values = new long[size];
+			for (int i = 0; i < size; i++) {
+				int[] value = hits.get(pKeys.get(i));
+				long track2 = value == null ? 0 : Math.min(value[0], 0xFFFFF);
+				long name = value == null ? 0 : Math.min(value[1], 0xFFFFF);
+				values[i] = (0xFFFFFL - track2) << 40 | (0xFFFFFL - name) << 20 | i;
+			}
+			Arrays.sort(values);
+			int[] ret = new int[size];
+			for (int i = 0; i < size; i++) {
+				ret[i] = pKeys.get((int) (values[i] & 0xFFFFF));
+			}
+			return ret;
+		}
+
+	}
+
+	/**
+	 * Private constructor
+	 */
+	private RecordReadPlanner() {
+	}
+
+}
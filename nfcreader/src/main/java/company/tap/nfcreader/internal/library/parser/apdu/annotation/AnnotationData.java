@@ -19,6 +19,7 @@ import java.lang.reflect.Field;
 
 import company.tap.nfcreader.internal.library.iso7816emv.EmvTags;
 import company.tap.nfcreader.internal.library.iso7816emv.ITag;
+import company.tap.nfcreader.internal.library.parser.apdu.impl.DataFactory;
 import company.tap.nfcreader.internal.library.utils.BytesUtils;
 
 /**
@@ -49,6 +50,11 @@ public class AnnotationData implements Comparable<AnnotationData>, Cloneable {
 	 */
 	private Field field;
 
+	/**
+	 * Type of the field (see {@link DataFactory#getType(Class)})
+	 */
+	private int type;
+
 	/**
 	 * The date standard
 	 */
@@ -163,6 +169,16 @@ public class AnnotationData implements Comparable<AnnotationData>, Cloneable {
 	 */
 	public void setField(final Field field) {
 		this.field = field;
+		type = field != null ? DataFactory.getType(field.getType()) : DataFactory.TYPE_UNKNOWN;
+	}
+
+	/**
+	 * Method used to get the field type
+	 * 
+	 * @return the type
+	 */
+	public int getType() {
+		return type;
 	}
 
 	/**
@@ -196,6 +212,7 @@ public class AnnotationData implements Comparable<AnnotationData>, Cloneable {
 		AnnotationData data = new AnnotationData();
 		data.dateStandard = dateStandard;
 		data.field = field;
+		data.type = type;
 		data.format = new String(format);
 		data.index = index;
 		data.readHexa = readHexa;
@@ -204,6 +221,27 @@ public class AnnotationData implements Comparable<AnnotationData>, Cloneable {
 		return data;
 	}
 
+	/**
+	 * Method used to get a copy of this annotation with another size
+	 * 
+	 * @param pSize
+	 *            size of the copy
+	 * @return a new annotation data
+	 */
+	public AnnotationData copy(final int pSize) {
+		AnnotationData data = new AnnotationData();
+		data.dateStandard = dateStandard;
+		data.field = field;
+		data.type = type;
+		data.format = format;
+		data.index = index;
+		data.readHexa = readHexa;
+		data.size = pSize;
+		data.tag = tag;
+		data.skip = skip;
+		return data;
+	}
+
 	/**
 	 * Method used to get the field skip
 	 * 
@@ -16,17 +16,25 @@
 package company.tap.nfcreader.internal.library.parser.apdu.annotation;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import company.tap.nfcreader.internal.library.iso7816emv.ITag;
+import company.tap.nfcreader.internal.library.iso7816emv.TagAndLength;
 import company.tap.nfcreader.internal.library.model.EmvTransactionRecord;
 import company.tap.nfcreader.internal.library.parser.apdu.IFile;
+import company.tap.nfcreader.internal.library.utils.BitUtils;
 
 /**
- * Class used to manage all annotation
+ * Class used to manage all annotation.<br/>
+ * The annotation data are never modified after the extraction: a log format is compiled into an immutable parse plan
+ * which is cached by format and can be shared by several threads.
  * 
  * @author MILLAU Julien
  * 
@@ -53,12 +61,27 @@ public final class AnnotationUtils {
 		return INSTANCE;
 	}
 
+	/**
+	 * Maximal number of parse plans kept in cache by class
+	 */
+	private static final int MAX_PLANS = 64;
+
 	/**
 	 * Map which contain
 	 */
 	private final Map<String, Map<ITag, AnnotationData>> map;
 	private final Map<String, Set<AnnotationData>> mapSet;
 
+	/**
+	 * Parse plans by class and log format (the log format list is the key)
+	 */
+	private final Map<Class<?>, Map<List<TagAndLength>, List<AnnotationData>>> plans = new ConcurrentHashMap<Class<?>, Map<List<TagAndLength>, List<AnnotationData>>>();
+
+	/**
+	 * Parse plans by class without log format
+	 */
+	private final Map<Class<?>, List<AnnotationData>> defaultPlans = new ConcurrentHashMap<Class<?>, List<AnnotationData>>();
+
 	/**
 	 * Private default constructor
 	 */
@@ -93,9 +116,68 @@ public final class AnnotationUtils {
 					}
 				}
 			}
-			mapSet.put(clazz.getName(), set);
-			map.put(clazz.getName(), maps);
+			mapSet.put(clazz.getName(), Collections.unmodifiableSet(set));
+			map.put(clazz.getName(), Collections.unmodifiableMap(maps));
+		}
+	}
+
+	/**
+	 * Method used to get the parse plan of a class for a log format
+	 * 
+	 * @param pClass
+	 *            class to parse
+	 * @param pTags
+	 *            log format (null to use the annotation size and order)
+	 * @return the immutable list of data to read (and skip) in the record
+	 */
+	public List<AnnotationData> getParsePlan(final Class<? extends IFile> pClass, final List<TagAndLength> pTags) {
+		if (pTags == null) {
+			List<AnnotationData> ret = defaultPlans.get(pClass);
+			if (ret == null) {
+				ret = Collections.unmodifiableList(new ArrayList<AnnotationData>(mapSet.get(pClass.getName())));
+				defaultPlans.put(pClass, ret);
+			}
+			return ret;
+		}
+		Map<List<TagAndLength>, List<AnnotationData>> byFormat = plans.get(pClass);
+		if (byFormat == null) {
+			byFormat = new ConcurrentHashMap<List<TagAndLength>, List<AnnotationData>>();
+			plans.put(pClass, byFormat);
+		}
+		List<AnnotationData> ret = byFormat.get(pTags);
+		if (ret == null) {
+			ret = compile(map.get(pClass.getName()), pTags);
+			if (byFormat.size() < MAX_PLANS) {
+				// copy of the key: the list of the caller may change
+				byFormat.put(new ArrayList<TagAndLength>(pTags), ret);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to compile a log format
+	 * 
+	 * @param pData
+	 *            annotation data of the class by tag
+	 * @param pTags
+	 *            log format
+	 * @return the immutable parse plan
+	 */
+	private static List<AnnotationData> compile(final Map<ITag, AnnotationData> pData, final List<TagAndLength> pTags) {
+		List<AnnotationData> ret = new ArrayList<AnnotationData>(pTags.size());
+		for (TagAndLength tal : pTags) {
+			AnnotationData ann = pData.get(tal.getTag());
+			if (ann != null) {
+				ann = ann.copy(tal.getLength() * BitUtils.BYTE_SIZE);
+			} else {
+				ann = new AnnotationData();
+				ann.setSkip(true);
+				ann.setSize(tal.getLength() * BitUtils.BYTE_SIZE);
+			}
+			ret.add(ann);
 		}
+		return Collections.unmodifiableList(ret);
 	}
 
 	/**
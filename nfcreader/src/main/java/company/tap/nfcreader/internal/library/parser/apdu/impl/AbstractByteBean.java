@@ -16,13 +16,8 @@
 package company.tap.nfcreader.internal.library.parser.apdu.impl;
 
 import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
-import company.tap.nfcreader.internal.library.iso7816emv.ITag;
 import company.tap.nfcreader.internal.library.iso7816emv.TagAndLength;
 import company.tap.nfcreader.internal.library.log.Logger;
 import company.tap.nfcreader.internal.library.log.LoggerFactory;
@@ -30,7 +25,6 @@ import company.tap.nfcreader.internal.library.model.AbstractData;
 import company.tap.nfcreader.internal.library.parser.apdu.IFile;
 import company.tap.nfcreader.internal.library.parser.apdu.annotation.AnnotationData;
 import company.tap.nfcreader.internal.library.parser.apdu.annotation.AnnotationUtils;
-import company.tap.nfcreader.internal.library.utils.BitUtils;
 
 /**
  * Abstract class for all object to parse
@@ -50,55 +44,55 @@ public abstract class AbstractByteBean<T> extends AbstractData implements IFile
 	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractByteBean.class);
 
 	/**
-	 * Method to get the annotation set from the current class
+	 * Method to parse byte data
 	 * 
-	 * @return An annotation set which contain all annotation data
+	 * @param pData
+	 *            byte to parse
+	 * @param pTags
 	 */
-	private Collection<AnnotationData> getAnnotationSet(final List<TagAndLength> pTags) {
-		Collection<AnnotationData> ret = null;
-		if (pTags != null) {
-			Map<ITag, AnnotationData> data = AnnotationUtils.getInstance().getMap().get(getClass().getName());
-			ret = new ArrayList<AnnotationData>(data.size());
-			for (TagAndLength tal : pTags) {
-				AnnotationData ann = data.get(tal.getTag());
-				if (ann != null) {
-					ann.setSize(tal.getLength() * BitUtils.BYTE_SIZE);
-				} else {
-					ann = new AnnotationData();
-					ann.setSkip(true);
-					ann.setSize(tal.getLength() * BitUtils.BYTE_SIZE);
-				}
-				ret.add(ann);
-			}
-		} else {
-			ret = AnnotationUtils.getInstance().getMapSet().get(getClass().getName());
-		}
-		return ret;
+	@Override
+	public void parse(final byte[] pData, final List<TagAndLength> pTags) {
+		parseWithPlan(pData, AnnotationUtils.getInstance().getParsePlan(getClass(), pTags));
 	}
 
 	/**
-	 * Method to parse byte data
+	 * Method used to parse byte data with a parse plan already compiled (see
+	 * {@link AnnotationUtils#getParsePlan(Class, List)})
 	 * 
 	 * @param pData
 	 *            byte to parse
-	 * @param pTags
+	 * @param pPlan
+	 *            parse plan of this class for the record format
 	 */
-	@Override
-	public void parse(final byte[] pData, final List<TagAndLength> pTags) {
-		Collection<AnnotationData> set = getAnnotationSet(pTags);
-		BitUtils bit = new BitUtils(pData);
-		Iterator<AnnotationData> it = set.iterator();
-		while (it.hasNext()) {
-			AnnotationData data = it.next();
+	public void parseWithPlan(final byte[] pData, final List<AnnotationData> pPlan) {
+		int bitIndex = 0;
+		for (AnnotationData data : pPlan) {
 			if (data.isSkip()) {
-				bit.addCurrentBitIndex(data.getSize());
+				bitIndex += data.getSize();
 			} else {
-				Object obj = DataFactory.getObject(data, bit);
-				setField(data.getField(), this, obj);
+				Object obj = DataFactory.getObject(data, pData, bitIndex);
+				if (!setValue(data.getIndex(), obj)) {
+					setField(data.getField(), this, obj);
+				}
+				bitIndex += DataFactory.getReadSize(data);
 			}
 		}
 	}
 
+	/**
+	 * Method used to set the value of an annotated field without reflection.<br/>
+	 * Subclasses override this method for their own fields, reflection is used for the fields not handled.
+	 * 
+	 * @param pIndex
+	 *            index of the field (see {@link company.tap.nfcreader.internal.library.parser.apdu.annotation.Data#index()})
+	 * @param pValue
+	 *            the value of the field
+	 * @return true if the value has been set
+	 */
+	protected boolean setValue(final int pIndex, final Object pValue) {
+		return false;
+	}
+
 	/**
 	 * Method used to set the value of a field
 	 * 
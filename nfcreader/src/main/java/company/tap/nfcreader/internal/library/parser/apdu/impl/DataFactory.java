@@ -15,7 +15,12 @@
  */
 package company.tap.nfcreader.internal.library.parser.apdu.impl;
 
+import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 
 import company.tap.nfcreader.internal.library.log.Logger;
@@ -26,7 +31,9 @@ import company.tap.nfcreader.internal.library.utils.BitUtils;
 import company.tap.nfcreader.internal.library.utils.EnumUtils;
 
 /**
- * Factory to parse data
+ * Factory to parse data.<br/>
+ * Values are decoded directly from the record bytes: the type of each field is resolved once (see
+ * {@link #getType(Class)}) and no intermediate bit array is created.
  * 
  * @author MILLAU Julien
  */
@@ -53,34 +60,105 @@ public final class DataFactory {
 	public static final String BCD_FORMAT = "BCD_Format";
 
 	/**
-	 * Method to get a date from the bytes array
+	 * Field type not supported (nothing is read)
+	 */
+	public static final int TYPE_UNKNOWN = 0;
+
+	/**
+	 * Field type Integer
+	 */
+	public static final int TYPE_INTEGER = 1;
+
+	/**
+	 * Field type Float
+	 */
+	public static final int TYPE_FLOAT = 2;
+
+	/**
+	 * Field type String
+	 */
+	public static final int TYPE_STRING = 3;
+
+	/**
+	 * Field type Date
+	 */
+	public static final int TYPE_DATE = 4;
+
+	/**
+	 * Field type Boolean
+	 */
+	public static final int TYPE_BOOLEAN = 5;
+
+	/**
+	 * Field type enum ({@link IKeyEnum})
+	 */
+	public static final int TYPE_ENUM = 6;
+
+	/**
+	 * Maximal number of BCD digits decoded without parsing a string
+	 */
+	private static final int MAX_BCD_DIGITS = 18;
+
+	/**
+	 * Charset used to read string
+	 */
+	private static final Charset ASCII = Charset.forName("ASCII");
+
+	/**
+	 * Hexa characters
+	 */
+	private static final char[] HEXA = "0123456789ABCDEF".toCharArray();
+
+	/**
+	 * Date formats of the current thread (SimpleDateFormat is not thread safe)
+	 */
+	private static final ThreadLocal<Map<String, SimpleDateFormat>> DATE_FORMATS = new ThreadLocal<Map<String, SimpleDateFormat>>() {
+		@Override
+		protected Map<String, SimpleDateFormat> initialValue() {
+			return new HashMap<String, SimpleDateFormat>();
+		}
+	};
+
+	/**
+	 * Method used to get the type of a field
 	 * 
-	 * @param pAnnotation
-	 *            annotation data
-	 * @param pBit
-	 *            table bytes
-	 * @return The date read of null
+	 * @param pClass
+	 *            class of the field
+	 * @return the field type (TYPE_xxx constant)
 	 */
-	private static Date getDate(final AnnotationData pAnnotation, final BitUtils pBit) {
-		Date date = null;
-		if (pAnnotation.getDateStandard() == BCD_DATE) {
-			date = pBit.getNextDate(pAnnotation.getSize(), pAnnotation.getFormat(), true);
-		} else {
-			date = pBit.getNextDate(pAnnotation.getSize(), pAnnotation.getFormat());
+	public static int getType(final Class<?> pClass) {
+		int ret = TYPE_UNKNOWN;
+		if (pClass.equals(Integer.class)) {
+			ret = TYPE_INTEGER;
+		} else if (pClass.equals(Float.class)) {
+			ret = TYPE_FLOAT;
+		} else if (pClass.equals(String.class)) {
+			ret = TYPE_STRING;
+		} else if (pClass.equals(Date.class)) {
+			ret = TYPE_DATE;
+		} else if (pClass.equals(Boolean.class)) {
+			ret = TYPE_BOOLEAN;
+		} else if (pClass.isEnum()) {
+			ret = TYPE_ENUM;
 		}
-		return date;
+		return ret;
 	}
 
 	/**
-	 * This method is used to get an integer
+	 * Method used to get the number of bits read for a field
 	 * 
 	 * @param pAnnotation
-	 *            annotation
-	 * @param pBit
-	 *            bit array
+	 *            annotation data
+	 * @return the number of bits
 	 */
-	private static int getInteger(final AnnotationData pAnnotation, final BitUtils pBit) {
-		return pBit.getNextInteger(pAnnotation.getSize());
+	public static int getReadSize(final AnnotationData pAnnotation) {
+		int ret = pAnnotation.getSize();
+		if (pAnnotation.getType() == TYPE_UNKNOWN) {
+			ret = 0;
+		} else if (pAnnotation.getType() == TYPE_BOOLEAN) {
+			ret = 1;
+		}
+		return ret;
 	}
 
 	/**
@@ -88,46 +166,102 @@ public final class DataFactory {
 	 * 
 	 * @param pAnnotation
 	 *            all information data
-	 * @param pBit
+	 * @param pData
 	 *            bytes tab
+	 * @param pBitIndex
+	 *            index of the first bit of the field
 	 * @return an object
 	 */
-	public static Object getObject(final AnnotationData pAnnotation, final BitUtils pBit) {
+	public static Object getObject(final AnnotationData pAnnotation, final byte[] pData, final int pBitIndex) {
 		Object obj = null;
-		Class<?> clazz = pAnnotation.getField().getType();
-
-		if (clazz.equals(Integer.class)) {
-			obj = getInteger(pAnnotation, pBit);
-		} else if (clazz.equals(Float.class)) {
-			obj = getFloat(pAnnotation, pBit);
-		} else if (clazz.equals(String.class)) {
-			obj = getString(pAnnotation, pBit);
-		} else if (clazz.equals(Date.class)) {
-			obj = getDate(pAnnotation, pBit);
-		} else if (clazz.equals(Boolean.class)) {
-			obj = pBit.getNextBoolean();
-		} else if (clazz.isEnum()) {
-			obj = getEnum(pAnnotation, pBit);
+		switch (pAnnotation.getType()) {
+		case TYPE_INTEGER:
+			obj = (int) BitUtils.getBits(pData, pBitIndex, pAnnotation.getSize());
+			break;
+		case TYPE_FLOAT:
+			obj = getFloat(pAnnotation, pData, pBitIndex);
+			break;
+		case TYPE_STRING:
+			obj = getString(pAnnotation, pData, pBitIndex);
+			break;
+		case TYPE_DATE:
+			obj = getDate(pAnnotation, pData, pBitIndex);
+			break;
+		case TYPE_BOOLEAN:
+			obj = BitUtils.getBits(pData, pBitIndex, 1) == 1;
+			break;
+		case TYPE_ENUM:
+			obj = getEnum(pAnnotation, pData, pBitIndex);
+			break;
+		default:
+			break;
 		}
 		return obj;
 	}
 
+	/**
+	 * Method to get a date from the bytes array
+	 * 
+	 * @param pAnnotation
+	 *            annotation data
+	 * @param pData
+	 *            bytes tab
+	 * @param pBitIndex
+	 *            index of the first bit
+	 * @return The date read of null
+	 */
+	private static Date getDate(final AnnotationData pAnnotation, final byte[] pData, final int pBitIndex) {
+		Date date = null;
+		String dateTxt;
+		if (pAnnotation.getDateStandard() == BCD_DATE) {
+			dateTxt = getHexaString(pData, pBitIndex, pAnnotation.getSize());
+		} else {
+			dateTxt = getAsciiString(pData, pBitIndex, pAnnotation.getSize());
+		}
+		Map<String, SimpleDateFormat> formats = DATE_FORMATS.get();
+		SimpleDateFormat sdf = formats.get(pAnnotation.getFormat());
+		if (sdf == null) {
+			sdf = new SimpleDateFormat(pAnnotation.getFormat());
+			formats.put(pAnnotation.getFormat(), sdf);
+		}
+		try {
+			date = sdf.parse(dateTxt);
+		} catch (ParseException e) {
+			LOGGER.error("Parsing date error. date:" + dateTxt + " pattern:" + pAnnotation.getFormat(), e);
+		}
+		return date;
+	}
+
 	/**
 	 * Method use to get float
 	 * 
 	 * @param pAnnotation
 	 *            annotation
-	 * @param pBit
-	 *            bit utils
+	 * @param pData
+	 *            bytes tab
+	 * @param pBitIndex
+	 *            index of the first bit
 	 * @return
 	 */
-	private static Float getFloat(final AnnotationData pAnnotation, final BitUtils pBit) {
+	private static Float getFloat(final AnnotationData pAnnotation, final byte[] pData, final int pBitIndex) {
 		Float ret = null;
 
 		if (BCD_FORMAT.equals(pAnnotation.getFormat())) {
-			ret = Float.parseFloat(pBit.getNextHexaString(pAnnotation.getSize()));
+			int digits = getByteCount(pAnnotation.getSize()) * 2;
+			long value = 0;
+			boolean valid = digits > 0 && digits <= MAX_BCD_DIGITS;
+			for (int i = 0; i < digits; i++) {
+				int digit = getNibble(pData, pBitIndex, pAnnotation.getSize(), i);
+				valid &= digit <= 9;
+				value = value * 10 + digit;
+			}
+			if (valid) {
+				ret = (float) value;
+			} else {
+				ret = Float.parseFloat(getHexaString(pData, pBitIndex, pAnnotation.getSize()));
+			}
 		} else {
-			ret = (float) getInteger(pAnnotation, pBit);
+			ret = (float) (int) BitUtils.getBits(pData, pBitIndex, pAnnotation.getSize());
 		}
 
 		return ret;
@@ -138,18 +272,27 @@ public final class DataFactory {
 	 * 
 	 * @param pAnnotation
 	 *            annotation
-	 * @param pBit
-	 *            bit array
+	 * @param pData
+	 *            bytes tab
+	 * @param pBitIndex
+	 *            index of the first bit
 	 */
 	@SuppressWarnings("unchecked")
-	private static IKeyEnum getEnum(final AnnotationData pAnnotation, final BitUtils pBit) {
-		int val = 0;
-		try {
-			val = Integer.parseInt(pBit.getNextHexaString(pAnnotation.getSize()), pAnnotation.isReadHexa() ? 16 : 10);
-		} catch (NumberFormatException nfe) {
-			// do nothing
+	private static IKeyEnum getEnum(final AnnotationData pAnnotation, final byte[] pData, final int pBitIndex) {
+		int radix = pAnnotation.isReadHexa() ? 16 : 10;
+		int digits = getByteCount(pAnnotation.getSize()) * 2;
+		// Same result as Integer.parseInt (0 if the value is not a valid number)
+		long val = 0;
+		boolean valid = digits > 0;
+		for (int i = 0; i < digits; i++) {
+			int digit = getNibble(pData, pBitIndex, pAnnotation.getSize(), i);
+			valid &= digit < radix;
+			if (valid) {
+				val = val * radix + digit;
+				valid = val <= Integer.MAX_VALUE;
+			}
 		}
-		return EnumUtils.getValue(val, (Class<? extends IKeyEnum>) pAnnotation.getField().getType());
+		return EnumUtils.getValue(valid ? (int) val : 0, (Class<? extends IKeyEnum>) pAnnotation.getField().getType());
 	}
 
 	/**
@@ -157,22 +300,113 @@ public final class DataFactory {
 	 * 
 	 * @param pAnnotation
 	 *            annotation data
-	 * @param pBit
-	 *            bit table
+	 * @param pData
+	 *            bytes tab
+	 * @param pBitIndex
+	 *            index of the first bit
 	 * @return A string
 	 */
-	private static String getString(final AnnotationData pAnnotation, final BitUtils pBit) {
+	private static String getString(final AnnotationData pAnnotation, final byte[] pData, final int pBitIndex) {
 		String obj = null;
 
 		if (pAnnotation.isReadHexa()) {
-			obj = pBit.getNextHexaString(pAnnotation.getSize());
+			obj = getHexaString(pData, pBitIndex, pAnnotation.getSize());
 		} else {
-			obj = pBit.getNextString(pAnnotation.getSize()).trim();
+			obj = getAsciiString(pData, pBitIndex, pAnnotation.getSize()).trim();
 		}
 
 		return obj;
 	}
 
+	/**
+	 * Method used to get the number of bytes of a field
+	 * 
+	 * @param pSize
+	 *            field size in bit
+	 * @return number of bytes
+	 */
+	private static int getByteCount(final int pSize) {
+		return (pSize + BitUtils.BYTE_SIZE - 1) / BitUtils.BYTE_SIZE;
+	}
+
+	/**
+	 * Method used to get a byte of a field (the field is shifted to the left, bits after the field are set to 0)
+	 * 
+	 * @param pData
+	 *            bytes tab
+	 * @param pBitIndex
+	 *            index of the first bit of the field
+	 * @param pSize
+	 *            field size in bit
+	 * @param pIndex
+	 *            index of the byte in the field
+	 * @return the byte value
+	 */
+	private static int getByte(final byte[] pData, final int pBitIndex, final int pSize, final int pIndex) {
+		int length = Math.min(BitUtils.BYTE_SIZE, pSize - pIndex * BitUtils.BYTE_SIZE);
+		return (int) BitUtils.getBits(pData, pBitIndex + pIndex * BitUtils.BYTE_SIZE, length) << BitUtils.BYTE_SIZE - length;
+	}
+
+	/**
+	 * Method used to get a half byte of a field
+	 * 
+	 * @param pData
+	 *            bytes tab
+	 * @param pBitIndex
+	 *            index of the first bit of the field
+	 * @param pSize
+	 *            field size in bit
+	 * @param pIndex
+	 *            index of the half byte in the field
+	 * @return the half byte value
+	 */
+	private static int getNibble(final byte[] pData, final int pBitIndex, final int pSize, final int pIndex) {
+		int value = getByte(pData, pBitIndex, pSize, pIndex / 2);
+		return pIndex % 2 == 0 ? value >>> HALF_BYTE_SIZE : value & 0x0F;
+	}
+
+	/**
+	 * Method used to read a field as an hexa string
+	 * 
+	 * @param pData
+	 *            bytes tab
+	 * @param pBitIndex
+	 *            index of the first bit of the field
+	 * @param pSize
+	 *            field size in bit
+	 * @return the hexa string
+	 */
+	private static String getHexaString(final byte[] pData, final int pBitIndex, final int pSize) {
+		char[] ret = new char[getByteCount(pSize) * 2];
+		for (int i = 0; i < ret.length; i++) {
+			ret[i] = HEXA[getNibble(pData, pBitIndex, pSize, i)];
+		}
+		return new String(ret);
+	}
+
+	/**
+	 * Method used to read a field as an ASCII string
+	 * 
+	 * @param pData
+	 *            bytes tab
+	 * @param pBitIndex
+	 *            index of the first bit of the field
+	 * @param pSize
+	 *            field size in bit
+	 * @return the string
+	 */
+	private static String getAsciiString(final byte[] pData, final int pBitIndex, final int pSize) {
+		int count = getByteCount(pSize);
+		if (pBitIndex % BitUtils.BYTE_SIZE == 0 && pSize % BitUtils.BYTE_SIZE == 0) {
+			return new String(pData, pBitIndex / BitUtils.BYTE_SIZE, count, ASCII);
+		}
+		byte[] bytes = new byte[count];
+		for (int i = 0; i < count; i++) {
+			bytes[i] = (byte) getByte(pData, pBitIndex, pSize, i);
+		}
+		return new String(bytes, ASCII);
+	}
+
 	/**
 	 * Private constructor
 	 */
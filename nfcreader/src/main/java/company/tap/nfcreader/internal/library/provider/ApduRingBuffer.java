@@ -0,0 +1,124 @@
+package company.tap.nfcreader.internal.library.provider;
+
+import company.tap.nfcreader.internal.library.enums.SwEnum;
+import company.tap.nfcreader.internal.library.utils.BytesUtils;
+import company.tap.nfcreader.internal.library.utils.TlvUtil;
+
+/**
+ * Bounded ring buffer of the last commands and responses, kept raw during the session and formatted only when
+ * {@link #dump(ITraceSink)} is called (after the session).<br/>
+ * Arrays are stored without copy: they must not be modified once added. Not thread safe, the buffer is used by the
+ * thread reading the card.
+ *
+ */
+public final class ApduRingBuffer {
+
+	/**
+	 * Nanoseconds in a microsecond
+	 */
+	private static final long NANOS_PER_MICRO = 1000L;
+
+	/**
+	 * Commands
+	 */
+	private final byte[][] commands;
+
+	/**
+	 * Responses (null if the communication failed)
+	 */
+	private final byte[][] responses;
+
+	/**
+	 * Durations (nanoseconds)
+	 */
+	private final long[] durations;
+
+	/**
+	 * Number of exchanges added since the last clear
+	 */
+	private int count;
+
+	/**
+	 * Constructor
+	 *
+	 * @param pCapacity
+	 *            number of exchanges kept
+	 */
+	public ApduRingBuffer(final int pCapacity) {
+		commands = new byte[pCapacity][];
+		responses = new byte[pCapacity][];
+		durations = new long[pCapacity];
+	}
+
+	/**
+	 * Method used to add an exchange (the oldest one is dropped if the buffer is full)
+	 *
+	 * @param pCommand
+	 *            command
+	 * @param pResponse
+	 *            response (null if the communication failed)
+	 * @param pNanos
+	 *            duration in nanoseconds
+	 */
+	public void add(final byte[] pCommand, final byte[] pResponse, final long pNanos) {
+		int index = count % commands.length;
+		commands[index] = pCommand;
+		responses[index] = pResponse;
+		durations[index] = pNanos;
+		count++;
+	}
+
+	/**
+	 * Method used to get the number of exchanges kept
+	 *
+	 * @return the number of exchanges
+	 */
+	public int size() {
+		return Math.min(count, commands.length);
+	}
+
+	/**
+	 * Method used to remove all exchanges
+	 */
+	public void clear() {
+		for (int i = 0; i < commands.length; i++) {
+			commands[i] = null;
+			responses[i] = null;
+		}
+		count = 0;
+	}
+
+	/**
+	 * Method used to format the exchanges kept, oldest first
+	 *
+	 * @param pSink
+	 *            destination of the lines
+	 */
+	public void dump(final ITraceSink pSink) {
+		int size = size();
+		if (count > size) {
+			pSink.trace((count - size) + " exchanges dropped");
+		}
+		for (int i = count - size; i < count; i++) {
+			int index = i % commands.length;
+			pSink.trace("send: " + BytesUtils.bytesToString(commands[index]));
+			byte[] response = responses[index];
+			long micros = durations[index] / NANOS_PER_MICRO;
+			if (response == null) {
+				pSink.trace("resp: communication failure (" + micros + "us)");
+				continue;
+			}
+			pSink.trace("resp: " + BytesUtils.bytesToString(response) + " (" + micros + "us)");
+			try {
+				pSink.trace("resp: " + TlvUtil.prettyPrintAPDUResponse(response));
+			} catch (RuntimeException e) {
+				pSink.trace("resp: unable to parse response: " + e);
+			}
+			SwEnum val = SwEnum.getSW(response);
+			if (val != null) {
+				pSink.trace("resp: " + val.getDetail());
+			}
+		}
+	}
+
+}
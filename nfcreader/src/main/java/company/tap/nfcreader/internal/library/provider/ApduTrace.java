@@ -0,0 +1,270 @@
+package company.tap.nfcreader.internal.library.provider;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Trace of the commands sent to a card and of the card responses, with their timestamps.<br/>
+ * Binary format (big endian): magic "APDU", version, number of exchanges, then for each exchange the start and the
+ * duration in microseconds, the command (length on 2 bytes) and the response (length on 4 bytes, -1 if the
+ * communication failed).<br/>
+ * A trace contains the card data: record only test cards.
+ *
+ */
+public final class ApduTrace {
+
+	/**
+	 * Magic number "APDU"
+	 */
+	private static final int MAGIC = 0x41504455;
+
+	/**
+	 * Format version
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Nanoseconds in a microsecond
+	 */
+	private static final long NANOS_PER_MICRO = 1000L;
+
+	/**
+	 * Exchanges in the order they were sent
+	 */
+	private final List<Exchange> exchanges = new ArrayList<Exchange>();
+
+	/**
+	 * Method used to add an exchange
+	 *
+	 * @param pExchange
+	 *            exchange
+	 */
+	synchronized void add(final Exchange pExchange) {
+		exchanges.add(pExchange);
+	}
+
+	/**
+	 * Method used to get the exchanges
+	 *
+	 * @return a copy of the exchanges in the order they were sent
+	 */
+	public synchronized List<Exchange> getExchanges() {
+		return Collections.unmodifiableList(new ArrayList<Exchange>(exchanges));
+	}
+
+	/**
+	 * Method used to write the trace
+	 *
+	 * @param pOut
+	 *            output stream (not closed)
+	 * @throws IOException
+	 */
+	public synchronized void write(final OutputStream pOut) throws IOException {
+		DataOutputStream out = new DataOutputStream(pOut);
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeInt(exchanges.size());
+		for (Exchange exchange : exchanges) {
+			out.writeInt(toMicros(exchange.start));
+			out.writeInt(toMicros(exchange.duration));
+			out.writeShort(exchange.command.length);
+			out.write(exchange.command);
+			if (exchange.response == null) {
+				out.writeInt(-1);
+			} else {
+				out.writeInt(exchange.response.length);
+				out.write(exchange.response);
+			}
+		}
+		out.flush();
+	}
+
+	/**
+	 * Method used to save the trace in a file
+	 *
+	 * @param pFile
+	 *            trace file
+	 * @throws IOException
+	 */
+	public void save(final File pFile) throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(pFile));
+		try {
+			write(out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Method used to read a trace
+	 *
+	 * @param pIn
+	 *            input stream (not closed)
+	 * @return the trace
+	 * @throws IOException
+	 *             if the stream is not a valid trace
+	 */
+	public static ApduTrace read(final InputStream pIn) throws IOException {
+		DataInputStream in = new DataInputStream(pIn);
+		if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+			throw new IOException("Not an APDU trace");
+		}
+		int count = in.readInt();
+		ApduTrace ret = new ApduTrace();
+		for (int i = 0; i < count; i++) {
+			long start = in.readInt() * NANOS_PER_MICRO;
+			long duration = in.readInt() * NANOS_PER_MICRO;
+			byte[] command = new byte[in.readUnsignedShort()];
+			in.readFully(command);
+			byte[] response = null;
+			int length = in.readInt();
+			if (length >= 0) {
+				response = new byte[length];
+				in.readFully(response);
+			}
+			ret.exchanges.add(new Exchange(start, duration, command, response));
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to load a trace file
+	 *
+	 * @param pFile
+	 *            trace file
+	 * @return the trace
+	 * @throws IOException
+	 *             if the file cannot be read or is not a valid trace
+	 */
+	public static ApduTrace load(final File pFile) throws IOException {
+		InputStream in = new BufferedInputStream(new FileInputStream(pFile));
+		try {
+			return read(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Method used to convert nanoseconds to microseconds
+	 *
+	 * @param pNanos
+	 *            nanoseconds
+	 * @return microseconds (saturated)
+	 */
+	private static int toMicros(final long pNanos) {
+		return (int) Math.min(pNanos / NANOS_PER_MICRO, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Command sent to the card and its response
+	 */
+	public static final class Exchange {
+
+		/**
+		 * Start of the command from the start of the trace (nanoseconds)
+		 */
+		private final long start;
+
+		/**
+		 * Duration of the command (nanoseconds)
+		 */
+		private final long duration;
+
+		/**
+		 * Command
+		 */
+		private final byte[] command;
+
+		/**
+		 * Response (null if the communication failed)
+		 */
+		private final byte[] response;
+
+		/**
+		 * Constructor using fields
+		 *
+		 * @param pStart
+		 *            start of the command from the start of the trace (nanoseconds)
+		 * @param pDuration
+		 *            duration of the command (nanoseconds)
+		 * @param pCommand
+		 *            command
+		 * @param pResponse
+		 *            response (null if the communication failed)
+		 */
+		Exchange(final long pStart, final long pDuration, final byte[] pCommand, final byte[] pResponse) {
+			start = pStart;
+			duration = pDuration;
+			command = pCommand;
+			response = pResponse;
+		}
+
+		/**
+		 * Method used to get the field start
+		 *
+		 * @return the start from the start of the trace (nanoseconds)
+		 */
+		public long getStart() {
+			return start;
+		}
+
+		/**
+		 * Method used to get the field duration
+		 *
+		 * @return the duration (nanoseconds)
+		 */
+		public long getDuration() {
+			return duration;
+		}
+
+		/**
+		 * Method used to get the field command
+		 *
+		 * @return a copy of the command
+		 */
+		public byte[] getCommand() {
+			return command.clone();
+		}
+
+		/**
+		 * Method used to get the field response
+		 *
+		 * @return a copy of the response (null if the communication failed)
+		 */
+		public byte[] getResponse() {
+			return response == null ? null : response.clone();
+		}
+
+		/**
+		 * Method used to get the command without copy (must not be modified)
+		 *
+		 * @return the command
+		 */
+		byte[] command() {
+			return command;
+		}
+
+		/**
+		 * Method used to get the response without copy (must not be modified)
+		 *
+		 * @return the response
+		 */
+		byte[] response() {
+			return response;
+		}
+
+	}
+
+}
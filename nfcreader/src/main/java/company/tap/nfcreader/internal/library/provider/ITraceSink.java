@@ -0,0 +1,17 @@
+package company.tap.nfcreader.internal.library.provider;
+
+/**
+ * Interface for the destination of the formatted APDU trace lines
+ *
+ */
+public interface ITraceSink {
+
+	/**
+	 * Method called for each trace line
+	 *
+	 * @param pLine
+	 *            formatted line
+	 */
+	void trace(String pLine);
+
+}
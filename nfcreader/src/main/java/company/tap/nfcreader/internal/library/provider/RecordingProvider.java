@@ -0,0 +1,62 @@
+package company.tap.nfcreader.internal.library.provider;
+
+import company.tap.nfcreader.internal.library.exception.CommunicationException;
+import company.tap.nfcreader.internal.library.parser.IProvider;
+
+/**
+ * Provider decorator recording every command sent to the card and its response in an {@link ApduTrace}.<br/>
+ * Used in test and benchmark harnesses only: the reader never records the cards it reads.
+ *
+ */
+public class RecordingProvider implements IProvider {
+
+	/**
+	 * Recorded provider
+	 */
+	private final IProvider provider;
+
+	/**
+	 * Trace
+	 */
+	private final ApduTrace trace = new ApduTrace();
+
+	/**
+	 * Start of the trace (System.nanoTime())
+	 */
+	private final long origin = System.nanoTime();
+
+	/**
+	 * Constructor
+	 *
+	 * @param pProvider
+	 *            provider to record
+	 */
+	public RecordingProvider(final IProvider pProvider) {
+		provider = pProvider;
+	}
+
+	@Override
+	public byte[] transceive(final byte[] pCommand) throws CommunicationException {
+		byte[] command = pCommand.clone();
+		long start = System.nanoTime();
+		byte[] response = null;
+		try {
+			response = provider.transceive(pCommand);
+			return response;
+		} finally {
+			// a null response is recorded as a communication failure
+			trace.add(new ApduTrace.Exchange(start - origin, System.nanoTime() - start, command, response == null ? null
+					: response.clone()));
+		}
+	}
+
+	/**
+	 * Method used to get the field trace
+	 *
+	 * @return the trace (still recorded)
+	 */
+	public ApduTrace getTrace() {
+		return trace;
+	}
+
+}
@@ -0,0 +1,195 @@
+package company.tap.nfcreader.internal.library.provider;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import company.tap.nfcreader.internal.library.enums.CommandEnum;
+import company.tap.nfcreader.internal.library.exception.CommunicationException;
+import company.tap.nfcreader.internal.library.iso7816emv.ByteArrayWrapper;
+import company.tap.nfcreader.internal.library.parser.IProvider;
+
+/**
+ * Provider serving the responses of an {@link ApduTrace}, to read a recorded card without NFC.<br/>
+ * Responses are found by command: the n-th time a command is sent, the n-th recorded response of this command is
+ * returned (the last one when the command was sent more times than recorded), so the parser may send the commands in
+ * another order than in the trace. A GET PROCESSING OPTIONS command not recorded is found by its header and length,
+ * as its data (unpredictable number, date) changes on every read. An unknown command gets the status word 6A82 (file
+ * not found).
+ *
+ */
+public class ReplayProvider implements IProvider {
+
+	/**
+	 * Response to an unknown command (file not found)
+	 */
+	private static final byte[] FILE_NOT_FOUND = { (byte) 0x6A, (byte) 0x82 };
+
+	/**
+	 * Length of the command header and Lc (CLA INS P1 P2 Lc)
+	 */
+	private static final int HEADER_LENGTH = 5;
+
+	/**
+	 * Recorded exchanges by command
+	 */
+	private final Map<ByteArrayWrapper, List<ApduTrace.Exchange>> exchanges = new HashMap<ByteArrayWrapper, List<ApduTrace.Exchange>>();
+
+	/**
+	 * Number of times each command was sent
+	 */
+	private final Map<ByteArrayWrapper, int[]> sent = new HashMap<ByteArrayWrapper, int[]>();
+
+	/**
+	 * True to wait the recorded duration of each command
+	 */
+	private boolean recordedLatency;
+
+	/**
+	 * Synthetic latency of each command (nanoseconds)
+	 */
+	private long latency;
+
+	/**
+	 * Number of commands sent
+	 */
+	private int commands;
+
+	/**
+	 * Constructor
+	 *
+	 * @param pTrace
+	 *            trace to replay
+	 */
+	public ReplayProvider(final ApduTrace pTrace) {
+		for (ApduTrace.Exchange exchange : pTrace.getExchanges()) {
+			add(ByteArrayWrapper.wrapperAround(exchange.command()), exchange);
+			if (isGpo(exchange.command())) {
+				add(header(exchange.command()), exchange);
+			}
+		}
+	}
+
+	/**
+	 * Method used to add a recorded exchange
+	 *
+	 * @param pKey
+	 *            command or GPO header
+	 * @param pExchange
+	 *            exchange
+	 */
+	private void add(final ByteArrayWrapper pKey, final ApduTrace.Exchange pExchange) {
+		List<ApduTrace.Exchange> list = exchanges.get(pKey);
+		if (list == null) {
+			list = new ArrayList<ApduTrace.Exchange>(1);
+			exchanges.put(pKey, list);
+		}
+		list.add(pExchange);
+	}
+
+	/**
+	 * Method used to check if a command is a GET PROCESSING OPTIONS with data
+	 *
+	 * @param pCommand
+	 *            command
+	 * @return true for a GPO command
+	 */
+	private static boolean isGpo(final byte[] pCommand) {
+		return pCommand.length > HEADER_LENGTH && (pCommand[1] & 0xFF) == CommandEnum.GPO.getIns();
+	}
+
+	/**
+	 * Method used to get the header and Lc of a command
+	 *
+	 * @param pCommand
+	 *            command
+	 * @return the key of the header
+	 */
+	private static ByteArrayWrapper header(final byte[] pCommand) {
+		byte[] ret = new byte[HEADER_LENGTH];
+		System.arraycopy(pCommand, 0, ret, 0, HEADER_LENGTH);
+		return ByteArrayWrapper.wrapperAround(ret);
+	}
+
+	@Override
+	public byte[] transceive(final byte[] pCommand) throws CommunicationException {
+		commands++;
+		ByteArrayWrapper key = ByteArrayWrapper.wrapperAround(pCommand);
+		List<ApduTrace.Exchange> list = exchanges.get(key);
+		if (list == null && isGpo(pCommand)) {
+			key = header(pCommand);
+			list = exchanges.get(key);
+		}
+		if (list == null) {
+			pause(latency);
+			return FILE_NOT_FOUND.clone();
+		}
+		int[] count = sent.get(key);
+		if (count == null) {
+			count = new int[1];
+			sent.put(key, count);
+		}
+		ApduTrace.Exchange exchange = list.get(Math.min(count[0]++, list.size() - 1));
+		pause(recordedLatency ? exchange.getDuration() : latency);
+		if (exchange.response() == null) {
+			throw new CommunicationException("Recorded communication failure");
+		}
+		return exchange.response().clone();
+	}
+
+	/**
+	 * Method used to wait the latency of a command
+	 *
+	 * @param pNanos
+	 *            latency in nanoseconds
+	 */
+	private static void pause(final long pNanos) {
+		if (pNanos > 0) {
+			LockSupport.parkNanos(pNanos);
+		}
+	}
+
+	/**
+	 * Method used to restart the replay (the recorded responses are served again from the first one)
+	 */
+	public void reset() {
+		sent.clear();
+		commands = 0;
+	}
+
+	/**
+	 * Method used to wait the recorded duration of each command
+	 *
+	 * @param pRecordedLatency
+	 *            true to wait the recorded duration (the synthetic latency is then used only for unknown commands)
+	 * @return this provider
+	 */
+	public ReplayProvider setRecordedLatency(final boolean pRecordedLatency) {
+		recordedLatency = pRecordedLatency;
+		return this;
+	}
+
+	/**
+	 * Method used to set a synthetic latency for each command
+	 *
+	 * @param pMicros
+	 *            latency in microseconds (0 for no latency)
+	 * @return this provider
+	 */
+	public ReplayProvider setLatency(final long pMicros) {
+		latency = pMicros * 1000L;
+		return this;
+	}
+
+	/**
+	 * Method used to get the number of commands sent since the creation or the last {@link #reset()}
+	 *
+	 * @return the number of commands
+	 */
+	public int getCommands() {
+		return commands;
+	}
+
+}
@@ -0,0 +1,373 @@
+package company.tap.nfcreader.internal.library.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled matcher of the ATR patterns of the smartcard list.<br/>
+ * Each pattern is compiled once in a list of nibble sets ('.' match any nibble, '[...]' a set of nibbles, 'x*' zero or
+ * more nibbles) and added in two tries: one read from the start of the pattern (ATR lookup) and one read from the end
+ * (ATS lookup). A lookup only walks the branches compatible with the input instead of testing every pattern.
+ *
+ */
+final class AtrMatcher {
+
+	/**
+	 * Bit used for a character which is not an upper case hexadecimal digit (only matched by a wildcard)
+	 */
+	private static final int OTHER = 1 << 16;
+
+	/**
+	 * Set matching any character
+	 */
+	private static final int ANY = 0x1FFFF;
+
+	/**
+	 * Root node of the patterns read from the start
+	 */
+	private final Node prefixRoot = new Node();
+
+	/**
+	 * Root node of the patterns read from the end
+	 */
+	private final Node suffixRoot = new Node();
+
+	/**
+	 * Descriptions of each pattern (in insertion order)
+	 */
+	private final List<List<String>> descriptions = new ArrayList<List<String>>();
+
+	/**
+	 * Pattern index by pattern (used only while building)
+	 */
+	private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+
+	/**
+	 * Method used to add a description to an ATR pattern
+	 *
+	 * @param pPattern
+	 *            ATR pattern without whitespace (upper case)
+	 * @param pDescription
+	 *            description to add
+	 */
+	void add(final String pPattern, final String pDescription) {
+		Integer index = indexes.get(pPattern);
+		if (index == null) {
+			index = descriptions.size();
+			indexes.put(pPattern, index);
+			descriptions.add(new ArrayList<String>());
+			Atom[] atoms = compile(pPattern);
+			Node node = prefixRoot;
+			for (Atom atom : atoms) {
+				node = node.child(atom);
+			}
+			node.add(index);
+			node = suffixRoot;
+			for (int i = atoms.length - 1; i >= 0; i--) {
+				node = node.child(atoms[i]);
+			}
+			node.add(index);
+		}
+		descriptions.get(index).add(pDescription);
+	}
+
+	/**
+	 * Method used to get the descriptions of the first pattern matching the whole ATR
+	 *
+	 * @param pAtr
+	 *            ATR without whitespace
+	 * @return list of description or null
+	 */
+	List<String> getDescription(final String pAtr) {
+		int[] input = toInput(pAtr, false);
+		BitSet found = new BitSet();
+		matchAtr(prefixRoot, input, 0, found);
+		int index = found.nextSetBit(0);
+		return index < 0 ? null : Collections.unmodifiableList(descriptions.get(index));
+	}
+
+	/**
+	 * Method used to get the descriptions of all the patterns ending with the ATS.<br/>
+	 * The part of the pattern matching the ATS must contain at least one nibble which is not a wildcard.
+	 *
+	 * @param pAts
+	 *            ATS without whitespace (and without status word)
+	 * @return list of description
+	 */
+	ArrayList<String> getDescriptionFromAts(final String pAts) {
+		ArrayList<String> ret = new ArrayList<String>();
+		if (pAts.length() > 0) {
+			BitSet found = new BitSet();
+			matchAts(suffixRoot, toInput(pAts, true), 0, false, found);
+			for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+				ret.addAll(descriptions.get(i));
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to find the patterns matching the whole input
+	 *
+	 * @param pNode
+	 *            current node
+	 * @param pInput
+	 *            input nibbles
+	 * @param pPosition
+	 *            current position in the input
+	 * @param pFound
+	 *            index of the patterns found
+	 */
+	private static void matchAtr(final Node pNode, final int[] pInput, final int pPosition, final BitSet pFound) {
+		if (pPosition == pInput.length) {
+			for (int i = 0; i < pNode.indexCount; i++) {
+				pFound.set(pNode.indexes[i]);
+			}
+		}
+		for (int i = 0; i < pNode.childCount; i++) {
+			Atom atom = pNode.atoms[i];
+			if (atom.repeat) {
+				int position = pPosition;
+				matchAtr(pNode.children[i], pInput, position, pFound);
+				while (position < pInput.length && (atom.mask & pInput[position]) != 0) {
+					matchAtr(pNode.children[i], pInput, ++position, pFound);
+				}
+			} else if (pPosition < pInput.length && (atom.mask & pInput[pPosition]) != 0) {
+				matchAtr(pNode.children[i], pInput, pPosition + 1, pFound);
+			}
+		}
+	}
+
+	/**
+	 * Method used to find the patterns ending with the input (read in reverse order)
+	 *
+	 * @param pNode
+	 *            current node
+	 * @param pInput
+	 *            input nibbles in reverse order
+	 * @param pPosition
+	 *            current position in the input
+	 * @param pSignificant
+	 *            true if a nibble which is not a wildcard has been matched
+	 * @param pFound
+	 *            index of the patterns found
+	 */
+	private static void matchAts(final Node pNode, final int[] pInput, final int pPosition, final boolean pSignificant,
+			final BitSet pFound) {
+		if (pPosition == pInput.length) {
+			if (pSignificant) {
+				addAll(pNode, pFound);
+			}
+			return;
+		}
+		for (int i = 0; i < pNode.childCount; i++) {
+			Atom atom = pNode.atoms[i];
+			if (atom.repeat) {
+				int position = pPosition;
+				matchAts(pNode.children[i], pInput, position, pSignificant, pFound);
+				while (position < pInput.length && (atom.mask & pInput[position]) != 0) {
+					matchAts(pNode.children[i], pInput, ++position, pSignificant || atom.mask != ANY, pFound);
+				}
+			} else if ((atom.mask & pInput[pPosition]) != 0) {
+				matchAts(pNode.children[i], pInput, pPosition + 1, pSignificant || atom.mask != ANY, pFound);
+			}
+		}
+	}
+
+	/**
+	 * Method used to add all the patterns of a sub tree
+	 *
+	 * @param pNode
+	 *            root of the sub tree
+	 * @param pFound
+	 *            index of the patterns found
+	 */
+	private static void addAll(final Node pNode, final BitSet pFound) {
+		for (int i = 0; i < pNode.indexCount; i++) {
+			pFound.set(pNode.indexes[i]);
+		}
+		for (int i = 0; i < pNode.childCount; i++) {
+			addAll(pNode.children[i], pFound);
+		}
+	}
+
+	/**
+	 * Method used to convert a string in a list of character sets
+	 *
+	 * @param pValue
+	 *            string to convert
+	 * @param pReverse
+	 *            true to read the string from the end
+	 * @return one bit set by character
+	 */
+	private static int[] toInput(final String pValue, final boolean pReverse) {
+		int length = pValue.length();
+		int[] ret = new int[length];
+		for (int i = 0; i < length; i++) {
+			ret[pReverse ? length - 1 - i : i] = bit(pValue.charAt(i));
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to get the bit of a character
+	 *
+	 * @param pChar
+	 *            character
+	 * @return the bit of the nibble or {@link #OTHER}
+	 */
+	private static int bit(final char pChar) {
+		if (pChar >= '0' && pChar <= '9') {
+			return 1 << pChar - '0';
+		} else if (pChar >= 'A' && pChar <= 'F') {
+			return 1 << pChar - 'A' + 10;
+		}
+		return OTHER;
+	}
+
+	/**
+	 * Method used to compile an ATR pattern
+	 *
+	 * @param pPattern
+	 *            pattern to compile
+	 * @return list of atoms
+	 */
+	private static Atom[] compile(final String pPattern) {
+		List<Atom> ret = new ArrayList<Atom>();
+		int i = 0;
+		while (i < pPattern.length()) {
+			char c = pPattern.charAt(i++);
+			int mask;
+			if (c == '.') {
+				mask = ANY;
+			} else if (c == '[') {
+				mask = 0;
+				while (i < pPattern.length() && pPattern.charAt(i) != ']') {
+					char first = pPattern.charAt(i++);
+					if (first != ',' && i + 1 < pPattern.length() && pPattern.charAt(i) == '-'
+							&& pPattern.charAt(i + 1) != ']') {
+						char last = pPattern.charAt(i + 1);
+						for (char r = first; r <= last; r++) {
+							mask |= bit(r) & ~OTHER;
+						}
+						i += 2;
+					} else if (first != ',') {
+						mask |= bit(first) & ~OTHER;
+					}
+				}
+				i++;
+			} else {
+				mask = bit(c);
+			}
+			boolean repeat = i < pPattern.length() && pPattern.charAt(i) == '*';
+			if (repeat) {
+				i++;
+			}
+			ret.add(new Atom(mask, repeat));
+		}
+		return ret.toArray(new Atom[ret.size()]);
+	}
+
+	/**
+	 * Set of characters matched by one position of a pattern
+	 */
+	private static final class Atom {
+
+		/**
+		 * Bit set of the characters matched
+		 */
+		private final int mask;
+
+		/**
+		 * True if the atom can be repeated zero or more times
+		 */
+		private final boolean repeat;
+
+		/**
+		 * Constructor using fields
+		 *
+		 * @param pMask
+		 *            bit set of the characters matched
+		 * @param pRepeat
+		 *            true for a repeated atom
+		 */
+		private Atom(final int pMask, final boolean pRepeat) {
+			mask = pMask;
+			repeat = pRepeat;
+		}
+
+	}
+
+	/**
+	 * Trie node
+	 */
+	private static final class Node {
+
+		/**
+		 * Atom of each child
+		 */
+		private Atom[] atoms = new Atom[1];
+
+		/**
+		 * Children nodes
+		 */
+		private Node[] children = new Node[1];
+
+		/**
+		 * Number of children
+		 */
+		private int childCount;
+
+		/**
+		 * Index of the patterns ending on this node
+		 */
+		private int[] indexes = new int[0];
+
+		/**
+		 * Number of patterns ending on this node
+		 */
+		private int indexCount;
+
+		/**
+		 * Method used to get (or create) the child of an atom
+		 *
+		 * @param pAtom
+		 *            atom
+		 * @return the child node
+		 */
+		private Node child(final Atom pAtom) {
+			for (int i = 0; i < childCount; i++) {
+				if (atoms[i].mask == pAtom.mask && atoms[i].repeat == pAtom.repeat) {
+					return children[i];
+				}
+			}
+			if (childCount == atoms.length) {
+				atoms = Arrays.copyOf(atoms, childCount * 2);
+				children = Arrays.copyOf(children, childCount * 2);
+			}
+			atoms[childCount] = pAtom;
+			children[childCount] = new Node();
+			return children[childCount++];
+		}
+
+		/**
+		 * Method used to add a pattern ending on this node
+		 *
+		 * @param pIndex
+		 *            pattern index
+		 */
+		private void add(final int pIndex) {
+			if (indexCount == indexes.length) {
+				indexes = Arrays.copyOf(indexes, indexCount + 1);
+			}
+			indexes[indexCount++] = pIndex;
+		}
+
+	}
+
+}
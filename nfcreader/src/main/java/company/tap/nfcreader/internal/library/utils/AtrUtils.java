@@ -16,7 +16,9 @@
 
 package company.tap.nfcreader.internal.library.utils;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -24,7 +26,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.Objects;
+import java.util.concurrent.Executor;
 
 import company.tap.nfcreader.R;
 import company.tap.nfcreader.internal.library.log.Logger;
@@ -46,24 +48,120 @@ import org.apache.commons.lang3.StringUtils;
  * 
  */
 public final class AtrUtils {
-	static ArrayList<String> ret = new ArrayList<>();
+
 	/**
 	 * Class logger
 	 */
 	private static final Logger LOGGER = LoggerFactory.getLogger(AtrUtils.class);
 
 	/**
-	 * MultiMap containing ATR
+	 * Binary index generated at build time from the smartcard list (see generateSmartcardIndex in build.gradle)
+	 */
+	private static final String INDEX_RESOURCE = "smartcard_list.bin";
+
+	/**
+	 * First bytes of the binary index
+	 */
+	private static final int INDEX_MAGIC = 0x41545231;
+
+	/**
+	 * Smartcard list (used when the binary index is not available)
+	 */
+	private static final String LIST_RESOURCE = "/res/raw/smartcard_list.txt";
+
+	/**
+	 * Holder of the compiled ATR patterns, loaded on first use
+	 */
+	private static final class MatcherHolder {
+
+		/**
+		 * Compiled ATR patterns
+		 */
+		private static final AtrMatcher MATCHER = load();
+
+	}
+
+	/**
+	 * Method used to load the ATR patterns in a background task, so the first lookup does not pay the loading cost
+	 *
+	 * @param pExecutor
+	 *            executor used to load the patterns
 	 */
-	private static final Multimap<String, String> MAP = Multimap.create();
+	public static void warmUp(final Executor pExecutor) {
+		pExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				LOGGER.debug("ATR patterns loaded: " + (MatcherHolder.MATCHER != null));
+			}
+		});
+	}
 
-	static {
+	/**
+	 * Method used to load the ATR patterns from the binary index or from the smartcard list
+	 *
+	 * @return the compiled patterns
+	 */
+	private static AtrMatcher load() {
+		AtrMatcher ret = null;
+		try {
+			ret = loadIndex();
+		} catch (IOException e) {
+			LOGGER.error("Unable to read ATR index: " + e.getMessage());
+		}
+		if (ret == null) {
+			ret = loadList();
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to load the ATR patterns from the binary index
+	 *
+	 * @return the compiled patterns or null if the index is not available
+	 * @throws IOException
+	 *             if the index cannot be read
+	 */
+	private static AtrMatcher loadIndex() throws IOException {
+		InputStream is = AtrUtils.class.getResourceAsStream(INDEX_RESOURCE);
+		if (is == null) {
+			return null;
+		}
+		DataInputStream dis = null;
+		try {
+			dis = new DataInputStream(new BufferedInputStream(is));
+			if (dis.readInt() != INDEX_MAGIC) {
+				LOGGER.error("Invalid ATR index");
+				return null;
+			}
+			AtrMatcher ret = new AtrMatcher();
+			int count = dis.readInt();
+			for (int i = 0; i < count; i++) {
+				String atr = dis.readUTF();
+				int descriptions = dis.readUnsignedShort();
+				for (int j = 0; j < descriptions; j++) {
+					ret.add(atr, dis.readUTF());
+				}
+			}
+			return ret;
+		} finally {
+			CommonsUtils.closeQuietly(dis);
+			CommonsUtils.closeQuietly(is);
+		}
+	}
+
+	/**
+	 * Method used to load the ATR patterns from the smartcard list
+	 *
+	 * @return the compiled patterns
+	 */
+	private static AtrMatcher loadList() {
+		AtrMatcher ret = new AtrMatcher();
 		InputStream is = null;
 		InputStreamReader isr = null;
 		BufferedReader br = null;
 
 		try {
-			is = AtrUtils.class.getResourceAsStream("/res/raw/smartcard_list.txt");
+			is = AtrUtils.class.getResourceAsStream(LIST_RESOURCE);
 			isr = new InputStreamReader(is, UTF_8);
 			br = new BufferedReader(isr);
 
@@ -75,7 +173,7 @@ public final class AtrUtils {
 				if (line.startsWith("#") || line.trim().length() == 0) { // comment ^#/ empty line ^$/
 					continue;
 				} else if (line.startsWith("\t") && currentATR != null) {
-					MAP.putElement(currentATR, line.replace("\t", "").trim());
+					ret.add(currentATR, line.replace("\t", "").trim());
 				} else if (line.startsWith("3")) { // ATR hex
 					currentATR = deleteWhitespace(line.toUpperCase());
 				} else {
@@ -90,6 +188,7 @@ public final class AtrUtils {
 			CommonsUtils.closeQuietly(isr);
 			CommonsUtils.closeQuietly(is);
 		}
+		return ret;
 	}
 
 	/**
@@ -99,17 +198,10 @@ public final class AtrUtils {
 	 *            Card ATR
 	 * @return list of description
 	 */
-	@SuppressWarnings("unchecked")
 	public static final Collection<String> getDescription(final String pAtr) {
 		Collection<String> ret = null;
 		if (CommonsUtils.isNotBlank(pAtr)) {
-			String val = deleteWhitespace(pAtr);
-			for (String key : MAP.keySet()) {
-				if (val.matches("^" + key + "$")) {
-					ret = (Collection<String>) MAP.get(key);
-					break;
-				}
-			}
+			ret = MatcherHolder.MATCHER.getDescription(deleteWhitespace(pAtr));
 		}
 		return ret;
 	}
@@ -121,37 +213,16 @@ public final class AtrUtils {
 	 *            EMV card ATS
 	 * @return card description
 	 */
-
-	public static  ArrayList<String> getDescriptionFromAts(final String pAts) {
-	if(ret!=null) ret = new ArrayList<>();
+	public static ArrayList<String> getDescriptionFromAts(final String pAts) {
+		ArrayList<String> ret = new ArrayList<String>();
 		if (StringUtils.isNotBlank(pAts)) {
-			String val = StringUtils.deleteWhitespace(pAts).replaceAll("9000$", "");
-			for (String key : MAP.keySet()) {
-				int j = val.length() - 1;
-				int i = key.length() - 1;
-				while (i >= 0) {
-					if (key.charAt(i) == '.' || key.charAt(i) == val.charAt(j)  ){
-						j--;
-						i--;
-						if (j < 0){
-							if (!key.substring(key.length() - val.length(), key.length()).replace(".", "").isEmpty()){
-								ret.addAll(Objects.requireNonNull(MAP.get(key)));
-							}
-							break;
-						}
-					} else if (j != val.length() - 1) {
-						j = val.length() - 1;
-					} else if (i == key.length() - 1){
-						break;
-					} else {
-						i--;
-						break;
-					}
-				}
+			String val = StringUtils.deleteWhitespace(pAts);
+			if (val.endsWith("9000")) {
+				val = val.substring(0, val.length() - 4);
 			}
+			ret = MatcherHolder.MATCHER.getDescriptionFromAts(val);
 		}
 		return ret;
-
 	}
 
 	/**
@@ -139,6 +139,30 @@ public final class BitUtils {
 		return ret;
 	}
 
+	/**
+	 * Method used to read bits directly in a byte array (without copy)
+	 *
+	 * @param pData
+	 *            data to read
+	 * @param pBitIndex
+	 *            index of the first bit to read
+	 * @param pLength
+	 *            number of bits to read (64 max)
+	 * @return the value read (the first bit read is the most significant bit)
+	 */
+	public static long getBits(final byte[] pData, final int pBitIndex, final int pLength) {
+		long ret = 0;
+		int index = pBitIndex;
+		int max = pBitIndex + pLength;
+		while (index < max) {
+			int mod = index % BYTE_SIZE;
+			int length = Math.min(BYTE_SIZE - mod, max - index);
+			ret = ret << length | (pData[index / BYTE_SIZE] & DEFAULT_VALUE) >>> BYTE_SIZE - mod - length & (1 << length) - 1;
+			index += length;
+		}
+		return ret;
+	}
+
 	/**
 	 * Get the Next boolean (read 1 bit)
 	 * 
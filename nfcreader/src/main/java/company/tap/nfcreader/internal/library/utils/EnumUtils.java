@@ -15,6 +15,11 @@
  */
 package company.tap.nfcreader.internal.library.utils;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import company.tap.nfcreader.internal.library.log.Logger;
 import company.tap.nfcreader.internal.library.log.LoggerFactory;
 import company.tap.nfcreader.internal.library.model.enums.IKeyEnum;
@@ -31,6 +36,99 @@ public final class EnumUtils {
 	 */
 	private static final Logger LOGGER = LoggerFactory.getLogger(EnumUtils.class);
 
+	/**
+	 * Maximum number of slots of a key index
+	 */
+	private static final int MAX_INDEX_SIZE = 4096;
+
+	/**
+	 * Key indexes by enum class
+	 */
+	private static final Map<Class<?>, KeyIndex> INDEXES = new ConcurrentHashMap<Class<?>, KeyIndex>();
+
+	/**
+	 * Enum constants indexed by key: a table from the smallest to the biggest key, or the keys sorted for a binary search
+	 * when the keys are too sparse
+	 */
+	private static final class KeyIndex {
+
+		/**
+		 * Smallest key (offset of the table)
+		 */
+		private final int min;
+
+		/**
+		 * Constants by key - min (table) or in key order (binary search)
+		 */
+		private final IKeyEnum[] values;
+
+		/**
+		 * Sorted keys (null for a table)
+		 */
+		private final int[] keys;
+
+		/**
+		 * Constructor using the enum constants
+		 * 
+		 * @param pConstants
+		 *            enum constants
+		 */
+		private KeyIndex(final IKeyEnum[] pConstants) {
+			long minKey = Integer.MAX_VALUE;
+			long maxKey = Integer.MIN_VALUE;
+			for (IKeyEnum val : pConstants) {
+				minKey = Math.min(minKey, val.getKey());
+				maxKey = Math.max(maxKey, val.getKey());
+			}
+			if (pConstants.length == 0 || maxKey - minKey < MAX_INDEX_SIZE) {
+				min = (int) minKey;
+				values = new IKeyEnum[pConstants.length == 0 ? 0 : (int) (maxKey - minKey + 1)];
+				keys = null;
+				// filled from the last constant so that the first declared constant wins for a duplicated key
+				for (int i = pConstants.length - 1; i >= 0; i--) {
+					values[pConstants[i].getKey() - min] = pConstants[i];
+				}
+			} else {
+				min = 0;
+				IKeyEnum[] sorted = pConstants.clone();
+				// stable sort: the first declared constant comes first for a duplicated key
+				Arrays.sort(sorted, new Comparator<IKeyEnum>() {
+					@Override
+					public int compare(final IKeyEnum pO1, final IKeyEnum pO2) {
+						return pO1.getKey() < pO2.getKey() ? -1 : pO1.getKey() == pO2.getKey() ? 0 : 1;
+					}
+				});
+				values = sorted;
+				keys = new int[sorted.length];
+				for (int i = 0; i < sorted.length; i++) {
+					keys[i] = sorted[i].getKey();
+				}
+			}
+		}
+
+		/**
+		 * Method used to get the constant of a key
+		 * 
+		 * @param pKey
+		 *            key
+		 * @return the constant or null
+		 */
+		private IKeyEnum get(final int pKey) {
+			if (keys == null) {
+				long index = (long) pKey - min;
+				return index >= 0 && index < values.length ? values[(int) index] : null;
+			}
+			int index = Arrays.binarySearch(keys, pKey);
+			if (index < 0) {
+				return null;
+			}
+			while (index > 0 && keys[index - 1] == pKey) {
+				index--;
+			}
+			return values[index];
+		}
+	}
+
 	/**
 	 * Get the value of and enum from his key
 	 * 
@@ -42,13 +140,17 @@ public final class EnumUtils {
 	 */
 	@SuppressWarnings("unchecked")
 	public static <T extends IKeyEnum> T getValue(final int pKey, final Class<T> pClass) {
-		for (IKeyEnum val : pClass.getEnumConstants()) {
-			if (val.getKey() == pKey) {
-				return (T) val;
-			}
+		KeyIndex index = INDEXES.get(pClass);
+		if (index == null) {
+			// built once by class, a concurrent build gives the same index
+			index = new KeyIndex(pClass.getEnumConstants());
+			INDEXES.put(pClass, index);
+		}
+		IKeyEnum ret = index.get(pKey);
+		if (ret == null && LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Unknow value:" + pKey + " for Enum:" + pClass.getName());
 		}
-		LOGGER.error("Unknow value:" + pKey + " for Enum:" + pClass.getName());
-		return null;
+		return (T) ret;
 	}
 
 	/**
@@ -17,6 +17,7 @@ package company.tap.nfcreader.internal.library.utils;
 
 import java.util.Arrays;
 
+import company.tap.nfcreader.internal.library.enums.SwCategoryEnum;
 import company.tap.nfcreader.internal.library.enums.SwEnum;
 import company.tap.nfcreader.internal.library.log.Logger;
 import company.tap.nfcreader.internal.library.log.LoggerFactory;
@@ -43,7 +44,23 @@ public final class ResponseUtils {
 	 * @return true if the status is 9000 false otherwise
 	 */
 	public static boolean isSucceed(final byte[] pByte) {
-		return isEquals(pByte, SwEnum.SW_9000);
+		return isCategory(pByte, SwCategoryEnum.SUCCESS);
+	}
+
+	/**
+	 * Method used to check the category of the last command status word
+	 * 
+	 * @param pByte
+	 *            response to the last command
+	 * @param pCategory
+	 *            category to check
+	 * @return true if the status word of the last command is in pCategory
+	 */
+	public static boolean isCategory(final byte[] pByte, final SwCategoryEnum pCategory) {
+		if (LOGGER.isDebugEnabled()) {
+			logStatus(pByte, SwEnum.getSW(pByte));
+		}
+		return SwCategoryEnum.getCategory(pByte) == pCategory;
 	}
 
 	/**
@@ -57,12 +74,26 @@ public final class ResponseUtils {
 	 */
 	public static boolean isEquals(final byte[] pByte, final SwEnum pEnum) {
 		SwEnum val = SwEnum.getSW(pByte);
-		if (LOGGER.isDebugEnabled() && pByte != null) {
+		if (LOGGER.isDebugEnabled()) {
+			logStatus(pByte, val);
+		}
+		return val != null && val == pEnum;
+	}
+
+	/**
+	 * Method used to log the status word of a response
+	 * 
+	 * @param pByte
+	 *            response
+	 * @param pVal
+	 *            status word
+	 */
+	private static void logStatus(final byte[] pByte, final SwEnum pVal) {
+		if (pByte != null && pByte.length >= 2) {
 			LOGGER.debug("Response Status <"
 					+ BytesUtils.bytesToStringNoSpace(Arrays.copyOfRange(pByte, pByte.length - 2, pByte.length)) + "> : "
-					+ (val != null ? val.getDetail() : "Unknow"));
+					+ (pVal != null ? pVal.getDetail() : "Unknow"));
 		}
-		return val != null && val == pEnum;
 	}
 
 	/**
@@ -0,0 +1,213 @@
+package company.tap.nfcreader.internal.library.utils;
+
+import java.util.Arrays;
+
+import company.tap.nfcreader.internal.library.exception.TlvException;
+import company.tap.nfcreader.internal.library.iso7816emv.EmvTags;
+import company.tap.nfcreader.internal.library.iso7816emv.ITag;
+
+/**
+ * Index of all the TLV contained in an APDU response.<br/>
+ * The response is decoded once (primitive and constructed tags, in depth-first order) and each following lookup is
+ * resolved with a hash table keyed by the tag id instead of parsing the response again.
+ *
+ */
+public final class TlvIndex {
+
+	/**
+	 * Initial number of entries
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Response data
+	 */
+	private final byte[] data;
+
+	/**
+	 * Tag id of each entry (depth-first order)
+	 */
+	private int[] tagIds = new int[DEFAULT_CAPACITY];
+
+	/**
+	 * Value offset of each entry
+	 */
+	private int[] valueOffsets = new int[DEFAULT_CAPACITY];
+
+	/**
+	 * Value length of each entry
+	 */
+	private int[] valueLengths = new int[DEFAULT_CAPACITY];
+
+	/**
+	 * Number of entries
+	 */
+	private int size;
+
+	/**
+	 * Hash table containing entry index + 1 (0 for an empty slot)
+	 */
+	private int[] table;
+
+	/**
+	 * Error raised while decoding the response (entries before the error are kept)
+	 */
+	private TlvException error;
+
+	/**
+	 * Constructor using fields
+	 *
+	 * @param pData
+	 *            APDU response to index
+	 */
+	public TlvIndex(final byte[] pData) {
+		data = pData;
+		if (pData != null) {
+			try {
+				index(new TlvReader(pData));
+			} catch (TlvException e) {
+				error = e;
+			}
+		}
+		buildTable();
+	}
+
+	/**
+	 * Method used to add all TLV of the reader in the index
+	 *
+	 * @param pReader
+	 *            reader to walk
+	 */
+	private void index(final TlvReader pReader) {
+		while (pReader.hasNext()) {
+			pReader.next();
+			if (pReader.getTagLength() <= 4) {
+				add(EmvTags.toTagId(pReader.getData(), pReader.getTagOffset(), pReader.getTagLength()),
+						pReader.getValueOffset(), pReader.getValueLength());
+			}
+			if (pReader.isConstructed()) {
+				index(pReader.getValueReader());
+			}
+		}
+	}
+
+	/**
+	 * Method used to add an entry
+	 *
+	 * @param pTagId
+	 *            tag id
+	 * @param pOffset
+	 *            value offset
+	 * @param pLength
+	 *            value length
+	 */
+	private void add(final int pTagId, final int pOffset, final int pLength) {
+		if (size == tagIds.length) {
+			tagIds = Arrays.copyOf(tagIds, size * 2);
+			valueOffsets = Arrays.copyOf(valueOffsets, size * 2);
+			valueLengths = Arrays.copyOf(valueLengths, size * 2);
+		}
+		tagIds[size] = pTagId;
+		valueOffsets[size] = pOffset;
+		valueLengths[size] = pLength;
+		size++;
+	}
+
+	/**
+	 * Method used to build the hash table (only the first occurrence of a tag is kept)
+	 */
+	private void buildTable() {
+		int capacity = 4;
+		while (capacity < size * 2) {
+			capacity <<= 1;
+		}
+		table = new int[capacity];
+		for (int i = 0; i < size; i++) {
+			int slot = find(tagIds[i]);
+			if (table[slot] == 0) {
+				table[slot] = i + 1;
+			}
+		}
+	}
+
+	/**
+	 * Method used to find the slot of a tag id
+	 *
+	 * @param pTagId
+	 *            tag id
+	 * @return the slot containing the tag or the empty slot where it could be inserted
+	 */
+	private int find(final int pTagId) {
+		int mask = table.length - 1;
+		int slot = pTagId * 0x9E3779B9 >>> 16 & mask;
+		while (table[slot] != 0 && tagIds[table[slot] - 1] != pTagId) {
+			slot = slot + 1 & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Method used to get the index of the first entry matching one of the tags
+	 *
+	 * @param pTag
+	 *            tags to find
+	 * @return the entry index or -1
+	 */
+	private int indexOf(final ITag... pTag) {
+		int ret = -1;
+		if (pTag != null) {
+			for (ITag tag : pTag) {
+				if (tag != null && tag.getTagBytes().length <= 4) {
+					byte[] tagBytes = tag.getTagBytes();
+					int entry = table[find(EmvTags.toTagId(tagBytes, 0, tagBytes.length))] - 1;
+					if (entry >= 0 && (ret == -1 || entry < ret)) {
+						ret = entry;
+					}
+				}
+			}
+		}
+		if (ret == -1 && error != null) {
+			throw new TlvException(error.getMessage());
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to get Tag value (same result as {@link TlvUtil#getValue(byte[], ITag...)})
+	 *
+	 * @param pTag
+	 *            tag to find
+	 * @return tag value or null
+	 */
+	public byte[] getValue(final ITag... pTag) {
+		byte[] ret = null;
+		if (data != null) {
+			int entry = indexOf(pTag);
+			if (entry != -1) {
+				ret = Arrays.copyOfRange(data, valueOffsets[entry], valueOffsets[entry] + valueLengths[entry]);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to know if the response contains one of the tags
+	 *
+	 * @param pTag
+	 *            tag to find
+	 * @return true if the tag is present
+	 */
+	public boolean contains(final ITag... pTag) {
+		return data != null && indexOf(pTag) != -1;
+	}
+
+	/**
+	 * Method used to get the field data
+	 *
+	 * @return the data
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
+}
@@ -0,0 +1,350 @@
+package company.tap.nfcreader.internal.library.utils;
+
+import java.util.Arrays;
+
+import company.tap.nfcreader.internal.library.exception.TlvException;
+import company.tap.nfcreader.internal.library.iso7816emv.EmvTags;
+import company.tap.nfcreader.internal.library.iso7816emv.ITag;
+import company.tap.nfcreader.internal.library.iso7816emv.TLV;
+
+/**
+ * Cursor used to walk TLV data in place.<br/>
+ * The reader never copies the underlying byte array: each call to {@link #next()} only updates the offset and length
+ * of the tag, length and value of the current TLV. Values are copied only when explicitly requested.
+ *
+ */
+public final class TlvReader {
+
+	/**
+	 * Mask used to detect multi bytes tag
+	 */
+	private static final int TAG_MASK = 0x1F;
+
+	/**
+	 * Indefinite length form
+	 */
+	private static final int INDEFINITE_LENGTH = 0x80;
+
+	/**
+	 * Data to read
+	 */
+	private final byte[] data;
+
+	/**
+	 * End of the data to read (exclusive)
+	 */
+	private final int limit;
+
+	/**
+	 * Current position
+	 */
+	private int position;
+
+	/**
+	 * Offset of the current tag
+	 */
+	private int tagOffset;
+
+	/**
+	 * Number of bytes of the current tag
+	 */
+	private int tagLength;
+
+	/**
+	 * Offset of the raw encoded length of the current TLV
+	 */
+	private int lengthOffset;
+
+	/**
+	 * Number of raw encoded length bytes of the current TLV
+	 */
+	private int lengthLength;
+
+	/**
+	 * Offset of the value of the current TLV
+	 */
+	private int valueOffset;
+
+	/**
+	 * Length of the value of the current TLV
+	 */
+	private int valueLength;
+
+	/**
+	 * Constructor using fields
+	 *
+	 * @param pData
+	 *            data to read
+	 */
+	public TlvReader(final byte[] pData) {
+		this(pData, 0, pData.length);
+	}
+
+	/**
+	 * Constructor using fields
+	 *
+	 * @param pData
+	 *            data to read
+	 * @param pOffset
+	 *            offset of the first byte to read
+	 * @param pLength
+	 *            number of bytes to read
+	 */
+	public TlvReader(final byte[] pData, final int pOffset, final int pLength) {
+		if (pData == null) {
+			throw new IllegalArgumentException("Parameter 'pData' cannot be null");
+		}
+		if (pOffset < 0 || pLength < 0 || pData.length < pOffset + pLength) {
+			throw new IllegalArgumentException("Length or offset not valid");
+		}
+		data = pData;
+		position = pOffset;
+		limit = pOffset + pLength;
+	}
+
+	/**
+	 * Method used to know if there is remaining data to read
+	 *
+	 * @return true if data remain
+	 */
+	public boolean hasNext() {
+		return position < limit;
+	}
+
+	/**
+	 * Method used to move the cursor to the next TLV.<br/>
+	 * Padding bytes '00' and 'FF' before and after the TLV are skipped (ISO/IEC 7816-4).
+	 *
+	 * @throws TlvException
+	 *             if the data are not a valid TLV
+	 */
+	public void next() {
+		if (limit - position < 2) {
+			throw new TlvException("Error parsing data. Available bytes < 2 . Length=" + (limit - position));
+		}
+		skipPadding();
+		if (limit - position < 2) {
+			throw new TlvException("Error parsing data. Available bytes < 2 . Length=" + (limit - position));
+		}
+
+		// Tag
+		tagOffset = position;
+		int first = data[position++] & 0xFF;
+		if ((first & TAG_MASK) == TAG_MASK) { // EMV book 3, Page 178 or Annex B1 (EMV4.3)
+			while (position < limit) {
+				int next = data[position++] & 0xFF;
+				if ((next & 0x80) == 0 || (next & 0x7F) == 0) {
+					break;
+				}
+			}
+		}
+		tagLength = position - tagOffset;
+
+		// Length
+		lengthOffset = position;
+		if (position >= limit) {
+			throw new TlvException("Negative length: -1");
+		}
+		int length = data[position++] & 0xFF;
+		if (length > INDEFINITE_LENGTH) {
+			int numberOfLengthOctets = length & 0x7F;
+			length = 0;
+			for (int i = 0; i < numberOfLengthOctets; i++) {
+				if (position >= limit) {
+					throw new TlvException("EOS when reading length bytes");
+				}
+				length = length << 8 | data[position++] & 0xFF;
+			}
+		}
+		lengthLength = position - lengthOffset;
+		if (lengthLength > 4) {
+			throw new TlvException("Number of length bytes must be from 1 to 4. Found " + lengthLength);
+		}
+		if (length < 0) {
+			throw new TlvException("Negative length: " + length);
+		}
+
+		// Value
+		valueOffset = position;
+		if (lengthLength == 1 && length == INDEFINITE_LENGTH) {
+			// indefinite form, value end with '0000'
+			int end = position;
+			while (end + 1 < limit && (data[end] != 0 || data[end + 1] != 0)) {
+				end++;
+			}
+			if (end + 1 >= limit) {
+				throw new TlvException("Error parsing data. TLV length byte indicated indefinite length, but EOS "
+						+ "was reached before 0x0000 was found" + (limit - end));
+			}
+			length = end - position;
+		} else if (limit - position < length) {
+			int available = limit - position;
+			throw new TlvException("Length byte(s) indicated " + length + " value bytes, but only " + available + " "
+					+ (available > 1 ? "are" : "is") + " available");
+		}
+		valueLength = length;
+		position += length;
+
+		skipPadding();
+	}
+
+	/**
+	 * Method used to skip '00' and 'FF' padding bytes
+	 */
+	private void skipPadding() {
+		while (position < limit && (data[position] == (byte) 0x00 || data[position] == (byte) 0xFF)) {
+			position++;
+		}
+	}
+
+	/**
+	 * Method used to know if the current TLV is a constructed data object
+	 *
+	 * @return true if the current tag is constructed
+	 */
+	public boolean isConstructed() {
+		return BytesUtils.matchBitByBitIndex(data[tagOffset], 5);
+	}
+
+	/**
+	 * Method used to compare the current tag with the tag in parameter
+	 *
+	 * @param pTag
+	 *            tag to compare
+	 * @return true if the current tag has the same id
+	 */
+	public boolean matches(final ITag pTag) {
+		if (pTag == null) {
+			return false;
+		}
+		byte[] tagBytes = pTag.getTagBytes();
+		if (tagBytes.length != tagLength) {
+			return false;
+		}
+		for (int i = 0; i < tagLength; i++) {
+			if (tagBytes[i] != data[tagOffset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Method used to compare the current tag with the tags in parameter
+	 *
+	 * @param pTags
+	 *            tags to compare
+	 * @return true if the current tag match one of the tags
+	 */
+	public boolean matches(final ITag... pTags) {
+		if (pTags != null) {
+			for (ITag tag : pTags) {
+				if (matches(tag)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Method used to get the tag of the current TLV
+	 *
+	 * @return the tag found (or an unknown tag)
+	 */
+	public ITag getTag() {
+		return EmvTags.getNotNull(data, tagOffset, tagLength);
+	}
+
+	/**
+	 * Method used to get a reader over the value of the current TLV
+	 *
+	 * @return a new reader sharing the same data
+	 */
+	public TlvReader getValueReader() {
+		return new TlvReader(data, valueOffset, valueLength);
+	}
+
+	/**
+	 * Method used to get a copy of the value of the current TLV
+	 *
+	 * @return the value bytes
+	 */
+	public byte[] copyValue() {
+		return Arrays.copyOfRange(data, valueOffset, valueOffset + valueLength);
+	}
+
+	/**
+	 * Method used to create a TLV object from the current TLV
+	 *
+	 * @return a TLV (the value and length bytes are copied)
+	 */
+	public TLV toTlv() {
+		return new TLV(getTag(), valueLength, Arrays.copyOfRange(data, lengthOffset, lengthOffset + lengthLength),
+				copyValue());
+	}
+
+	/**
+	 * Method used to get the field data
+	 *
+	 * @return the data
+	 */
+	public byte[] getData() {
+		return data;
+	}
+
+	/**
+	 * Method used to get the field tagOffset
+	 *
+	 * @return the tagOffset
+	 */
+	public int getTagOffset() {
+		return tagOffset;
+	}
+
+	/**
+	 * Method used to get the field tagLength
+	 *
+	 * @return the tagLength
+	 */
+	public int getTagLength() {
+		return tagLength;
+	}
+
+	/**
+	 * Method used to get the field lengthOffset
+	 *
+	 * @return the lengthOffset
+	 */
+	public int getLengthOffset() {
+		return lengthOffset;
+	}
+
+	/**
+	 * Method used to get the field lengthLength
+	 *
+	 * @return the lengthLength
+	 */
+	public int getLengthLength() {
+		return lengthLength;
+	}
+
+	/**
+	 * Method used to get the field valueOffset
+	 *
+	 * @return the valueOffset
+	 */
+	public int getValueOffset() {
+		return valueOffset;
+	}
+
+	/**
+	 * Method used to get the field valueLength
+	 *
+	 * @return the valueLength
+	 */
+	public int getValueLength() {
+		return valueLength;
+	}
+
+}
@@ -334,19 +334,32 @@ public final class TlvUtil {
 
 		List<TLV> list = new ArrayList<TLV>();
 
-		ByteArrayInputStream stream = new ByteArrayInputStream(pData);
+		getlistTLV(new TlvReader(pData), pTag, pAdd, list);
 
-		while (stream.available() > 0) {
+		return list;
+	}
 
-			TLV tlv = TlvUtil.getNextTLV(stream);
+	/**
+	 * Method used to add in the list all TLV inside the parameter tag
+	 * 
+	 * @param pReader
+	 *            reader positioned on the data to parse
+	 * @param pTag
+	 *            tag to find
+	 * @param pAdd
+	 *            true to add all TLV read
+	 * @param pList
+	 *            list to fill
+	 */
+	private static void getlistTLV(final TlvReader pReader, final ITag pTag, final boolean pAdd, final List<TLV> pList) {
+		while (pReader.hasNext()) {
+			pReader.next();
 			if (pAdd) {
-				list.add(tlv);
-			} else if (tlv.getTag().isConstructed()) {
-				list.addAll(TlvUtil.getlistTLV(tlv.getValueBytes(), pTag, tlv.getTag() == pTag));
+				pList.add(pReader.toTlv());
+			} else if (pReader.isConstructed()) {
+				getlistTLV(pReader.getValueReader(), pTag, pReader.matches(pTag), pList);
 			}
 		}
-
-		return list;
 	}
 
 	/**
@@ -362,19 +375,30 @@ public final class TlvUtil {
 
 		List<TLV> list = new ArrayList<TLV>();
 
-		ByteArrayInputStream stream = new ByteArrayInputStream(pData);
+		getlistTLV(new TlvReader(pData), pTag, list);
 
-		while (stream.available() > 0) {
+		return list;
+	}
 
-			TLV tlv = TlvUtil.getNextTLV(stream);
-			if (CommonsUtils.contains(pTag, tlv.getTag())) {
-				list.add(tlv);
-			} else if (tlv.getTag().isConstructed()) {
-				list.addAll(TlvUtil.getlistTLV(tlv.getValueBytes(), pTag));
+	/**
+	 * Method used to add in the list all TLV corresponding to tags specified in parameters
+	 * 
+	 * @param pReader
+	 *            reader positioned on the data to parse
+	 * @param pTag
+	 *            tags to find
+	 * @param pList
+	 *            list to fill
+	 */
+	private static void getlistTLV(final TlvReader pReader, final ITag[] pTag, final List<TLV> pList) {
+		while (pReader.hasNext()) {
+			pReader.next();
+			if (pReader.matches(pTag)) {
+				pList.add(pReader.toTlv());
+			} else if (pReader.isConstructed()) {
+				getlistTLV(pReader.getValueReader(), pTag, pList);
 			}
 		}
-
-		return list;
 	}
 
 	/**
@@ -391,18 +415,34 @@ public final class TlvUtil {
 		byte[] ret = null;
 
 		if (pData != null) {
-			ByteArrayInputStream stream = new ByteArrayInputStream(pData);
+			ret = getValue(new TlvReader(pData), pTag);
+		}
 
-			while (stream.available() > 0) {
+		return ret;
+	}
+
+	/**
+	 * Method used to get Tag value without copying the intermediate templates
+	 * 
+	 * @param pReader
+	 *            reader positioned on the data to parse
+	 * @param pTag
+	 *            tag to find
+	 * @return tag value or null
+	 */
+	private static byte[] getValue(final TlvReader pReader, final ITag... pTag) {
+
+		byte[] ret = null;
 
-				TLV tlv = TlvUtil.getNextTLV(stream);
-				if (CommonsUtils.contains(pTag, tlv.getTag())) {
-					return tlv.getValueBytes();
-				} else if (tlv.getTag().isConstructed()) {
-					ret = TlvUtil.getValue(tlv.getValueBytes(), pTag);
-					if (ret != null) {
-						break;
-					}
+		while (pReader.hasNext()) {
+
+			pReader.next();
+			if (pReader.matches(pTag)) {
+				return pReader.copyValue();
+			} else if (pReader.isConstructed()) {
+				ret = getValue(pReader.getValueReader(), pTag);
+				if (ret != null) {
+					break;
 				}
 			}
 		}
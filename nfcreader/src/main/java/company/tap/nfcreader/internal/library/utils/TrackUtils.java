@@ -15,16 +15,10 @@
  */
 package company.tap.nfcreader.internal.library.utils;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Date;
 
 import company.tap.nfcreader.internal.library.iso7816emv.EmvTags;
-import company.tap.nfcreader.internal.library.log.Logger;
-import company.tap.nfcreader.internal.library.log.LoggerFactory;
 import company.tap.nfcreader.open.reader.TapEmvCard;
 import company.tap.nfcreader.internal.library.model.Service;
 
@@ -38,14 +32,41 @@ import company.tap.nfcreader.internal.library.model.Service;
 public final class TrackUtils {
 
 	/**
-	 * Class logger
+	 * Result of {@link #decodeTrack2(byte[])} when no track 2 is found
 	 */
-	private static final Logger LOGGER = LoggerFactory.getLogger(TrackUtils.class);
+	public static final long NO_TRACK2 = -1L;
 
 	/**
-	 * Track 2 pattern
+	 * Service code of a decoded track 2 without service code
 	 */
-	private static final Pattern TRACK2_PATTERN = Pattern.compile("([0-9]{1,19})D([0-9]{4})([0-9]{3})?(.*)");
+	public static final int NO_SERVICE = -1;
+
+	/**
+	 * Maximum number of digits of the card number
+	 */
+	private static final int MAX_PAN_DIGITS = 19;
+
+	/**
+	 * Track 2 field separator
+	 */
+	private static final int SEPARATOR = 0xD;
+
+	/**
+	 * Number of years before today of the first year of a 2 digits year (as {@link java.text.SimpleDateFormat})
+	 */
+	private static final int CENTURY_START_YEARS = 80;
+
+	/**
+	 * Bit shifts and masks of a decoded track 2
+	 */
+	private static final int SERVICE_SHIFT = 0;
+	private static final int SERVICE_MASK = 0x3FF;
+	private static final int EXPIRY_SHIFT = 10;
+	private static final int EXPIRY_MASK = 0x3FFF;
+	private static final int PAN_LENGTH_SHIFT = 24;
+	private static final int PAN_LENGTH_MASK = 0x1F;
+	private static final int PAN_START_SHIFT = 29;
+	private static final int PAN_START_MASK = 0xFFFF;
 
 	/**
 	 * Extract track 2 data
@@ -57,32 +78,180 @@ public final class TrackUtils {
 	 * @return true if the extraction succeed false otherwise
 	 */
 	public static boolean extractTrack2Data(final TapEmvCard pEmvCard, final byte[] pData) {
+		return extractTrack2Data(pEmvCard, new TlvIndex(pData));
+	}
+
+	/**
+	 * Extract track 2 data
+	 * 
+	 * @param pEmvCard
+	 *            Object card representation
+	 * @param pData
+	 *            indexed response to parse
+	 * @return true if the extraction succeed false otherwise
+	 */
+	public static boolean extractTrack2Data(final TapEmvCard pEmvCard, final TlvIndex pData) {
 		boolean ret = false;
-		byte[] track2 = TlvUtil.getValue(pData, EmvTags.TRACK_2_EQV_DATA, EmvTags.TRACK2_DATA);
+		byte[] track2 = pData.getValue(EmvTags.TRACK_2_EQV_DATA, EmvTags.TRACK2_DATA);
 
 		if (track2 != null) {
-			String data = BytesUtils.bytesToStringNoSpace(track2);
-			Matcher m = TRACK2_PATTERN.matcher(data);
-			// Check pattern
-			if (m.find()) {
+			long decoded = decodeTrack2(track2);
+			if (decoded != NO_TRACK2) {
 				// read card number
-				pEmvCard.setCardNumber(m.group(1));
+				pEmvCard.setCardNumber(getCardNumber(track2, decoded));
 				// Read expire date
-				SimpleDateFormat sdf = new SimpleDateFormat("yyMM", Locale.getDefault());
-				try {
-					pEmvCard.setExpireDate(CommonsUtils.truncate(sdf.parse(m.group(2)), Calendar.MONTH));
-				} catch (ParseException e) {
-					LOGGER.error("Unparsable expire card date : {}", e);
-					return ret;
-				}
+				pEmvCard.setExpireDate(getExpireDate(decoded));
 				// Read service
-				pEmvCard.setService(new Service(m.group(3)));
+				pEmvCard.setService(new Service(getServiceCode(decoded)));
 				ret = true;
 			}
 		}
 		return ret;
 	}
 
+	/**
+	 * Method used to decode a track 2 (card number, separator 'D', expiry date YYMM, optional service code) from the BCD
+	 * bytes without allocation. The first separator preceded by 1 to 19 digits and followed by 4 digits is used.
+	 * 
+	 * @param pData
+	 *            track 2 bytes
+	 * @return the position and length of the card number (in nibbles), the expiry date and the service code packed in
+	 *         a long, to read with {@link #getCardNumber(byte[], long)}, {@link #getExpiry(long)} and
+	 *         {@link #getServiceCode(long)}, or {@link #NO_TRACK2}
+	 */
+	public static long decodeTrack2(final byte[] pData) {
+		int nibbles = Math.min(pData.length * 2, PAN_START_MASK);
+		int digits = 0;
+		for (int i = 0; i < nibbles; i++) {
+			int nibble = getNibble(pData, i);
+			if (nibble <= 9) {
+				digits++;
+				continue;
+			}
+			if (nibble == SEPARATOR && digits > 0) {
+				int expiry = getDigits(pData, i + 1, 4, nibbles);
+				if (expiry >= 0) {
+					int service = getDigits(pData, i + 5, 3, nibbles);
+					int panLength = Math.min(digits, MAX_PAN_DIGITS);
+					return (long) (i - panLength) << PAN_START_SHIFT | (long) panLength << PAN_LENGTH_SHIFT
+							| (long) expiry << EXPIRY_SHIFT | (service >= 0 ? service : SERVICE_MASK) << SERVICE_SHIFT;
+				}
+			}
+			digits = 0;
+		}
+		return NO_TRACK2;
+	}
+
+	/**
+	 * Method used to get the card number of a decoded track 2
+	 * 
+	 * @param pData
+	 *            track 2 bytes
+	 * @param pDecoded
+	 *            decoded track 2
+	 * @return the card number
+	 */
+	public static String getCardNumber(final byte[] pData, final long pDecoded) {
+		int start = (int) (pDecoded >>> PAN_START_SHIFT & PAN_START_MASK);
+		char[] ret = new char[(int) (pDecoded >>> PAN_LENGTH_SHIFT & PAN_LENGTH_MASK)];
+		for (int i = 0; i < ret.length; i++) {
+			ret[i] = (char) ('0' + getNibble(pData, start + i));
+		}
+		return new String(ret);
+	}
+
+	/**
+	 * Method used to get the expiry date of a decoded track 2
+	 * 
+	 * @param pDecoded
+	 *            decoded track 2
+	 * @return the expiry date YYMM as a number
+	 */
+	public static int getExpiry(final long pDecoded) {
+		return (int) (pDecoded >>> EXPIRY_SHIFT & EXPIRY_MASK);
+	}
+
+	/**
+	 * Method used to get the service code of a decoded track 2
+	 * 
+	 * @param pDecoded
+	 *            decoded track 2
+	 * @return the service code or {@link #NO_SERVICE}
+	 */
+	public static int getServiceCode(final long pDecoded) {
+		int ret = (int) (pDecoded >>> SERVICE_SHIFT & SERVICE_MASK);
+		return ret != SERVICE_MASK ? ret : NO_SERVICE;
+	}
+
+	/**
+	 * Method used to get the expiry date of a decoded track 2: first day of the month, the 2 digits year being in the
+	 * 100 years starting 80 years ago
+	 * 
+	 * @param pDecoded
+	 *            decoded track 2
+	 * @return the expiry date
+	 */
+	public static Date getExpireDate(final long pDecoded) {
+		int expiry = getExpiry(pDecoded);
+		Calendar cal = Calendar.getInstance();
+		cal.add(Calendar.YEAR, -CENTURY_START_YEARS);
+		long centuryStart = cal.getTimeInMillis();
+		int startYear = cal.get(Calendar.YEAR);
+		int year = expiry / 100;
+		// same century as a date parser: chosen on the 2 digits year, then checked on the date for the first year
+		boolean ambiguous = year == startYear % 100;
+		year += startYear / 100 * 100 + (year < startYear % 100 ? 100 : 0);
+		cal.clear();
+		// lenient calendar: month 00 and 13 to 99 are rolled as by a date parser
+		cal.set(year, expiry % 100 - 1, 1);
+		if (ambiguous && cal.getTimeInMillis() < centuryStart) {
+			cal.add(Calendar.YEAR, 100);
+		}
+		return cal.getTime();
+	}
+
+	/**
+	 * Method used to get a nibble
+	 * 
+	 * @param pData
+	 *            bytes
+	 * @param pIndex
+	 *            nibble index (high nibble first)
+	 * @return the nibble value
+	 */
+	private static int getNibble(final byte[] pData, final int pIndex) {
+		int b = pData[pIndex >> 1];
+		return (pIndex & 1) == 0 ? b >> 4 & 0xF : b & 0xF;
+	}
+
+	/**
+	 * Method used to read decimal digits
+	 * 
+	 * @param pData
+	 *            bytes
+	 * @param pIndex
+	 *            first nibble index
+	 * @param pCount
+	 *            number of digits
+	 * @param pNibbles
+	 *            number of nibbles
+	 * @return the value or -1 if the nibbles are not all digits
+	 */
+	private static int getDigits(final byte[] pData, final int pIndex, final int pCount, final int pNibbles) {
+		if (pIndex + pCount > pNibbles) {
+			return -1;
+		}
+		int ret = 0;
+		for (int i = pIndex; i < pIndex + pCount; i++) {
+			int nibble = getNibble(pData, i);
+			if (nibble > 9) {
+				return -1;
+			}
+			ret = ret * 10 + nibble;
+		}
+		return ret;
+	}
+
 	/**
 	 * Private constructor
 	 */
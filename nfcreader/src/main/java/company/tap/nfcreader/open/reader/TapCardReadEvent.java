@@ -0,0 +1,144 @@
+package company.tap.nfcreader.open.reader;
+
+import java.util.Date;
+
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.model.EmvTransactionRecord;
+
+/**
+ * Event emitted by {@link TapNfcCardReader#readCardEvents(android.content.Intent)} as soon as a read stage completes.
+ * <p>Only the fields of the event type are set</p>
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class TapCardReadEvent {
+
+    /**
+     * Event types, in the order they are usually emitted
+     */
+    public enum Type {
+        /**
+         * An application is selected: {@link #getAid()} and {@link #getApplicationLabel()}
+         */
+        APPLICATION_SELECTED,
+        /**
+         * Card number found: {@link #getCardNumber()}, {@link #getExpireDate()} and {@link #getScheme()}
+         */
+        CARD_NUMBER,
+        /**
+         * Card holder name found: {@link #getHolderFirstname()} and {@link #getHolderLastname()}
+         */
+        HOLDER_NAME,
+        /**
+         * Transaction record decoded: {@link #getTransactionRecord()}
+         */
+        TRANSACTION_RECORD,
+        /**
+         * Read ended, last event: {@link #getCard()}
+         */
+        CARD_READ
+    }
+
+    private final Type type;
+    private String aid;
+    private String applicationLabel;
+    private String cardNumber;
+    private Date expireDate;
+    private EmvCardScheme scheme;
+    private String holderFirstname;
+    private String holderLastname;
+    private EmvTransactionRecord transactionRecord;
+    private TapEmvCard card;
+
+    private TapCardReadEvent(Type type) {
+        this.type = type;
+    }
+
+    static TapCardReadEvent applicationSelected(String aid, String applicationLabel) {
+        TapCardReadEvent event = new TapCardReadEvent(Type.APPLICATION_SELECTED);
+        event.aid = aid;
+        event.applicationLabel = applicationLabel;
+        return event;
+    }
+
+    static TapCardReadEvent cardNumber(String cardNumber, Date expireDate, EmvCardScheme scheme) {
+        TapCardReadEvent event = new TapCardReadEvent(Type.CARD_NUMBER);
+        event.cardNumber = cardNumber;
+        event.expireDate = expireDate;
+        event.scheme = scheme;
+        return event;
+    }
+
+    static TapCardReadEvent holderName(String holderFirstname, String holderLastname) {
+        TapCardReadEvent event = new TapCardReadEvent(Type.HOLDER_NAME);
+        event.holderFirstname = holderFirstname;
+        event.holderLastname = holderLastname;
+        return event;
+    }
+
+    static TapCardReadEvent transactionRecord(EmvTransactionRecord transactionRecord) {
+        TapCardReadEvent event = new TapCardReadEvent(Type.TRANSACTION_RECORD);
+        event.transactionRecord = transactionRecord;
+        return event;
+    }
+
+    static TapCardReadEvent cardRead(TapEmvCard card) {
+        TapCardReadEvent event = new TapCardReadEvent(Type.CARD_READ);
+        event.card = card;
+        return event;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getAid() {
+        return aid;
+    }
+
+    public String getApplicationLabel() {
+        return applicationLabel;
+    }
+
+    public String getCardNumber() {
+        return cardNumber;
+    }
+
+    public Date getExpireDate() {
+        return expireDate;
+    }
+
+    /**
+     * @return scheme of the selected application, the real scheme of co-branded cards is known
+     * with {@link Type#CARD_READ}
+     */
+    public EmvCardScheme getScheme() {
+        return scheme;
+    }
+
+    public String getHolderFirstname() {
+        return holderFirstname;
+    }
+
+    public String getHolderLastname() {
+        return holderLastname;
+    }
+
+    public EmvTransactionRecord getTransactionRecord() {
+        return transactionRecord;
+    }
+
+    public TapEmvCard getCard() {
+        return card;
+    }
+
+    @Override
+    public String toString() {
+        return "TapCardReadEvent{" +
+                "type=" + type +
+                ", aid='" + aid + '\'' +
+                ", applicationLabel='" + applicationLabel + '\'' +
+                ", scheme=" + scheme +
+                ", transactionRecord=" + transactionRecord +
+                '}';
+    }
+}
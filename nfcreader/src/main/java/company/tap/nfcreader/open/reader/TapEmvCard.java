@@ -17,11 +17,15 @@ package company.tap.nfcreader.open.reader;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.enums.ReadStageEnum;
 import company.tap.nfcreader.internal.library.model.AbstractData;
+import company.tap.nfcreader.internal.library.model.BinInfo;
 import company.tap.nfcreader.internal.library.model.EmvTransactionRecord;
 import company.tap.nfcreader.internal.library.model.Service;
 
@@ -95,6 +99,16 @@ public class TapEmvCard extends AbstractData {
 	 */
 	private boolean nfcLocked;
 
+	/**
+	 * Optional stages skipped because of the read time budget
+	 */
+	private Set<ReadStageEnum> skippedStages = Collections.emptySet();
+
+	/**
+	 * Issuer data of the card number range
+	 */
+	private BinInfo binInfo;
+
 	/**
 	 * Method used to get the field aid
 	 *
@@ -328,6 +342,44 @@ public class TapEmvCard extends AbstractData {
 		this.nfcLocked = nfcLocked;
 	}
 
+	/**
+	 * Method used to get the field skippedStages
+	 *
+	 * @return the skippedStages (empty if the card was read without time budget or entirely)
+	 */
+	public Set<ReadStageEnum> getSkippedStages() {
+		return skippedStages;
+	}
+
+	/**
+	 * Setter for the field skippedStages
+	 *
+	 * @param skippedStages
+	 *            the skippedStages to set
+	 */
+	public void setSkippedStages(final Set<ReadStageEnum> skippedStages) {
+		this.skippedStages = skippedStages;
+	}
+
+	/**
+	 * Method used to get the field binInfo
+	 *
+	 * @return the binInfo (null without BIN database or if the card number is not in the database)
+	 */
+	public BinInfo getBinInfo() {
+		return binInfo;
+	}
+
+	/**
+	 * Setter for the field binInfo
+	 *
+	 * @param binInfo
+	 *            the binInfo to set
+	 */
+	public void setBinInfo(final BinInfo binInfo) {
+		this.binInfo = binInfo;
+	}
+
 	@Override public String toString() {
 		return "EmvCard{" +
 				"aid='" + aid + '\'' +
@@ -342,6 +394,8 @@ public class TapEmvCard extends AbstractData {
 				", atrDescription=" + atrDescription +
 				", service=" + service +
 				", nfcLocked=" + nfcLocked +
+				", skippedStages=" + skippedStages +
+				", binInfo=" + binInfo +
 				'}';
 	}
 }
@@ -1,30 +1,54 @@
 package company.tap.nfcreader.open.reader;
 
-import android.annotation.SuppressLint;
 import android.app.Activity;
 import android.content.Intent;
 import android.nfc.NfcAdapter;
 import android.nfc.Tag;
 import android.nfc.tech.IsoDep;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import company.tap.nfcreader.internal.AnalyticsHelper;
-import company.tap.nfcreader.internal.SimpleAsyncTask;
+import company.tap.nfcreader.internal.library.bin.BinDatabase;
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.enums.ReadPhaseEnum;
 import company.tap.nfcreader.internal.library.log.Logger;
 import company.tap.nfcreader.internal.library.log.LoggerFactory;
+import company.tap.nfcreader.internal.library.metrics.ReaderMetrics;
+import company.tap.nfcreader.internal.library.parser.AidStatistics;
+import company.tap.nfcreader.internal.library.model.EmvTransactionRecord;
 import company.tap.nfcreader.internal.library.parser.EmvParser;
+import company.tap.nfcreader.internal.library.parser.IReadListener;
+import company.tap.nfcreader.internal.library.parser.ReadBudget;
+import company.tap.nfcreader.internal.library.parser.ReadTimings;
+import company.tap.nfcreader.internal.library.provider.ApduRingBuffer;
+import company.tap.nfcreader.internal.library.provider.ITraceSink;
 import company.tap.nfcreader.internal.library.utils.AtrUtils;
 import company.tap.nfcreader.internal.library.utils.BytesUtils;
 import company.tap.nfcreader.open.utils.TapNfcUtils;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.ObservableEmitter;
+import io.reactivex.rxjava3.core.ObservableOnSubscribe;
 import io.reactivex.rxjava3.core.Scheduler;
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.core.SingleEmitter;
+import io.reactivex.rxjava3.core.SingleOnSubscribe;
+import io.reactivex.rxjava3.functions.Cancellable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 
 import static company.tap.nfcreader.internal.AnalyticsHelper.EVENT_INTENT;
@@ -34,10 +58,46 @@ import org.apache.commons.lang3.StringUtils;
 
 @SuppressWarnings({"WeakerAccess", "unused"})
 public class TapNfcCardReader {
+    /**
+     * File (in the application files directory) used to save the AID selection counters
+     */
+    private static final String AID_STATISTICS_FILE = "tap_nfc_aid_statistics.properties";
+    /**
+     * Thread running the NFC sessions (set by the thread factory)
+     */
+    private static volatile Thread nfcThread;
+    /**
+     * Dedicated NFC I/O executor: one session at a time, not queued behind unrelated application work
+     */
+    private static final ExecutorService NFC_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "TapNfcIO");
+            thread.setDaemon(true);
+            nfcThread = thread;
+            return thread;
+        }
+    });
     private TapNfcUtils tapNfcUtils;
     private TapNfcProvider provider;
     private Logger logger;
-    private TapEmvCard mReadCard;
+    private byte[] lastAts;
+    /**
+     * Time budget of a read in milliseconds (0 for no budget)
+     */
+    private volatile long timeBudget;
+    /**
+     * Card data read
+     */
+    private volatile TapReadProfile readProfile = TapReadProfile.FULL;
+    /**
+     * Listener of the session timings (or null)
+     */
+    private volatile TapReadTimingListener timingListener;
+    /**
+     * Issuer data by card number range (or null)
+     */
+    private volatile BinDatabase binDatabase;
     public TapNfcCardReader(Activity activity) {
         tapNfcUtils = new TapNfcUtils(activity);
         provider = new TapNfcProvider();
@@ -47,6 +107,133 @@ public class TapNfcCardReader {
         Map<String, String> parameters = new HashMap<String, String>();
         parameters.put("sdkVersion", "1.0");
         AnalyticsHelper.logEvent(AnalyticsHelper.APP_DETAILS, parameters, true);
+        // Load the AID selection counters of the previous sessions
+        final File statistics = new File(activity.getFilesDir(), AID_STATISTICS_FILE);
+        Schedulers.io().scheduleDirect(new Runnable() {
+            @Override
+            public void run() {
+                AidStatistics.load(statistics);
+            }
+        });
+    }
+
+    /**
+     * Set the prior of a card scheme used to order the AID selected when the card
+     * does not answer to PPSE (for example the market share of the scheme in the region).
+     * The prior is added to the number of cards of the scheme already read.
+     *
+     * @param scheme card scheme
+     * @param prior  prior of the scheme
+     */
+    public void setSchemePrior(EmvCardScheme scheme, int prior) {
+        AidStatistics.setPrior(scheme, prior);
+    }
+
+    /**
+     * Set the time budget of each read, customers usually pull the card away after 300-500ms.
+     * <p>The card number is always read, optional stages (card holder name, PIN try counter,
+     * transaction log) are skipped when they cannot be completed at the measured speed of the card.
+     * Skipped stages are reported by {@link TapEmvCard#getSkippedStages()}.</p>
+     *
+     * @param millis time budget in milliseconds, counted from the start of the NFC session (0 for no budget)
+     */
+    public void setTimeBudget(long millis) {
+        timeBudget = millis;
+    }
+
+    /**
+     * Set the card data read by each session, for example {@link TapReadProfile#PAYMENT}
+     * to read only the card number, expire date and scheme with the fewest commands.
+     * <p>Default profile is {@link TapReadProfile#FULL}</p>
+     *
+     * @param profile read profile
+     */
+    public void setReadProfile(TapReadProfile profile) {
+        readProfile = profile;
+    }
+
+    /**
+     * Receive the timing breakdown of every session. No measure is done without listener.
+     *
+     * @param listener timing listener (null to remove it)
+     */
+    public void setTimingListener(TapReadTimingListener listener) {
+        timingListener = listener;
+    }
+
+    /**
+     * Add the brand, issuer, country and card type of the card number range to every card read
+     * ({@link TapEmvCard#getBinInfo()}).
+     * <p>The database can be updated without application release: save the new file with
+     * {@link BinDatabase#save(Collection, File)}, open it and set it again.</p>
+     *
+     * @param database BIN database (null to not look up the card number)
+     */
+    public void setBinDatabase(BinDatabase database) {
+        binDatabase = database;
+    }
+
+    /**
+     * Enable or disable the trace of the commands and responses in the Android log.
+     * <p>Raw bytes are kept during the session and formatted once the card is released.</p>
+     *
+     * @param debugMode true to log the trace
+     */
+    public void setDebugMode(boolean debugMode) {
+        provider.setDebugMode(debugMode);
+    }
+
+    /**
+     * Send the trace of the commands and responses to given sink.
+     * <p>Raw bytes are kept during the session and formatted once the card is released.</p>
+     *
+     * @param sink trace destination (null to disable the trace)
+     */
+    public void setTraceSink(ITraceSink sink) {
+        provider.setTraceSink(sink);
+    }
+
+    /**
+     * Export the aggregated metrics of all sessions as text: latency histograms by command
+     * and by card scheme, responses by status word and tap outcomes
+     *
+     * @return one line by metric
+     */
+    public static String dumpMetrics() {
+        return ReaderMetrics.dump();
+    }
+
+    /**
+     * Export the aggregated metrics of all sessions in a compact binary format
+     *
+     * @param out output stream (not closed)
+     * @throws IOException thrown if the stream cannot be written
+     */
+    public static void writeMetrics(OutputStream out) throws IOException {
+        ReaderMetrics.write(out);
+    }
+
+    /**
+     * Load the card description database (ATR list) in background
+     * <p>Operates on IO scheduler</p>
+     */
+    public void warmUp() {
+        warmUp(Schedulers.io());
+    }
+
+    /**
+     * Load the card description database (ATR list) in background, so the first tap
+     * does not pay its loading cost
+     *
+     * @param scheduler scheduler for loading
+     */
+    public void warmUp(final Scheduler scheduler) {
+        AtrUtils.warmUp(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                scheduler.scheduleDirect(command);
+            }
+        });
     }
 
     /**
@@ -100,133 +287,314 @@ public class TapNfcCardReader {
     /**
      * Read card data from given intent.
      * <p>Note that this method is blocking. You should not use it as is.
-     * Instead - wrap it into some async framework: RxJava, AsyncTask, etc</p>
+     * Instead - use {@link #readCardAsync(Intent)} or the Rx variants</p>
      * <p>
      * <p>Intent by itself does not contain all data. It contains metadata of NFC card.
      * To read card data, library will open NFC connection and transfer some bytes.</p>
      * <p>
      * <p>You should check that this intent contain right data with {@link #isSuitableIntent(Intent)}
      * before calling this method</p>
+     * <p>The card is read on the NFC I/O thread, this method returns when the session ends</p>
      *
      * @param intent intent with initial card information.
-     * @return Ready for use card data
+     * @return Ready for use card data, null if no card number was read
      * @throws IOException          may be thrown during NFC data transfer
      * @throws WrongIntentException thrown if intent does not contain {@link NfcAdapter#EXTRA_TAG}
      * @throws WrongTagTech         thrown when this NFC tech is not supported:
      *                              not enumerated in {@link Tag#getTechList}.
      */
-    private byte[] lastAts;
-    @SuppressLint("StaticFieldLeak")
     public TapEmvCard readCardBlocking(Intent intent)
             throws Throwable {
+        ReadSession session = newSession(intent, null);
+        if (Thread.currentThread() == nfcThread) {
+            // already on the NFC I/O thread: waiting for the executor would dead lock
+            return session.call();
+        }
+        try {
+            return NFC_EXECUTOR.submit(session).get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Read card data from given intent on the NFC I/O thread.
+     * <p>The returned future completes when the NFC session ends</p>
+     *
+     * @param intent intent with initial card information.
+     * @return future card data (null if no card number was read)
+     * @throws WrongIntentException thrown if intent does not contain {@link NfcAdapter#EXTRA_TAG}
+     */
+    public Future<TapEmvCard> readCardAsync(Intent intent) throws WrongIntentException {
+        return NFC_EXECUTOR.submit(newSession(intent, null));
+    }
+
+    /**
+     * Create the NFC session reading the card of given intent
+     *
+     * @param intent   intent with initial card information.
+     * @param listener listener notified as soon as each read stage completes (or null)
+     * @return the session, to run on the NFC I/O thread
+     * @throws WrongIntentException thrown if intent does not contain {@link NfcAdapter#EXTRA_TAG}
+     */
+    private ReadSession newSession(Intent intent, IReadListener listener)
+            throws WrongIntentException {
         final Tag tag = intent.getParcelableExtra(NfcAdapter.EXTRA_TAG);
         if (tag == null) {
             throw new WrongIntentException("No TAG in intent");
         }
+        return new ReadSession(tag, listener);
+    }
 
-       /* IsoDep tagComm = IsoDep.get(tag);
-        if (tagComm == null) {
-            throw new WrongTagTech();
-        }*/
-        new SimpleAsyncTask() {
-            private TapEmvCard mCard = null;
-            /**
-             * Tag comm
-             */
-            private IsoDep mTagcomm;
-
-            /**
-             * Emv Card
-             */
-
-
-
+    /**
+     * NFC session reading a card. The work done after the card is released (trace, statistics,
+     * timings) is kept by the session and run on the IO scheduler once the result is delivered.
+     */
+    private final class ReadSession implements Callable<TapEmvCard> {
+
+        /**
+         * NFC tag
+         */
+        private final Tag tag;
+
+        /**
+         * Listener of the read stages (or null)
+         */
+        private final IReadListener listener;
+
+        /**
+         * Work to run after the session (or null)
+         */
+        private Runnable followUp;
+
+        ReadSession(Tag tag, IReadListener listener) {
+            this.tag = tag;
+            this.listener = listener;
+        }
 
-            /**
-             * Boolean to indicate exception
-             */
-            private boolean mException;
+        /**
+         * Read the card, the follow-up work is kept until {@link #postFollowUp()}
+         *
+         * @return card data, null if no card number was read
+         * @throws IOException  may be thrown during NFC data transfer
+         * @throws WrongTagTech thrown when this NFC tech is not supported
+         */
+        TapEmvCard read() throws IOException, WrongTagTech {
+            return readTag(tag, listener, this);
+        }
 
-            @Override
-            protected void onPreExecute() {
-                super.onPreExecute();
+        /**
+         * Post the follow-up work of the session on the IO scheduler
+         */
+        void postFollowUp() {
+            Runnable work = followUp;
+            followUp = null;
+            if (work != null) {
+                Schedulers.io().scheduleDirect(work);
+            }
+        }
 
-               // provider.getLog().setLength(0);
-                // Toast.makeText(HomeActivity.this, "Reading card", Toast.LENGTH_LONG).show();
+        /**
+         * Read the card and post the follow-up work, used when the result is delivered by the return value
+         */
+        @Override
+        public TapEmvCard call() throws Exception {
+            try {
+                return read();
+            } finally {
+                postFollowUp();
             }
+        }
+    }
 
-            @Override
-            protected void doInBackground() {
+    /**
+     * Read card data from given tag. Must be called on the NFC I/O thread.
+     *
+     * @param tag      NFC tag
+     * @param listener listener notified as soon as each read stage completes (or null)
+     * @param session  session keeping the work to run once the result is delivered
+     * @return card data, null if no card number was read
+     * @throws IOException  may be thrown during NFC data transfer
+     * @throws WrongTagTech thrown when this NFC tech is not supported
+     */
+    private TapEmvCard readTag(Tag tag, IReadListener listener, ReadSession session)
+            throws IOException, WrongTagTech {
+        IsoDep tagComm = IsoDep.get(tag);
+        if (tagComm == null) {
+            throw new WrongTagTech();
+        }
+        // the budget includes the connection
+        ReadBudget budget = timeBudget > 0 ? new ReadBudget(timeBudget) : null;
+        final TapReadTimingListener timingListener = this.timingListener;
+        final ReadTimings timings = timingListener != null ? new ReadTimings() : null;
+        ReaderMetrics.Outcome outcome = ReaderMetrics.Outcome.ERROR;
+        try {
+            if (timings != null) {
+                timings.start(ReadPhaseEnum.CONNECT);
+            }
+            // Open connection
+            tagComm.connect();
+            lastAts = getAts(tagComm);
+            provider.setmTagCom(tagComm);
 
-                mTagcomm = IsoDep.get(tag);
-                if (mTagcomm == null) {
-                    //  Toast.makeText(HomeActivity.this, "Read error", Toast.LENGTH_LONG).show();
-                    return;
-                }
-                mException = false;
-
-                try {
-                  mReadCard  = null;
-                    // Open connection
-                    mTagcomm.connect();
-                    lastAts = getAts(mTagcomm);
-
-                    provider.setmTagCom(mTagcomm);
-
-                    EmvParser parser = new EmvParser(provider, true);
-                    mCard = parser.readEmvCard();
-                    if (mCard != null) {
-                      //  if(extractAtsDescription2(lastAts)!=null) mCard.setAtrDescription(extractAtsDescription2(lastAts));
-                      //  else mCard.setAtrDescription(null);
-                        mCard.setAtrDescription(null);
+            EmvParser parser = new EmvParser(provider, true);
+            parser.setReadListener(listener);
+            parser.setReadStages(readProfile.getStages());
+            if (budget != null) {
+                parser.setReadBudget(budget);
+            }
+            if (timings != null) {
+                parser.setReadTimings(timings);
+            }
+            TapEmvCard card = parser.readEmvCard();
+            if (timings != null) {
+                timings.start(ReadPhaseEnum.POST_PROCESSING);
+            }
+            if (card == null || StringUtils.isBlank(card.getCardNumber())) {
+                outcome = ReaderMetrics.Outcome.NO_CARD_DATA;
+                return null;
+            }
+            outcome = ReaderMetrics.Outcome.SUCCESS;
+            card.setAtrDescription(null);
+            if (budget != null) {
+                card.setSkippedStages(budget.getSkippedStages());
+            }
+            BinDatabase bins = binDatabase;
+            if (bins != null) {
+                card.setBinInfo(bins.lookup(card.getCardNumber()));
+            }
+            return card;
+        } finally {
+            // close tagComm
+            IOUtils.closeQuietly(tagComm);
+            ReaderMetrics.recordOutcome(outcome);
+            if (timings != null) {
+                timings.stop();
+            }
+            // the trace, the statistics and the timings are handled after the result is delivered
+            final ApduRingBuffer trace = provider.detachTrace();
+            session.followUp = new Runnable() {
+                @Override
+                public void run() {
+                    if (trace != null) {
+                        provider.dumpTrace(trace);
+                    }
+                    AidStatistics.requestSave();
+                    if (timings != null) {
+                        try {
+                            timingListener.onReadTimings(timings);
+                        } catch (RuntimeException e) {
+                            // the listener must not stop the other follow-up work
+                            logger.error("Timing listener failed: " + e.getMessage());
+                        }
                     }
-
-                } catch (IOException e) {
-                    mException = true;
-                } finally {
-                    // close tagcomm
-                    IOUtils.closeQuietly(mTagcomm);
                 }
-            }
+            };
+        }
+    }
 
+    /**
+     * Create a single reading the card on the NFC I/O thread, the result is emitted when the session ends
+     *
+     * @param intent intent with initial card information.
+     */
+    private Single<TapEmvCard> readCardSingle(final Intent intent) {
+        return Single.create(new SingleOnSubscribe<TapEmvCard>() {
             @Override
-            protected void onPostExecute(final Object result) {
-
-                if (!mException) {
-                    if (mCard != null) {
-                        if (StringUtils.isNotBlank(mCard.getCardNumber())) {
-
-                            mReadCard = mCard;
+            public void subscribe(final SingleEmitter<TapEmvCard> emitter) throws Throwable {
+                final ReadSession session = newSession(intent, null);
+                final Future<?> future = NFC_EXECUTOR.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (emitter.isDisposed()) {
+                            return;
+                        }
+                        try {
+                            TapEmvCard card = session.read();
+                            if (card != null) {
+                                emitter.onSuccess(card);
+                            } else {
+                                emitter.tryOnError(new IOException("No card number read"));
+                            }
+                        } catch (Throwable e) {
+                            emitter.tryOnError(e);
+                        } finally {
+                            session.postFollowUp();
                         }
                     }
-                }
-
+                });
+                emitter.setCancellable(new Cancellable() {
+                    @Override
+                    public void cancel() {
+                        // a started session is not interrupted: the tag must be closed by the session
+                        future.cancel(false);
+                    }
+                });
             }
+        });
+    }
 
-        }.execute();
-
-       /* try {
-            tagComm.connect();
-            lastAts = getAts(tagComm);
-            provider.setmTagCom(tagComm);
+    /**
+     * Create an observable reading the card on the NFC I/O thread and emitting the card data
+     * as soon as each read stage completes. The last event is {@link TapCardReadEvent.Type#CARD_READ}.
+     *
+     * @param intent intent with initial card information.
+     */
+    private Observable<TapCardReadEvent> readCardObservable(final Intent intent) {
+        return Observable.create(new ObservableOnSubscribe<TapCardReadEvent>() {
+            @Override
+            public void subscribe(final ObservableEmitter<TapCardReadEvent> emitter) throws Throwable {
+                final ReadSession session = newSession(intent, new IReadListener() {
+                    @Override
+                    public void onApplicationSelected(String pAid, String pApplicationLabel) {
+                        emitter.onNext(TapCardReadEvent.applicationSelected(pAid, pApplicationLabel));
+                    }
 
-            EmvParser parser = new EmvParser(provider, true);
-         final    TapEmvCard emvCard  = parser.readEmvCard();
+                    @Override
+                    public void onCardNumber(String pCardNumber, Date pExpireDate, EmvCardScheme pScheme) {
+                        emitter.onNext(TapCardReadEvent.cardNumber(pCardNumber, pExpireDate, pScheme));
+                    }
 
-            if (emvCard != null) {
-                emvCard.setAtrDescription(extractAtsDescription2(lastAts));
+                    @Override
+                    public void onHolderName(String pFirstname, String pLastname) {
+                        emitter.onNext(TapCardReadEvent.holderName(pFirstname, pLastname));
+                    }
 
+                    @Override
+                    public void onTransactionRecord(EmvTransactionRecord pRecord) {
+                        emitter.onNext(TapCardReadEvent.transactionRecord(pRecord));
+                    }
+                });
+                final Future<?> future = NFC_EXECUTOR.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (emitter.isDisposed()) {
+                            return;
+                        }
+                        try {
+                            TapEmvCard card = session.read();
+                            if (card != null) {
+                                emitter.onNext(TapCardReadEvent.cardRead(card));
+                                emitter.onComplete();
+                            } else {
+                                emitter.tryOnError(new IOException("No card number read"));
+                            }
+                        } catch (Throwable e) {
+                            emitter.tryOnError(e);
+                        } finally {
+                            session.postFollowUp();
+                        }
+                    }
+                });
+                emitter.setCancellable(new Cancellable() {
+                    @Override
+                    public void cancel() {
+                        // a started session is not interrupted: the tag must be closed by the session
+                        future.cancel(false);
+                    }
+                });
             }
-            return emvCard;
-        } catch (IOException e) {
-            throw Objects.requireNonNull(e.getCause());
-        } finally {
-            IOUtils.closeQuietly(tagComm);
-
-            //tagComm.close();
-        }*/
-        System.out.println("mReadCard"+mReadCard.getCardNumber());
-        return mReadCard;
+        });
     }
 
     public ArrayList<String> extractAtsDescription2(final byte[] pAts) {
@@ -269,12 +637,12 @@ public class TapNfcCardReader {
      * To read card data, library will open NFC connection and transfer some bytes.</p>
      * <p>You should check that this intent contain right data with {@link #isSuitableIntent(Intent)}
      * before calling this method</p>
-     * <p>Operates on IO scheduler</p>
+     * <p>Operates on NFC I/O thread</p>
      *
      * @param intent intent with initial card information.
      */
     public Single<TapEmvCard> readCardRx1(final Intent intent) {
-        return readCardRx1(intent, Schedulers.io());
+        return readCardSingle(intent);
     }
 
     /**
@@ -283,24 +651,13 @@ public class TapNfcCardReader {
      * To read card data, library will open NFC connection and transfer some bytes.</p>
      * <p>You should check that this intent contain right data with {@link #isSuitableIntent(Intent)}
      * before calling this method</p>
-     * <p>Operates on given scheduler</p>
+     * <p>Subscribes on given scheduler, the card is always read on the NFC I/O thread</p>
      *
      * @param intent    intent with initial card information.
-     * @param scheduler scheduler for operating
+     * @param scheduler scheduler for subscribing
      */
     public Single<TapEmvCard> readCardRx1(final Intent intent, Scheduler scheduler) {
-        return Single
-                .fromCallable(new Callable<TapEmvCard>() {
-                    @Override
-                    public TapEmvCard call() throws Exception {
-                        try {
-                            return readCardBlocking(intent);
-                        } catch (Throwable e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                })
-                .subscribeOn(scheduler);
+        return readCardSingle(intent).subscribeOn(scheduler);
     }
 
     /**
@@ -309,12 +666,12 @@ public class TapNfcCardReader {
      * To read card data, library will open NFC connection and transfer some bytes.</p>
      * <p>You should check that this intent contain right data with {@link #isSuitableIntent(Intent)}
      * before calling this method</p>
-     * <p>Operates on IO scheduler</p>
+     * <p>Operates on NFC I/O thread</p>
      *
      * @param intent intent with initial card information.
      */
     public Single<TapEmvCard> readCardRx2(final Intent intent) {
-        return readCardRx2(intent, Schedulers.io());
+        return readCardSingle(intent);
     }
 
 
@@ -325,24 +682,40 @@ public class TapNfcCardReader {
      * To read card data, library will open NFC connection and transfer some bytes.</p>
      * <p>You should check that this intent contain right data with {@link #isSuitableIntent(Intent)}
      * before calling this method</p>
-     * <p>Operates on given scheduler</p>
+     * <p>Subscribes on given scheduler, the card is always read on the NFC I/O thread</p>
      *
      * @param intent    intent with initial card information.
-     * @param scheduler scheduler for operating
+     * @param scheduler scheduler for subscribing
      */
     public Single<TapEmvCard> readCardRx2(final Intent intent, Scheduler scheduler) {
-        return Single.
-                fromCallable(new Callable<TapEmvCard>() {
-                    @Override
-                    public TapEmvCard call() throws Exception {
-                        try {
-                            return readCardBlocking(intent);
-                        } catch (Throwable e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                })
-                .subscribeOn(scheduler);
+        return readCardSingle(intent).subscribeOn(scheduler);
+    }
+
+    /**
+     * Read card data from given intent, emitting the card data as soon as each read stage completes.
+     * <p>Application selection, card number, card holder name and each transaction record are
+     * emitted before the remaining commands are sent, the last event contains the whole card.</p>
+     * <p>You should check that this intent contain right data with {@link #isSuitableIntent(Intent)}
+     * before calling this method</p>
+     * <p>Operates on NFC I/O thread</p>
+     *
+     * @param intent intent with initial card information.
+     */
+    public Observable<TapCardReadEvent> readCardEvents(final Intent intent) {
+        return readCardObservable(intent);
+    }
+
+    /**
+     * Read card data from given intent, emitting the card data as soon as each read stage completes.
+     * <p>You should check that this intent contain right data with {@link #isSuitableIntent(Intent)}
+     * before calling this method</p>
+     * <p>Subscribes on given scheduler, the card is always read on the NFC I/O thread</p>
+     *
+     * @param intent    intent with initial card information.
+     * @param scheduler scheduler for subscribing
+     */
+    public Observable<TapCardReadEvent> readCardEvents(final Intent intent, Scheduler scheduler) {
+        return readCardObservable(intent).subscribeOn(scheduler);
     }
 
     public static class WrongIntentException extends Exception {
@@ -5,11 +5,11 @@ import android.util.Log;
 
 import java.io.IOException;
 
-import company.tap.nfcreader.internal.library.enums.SwEnum;
 import company.tap.nfcreader.internal.library.exception.CommunicationException;
+import company.tap.nfcreader.internal.library.metrics.ReaderMetrics;
 import company.tap.nfcreader.internal.library.parser.IProvider;
-import company.tap.nfcreader.internal.library.utils.BytesUtils;
-import company.tap.nfcreader.internal.library.utils.TlvUtil;
+import company.tap.nfcreader.internal.library.provider.ApduRingBuffer;
+import company.tap.nfcreader.internal.library.provider.ITraceSink;
 
 /**
  * Provider used to communicate with EMV card
@@ -21,38 +21,59 @@ class TapNfcProvider implements IProvider {
      */
     private static final String TAG = TapNfcProvider.class.getName();
 
+    /**
+     * Number of commands kept for the trace
+     */
+    private static final int TRACE_CAPACITY = 64;
+
+    /**
+     * Sink writing the trace in the Android log
+     */
+    private static final ITraceSink LOG_SINK = new ITraceSink() {
+        @Override
+        public void trace(String pLine) {
+            Log.d(TAG, pLine);
+        }
+    };
+
     /**
      * Tag comm
      */
     private IsoDep mTagCom;
 
-    private boolean debugMode = false;
+    /**
+     * Destination of the trace (null: nothing is captured)
+     */
+    private volatile ITraceSink traceSink;
+
+    /**
+     * Raw commands and responses of the session, formatted by {@link #dumpTrace(ApduRingBuffer)}.
+     * Only used by the NFC I/O thread.
+     */
+    private ApduRingBuffer trace = new ApduRingBuffer(TRACE_CAPACITY);
 
     @Override
     public byte[] transceive(final byte[] pCommand) throws CommunicationException {
-        if (debugMode) {
-            log("send: " + BytesUtils.bytesToString(pCommand));
-        }
-
+        boolean tracing = traceSink != null;
         byte[] response;
+        long start = System.nanoTime();
         try {
             // send command to emv card
             response = mTagCom.transceive(pCommand);
         } catch (IOException e) {
+            long duration = System.nanoTime() - start;
+            ReaderMetrics.recordCommand(pCommand, null, duration);
+            if (tracing) {
+                trace.add(pCommand, null, duration);
+            }
             throw new CommunicationException(e.getMessage());
         }
-
-        log("resp: " + BytesUtils.bytesToString(response));
-        try {
-            log("resp: " + TlvUtil.prettyPrintAPDUResponse(response));
-            SwEnum val = SwEnum.getSW(response);
-            if (val != null) {
-                log("resp: " + val.getDetail());
-            }
-        } catch (Exception e) {
-            Log.w(TAG, e.toString());
+        long duration = System.nanoTime() - start;
+        ReaderMetrics.recordCommand(pCommand, response, duration);
+        // only the raw bytes are kept during the session, they are formatted by dumpTrace()
+        if (tracing) {
+            trace.add(pCommand, response, duration);
         }
-
         return response;
     }
 
@@ -60,10 +81,53 @@ class TapNfcProvider implements IProvider {
      * Enable ro disable debug info logging
      */
     public TapNfcProvider setDebugMode(boolean debugMode) {
-        this.debugMode = debugMode;
+        return setTraceSink(debugMode ? LOG_SINK : null);
+    }
+
+    /**
+     * Set the destination of the trace of the commands and responses.
+     * <p>The trace is formatted after the session by {@link #dumpTrace(ApduRingBuffer)}</p>
+     *
+     * @param sink trace destination (null to disable the trace)
+     */
+    public TapNfcProvider setTraceSink(ITraceSink sink) {
+        // the buffer is detached by the NFC I/O thread at the end of the session
+        traceSink = sink;
         return this;
     }
 
+    /**
+     * Take the trace of the session, a new buffer is used by the next session.
+     * Must be called on the thread reading the card, once the card is released.
+     *
+     * @return the commands of the session, null if nothing was captured
+     */
+    ApduRingBuffer detachTrace() {
+        if (trace.size() == 0) {
+            return null;
+        }
+        ApduRingBuffer ret = trace;
+        trace = new ApduRingBuffer(TRACE_CAPACITY);
+        return ret;
+    }
+
+    /**
+     * Format a trace detached by {@link #detachTrace()} to the trace sink.
+     * Can be called on any thread.
+     *
+     * @param sessionTrace commands of the session
+     */
+    void dumpTrace(ApduRingBuffer sessionTrace) {
+        ITraceSink sink = traceSink;
+        if (sink != null) {
+            try {
+                sessionTrace.dump(sink);
+            } catch (RuntimeException e) {
+                Log.w(TAG, e.toString());
+            }
+        }
+    }
+
     /**
      * Setter for the field mTagCom
      *
@@ -72,10 +136,4 @@ class TapNfcProvider implements IProvider {
     void setmTagCom(final IsoDep mTagCom) {
         this.mTagCom = mTagCom;
     }
-
-    private void log(String logLine) {
-        if (debugMode) {
-            Log.d(TAG, logLine);
-        }
-    }
 }
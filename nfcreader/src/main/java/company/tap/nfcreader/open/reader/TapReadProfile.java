@@ -0,0 +1,39 @@
+package company.tap.nfcreader.open.reader;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import company.tap.nfcreader.internal.library.enums.ReadStageEnum;
+
+/**
+ * Read profiles: declare which card data are read.
+ * <p>The commands of the data not required by the profile are not sent to the card</p>
+ */
+public enum TapReadProfile {
+
+    /**
+     * Read all the public data of the card: card number, expire date, scheme, card holder name,
+     * PIN try counter and transaction log
+     */
+    FULL(EnumSet.allOf(ReadStageEnum.class)),
+
+    /**
+     * Read only the data required for a payment: card number, expire date and scheme
+     * (card holder name only when it is in the records holding the card number)
+     */
+    PAYMENT(EnumSet.noneOf(ReadStageEnum.class));
+
+    private final Set<ReadStageEnum> stages;
+
+    TapReadProfile(Set<ReadStageEnum> stages) {
+        this.stages = Collections.unmodifiableSet(stages);
+    }
+
+    /**
+     * @return optional read stages run with this profile
+     */
+    public Set<ReadStageEnum> getStages() {
+        return stages;
+    }
+}
@@ -0,0 +1,18 @@
+package company.tap.nfcreader.open.reader;
+
+import company.tap.nfcreader.internal.library.parser.ReadTimings;
+
+/**
+ * Listener receiving the timing breakdown of every NFC session
+ * (connect, PPSE, SELECT, GPO, READ RECORD, PIN try, transaction log and post-processing).
+ */
+public interface TapReadTimingListener {
+
+    /**
+     * Called on a background thread (IO scheduler) after the result of a session is delivered,
+     * successful or not
+     *
+     * @param timings duration, commands, bytes and retries of each phase
+     */
+    void onReadTimings(ReadTimings timings);
+}
@@ -0,0 +1,150 @@
+package company.tap.nfcreader.internal.library.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+import org.junit.Assume;
+
+/**
+ * Plain JVM micro benchmark harness: timed warm-up, then several timed iterations reporting the time and the bytes
+ * allocated per operation.<br/>
+ * Benchmarks are JUnit tests skipped unless the system property <code>benchmark</code> is true (gradle
+ * <code>-Pbenchmark</code>). The warm-up and iteration durations can be set in milliseconds with the system
+ * properties <code>benchmark.warmup</code> and <code>benchmark.time</code>.
+ *
+ */
+public final class Benchmark {
+
+	/**
+	 * Operation to measure
+	 */
+	public interface Operation {
+
+		/**
+		 * Method used to run the operation once
+		 *
+		 * @return a value depending on the work done, consumed so the work is not eliminated
+		 * @throws Exception
+		 *             error of the operation
+		 */
+		int run() throws Exception;
+
+	}
+
+	/**
+	 * System property enabling the benchmarks
+	 */
+	public static final String PROPERTY = "benchmark";
+
+	/**
+	 * Warm-up duration in milliseconds
+	 */
+	private static final long WARMUP_MS = Long.getLong("benchmark.warmup", 1000L);
+
+	/**
+	 * Duration of a measured iteration in milliseconds
+	 */
+	private static final long ITERATION_MS = Long.getLong("benchmark.time", 500L);
+
+	/**
+	 * Measured iterations
+	 */
+	private static final int ITERATIONS = 5;
+
+	/**
+	 * Operations run between two clock reads
+	 */
+	private static final int BATCH = 16;
+
+	/**
+	 * Consumed results
+	 */
+	private static volatile int sink;
+
+	/**
+	 * Method used to skip the calling test when the benchmarks are not enabled
+	 */
+	public static void assumeEnabled() {
+		Assume.assumeTrue("benchmarks run with -D" + PROPERTY + "=true", Boolean.getBoolean(PROPERTY));
+	}
+
+	/**
+	 * Method used to measure an operation and print the result
+	 *
+	 * @param pName
+	 *            benchmark name
+	 * @param pOperation
+	 *            operation to measure
+	 * @return the best time of an operation in nanoseconds
+	 * @throws Exception
+	 *             error of the operation
+	 */
+	public static double run(final String pName, final Operation pOperation) throws Exception {
+		loop(pOperation, WARMUP_MS * 1000000L);
+		double best = Double.MAX_VALUE;
+		double total = 0;
+		long allocated = 0;
+		long operations = 0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			long bytes = allocatedBytes();
+			long start = System.nanoTime();
+			long count = loop(pOperation, ITERATION_MS * 1000000L);
+			long time = System.nanoTime() - start;
+			allocated += allocatedBytes() - bytes;
+			operations += count;
+			best = Math.min(best, (double) time / count);
+			total += time;
+		}
+		String allocation = allocatedBytes() < 0 ? "n/a" : String.format(Locale.US, "%.1f", (double) allocated
+				/ operations);
+		System.out.println(String.format(Locale.US, "%-48s %12.1f ns/op (best %.1f) %10s B/op", pName, total
+				/ operations, best, allocation));
+		return best;
+	}
+
+	/**
+	 * Method used to run an operation for a duration
+	 *
+	 * @param pOperation
+	 *            operation
+	 * @param pNanos
+	 *            duration in nanoseconds
+	 * @return the number of operations run
+	 * @throws Exception
+	 *             error of the operation
+	 */
+	private static long loop(final Operation pOperation, final long pNanos) throws Exception {
+		long end = System.nanoTime() + pNanos;
+		long count = 0;
+		int hash = 0;
+		do {
+			for (int i = 0; i < BATCH; i++) {
+				hash += pOperation.run();
+			}
+			count += BATCH;
+		} while (System.nanoTime() < end);
+		sink += hash;
+		return count;
+	}
+
+	/**
+	 * Method used to get the bytes allocated by the current thread
+	 *
+	 * @return the allocated bytes or -1 if the JVM does not count them
+	 */
+	private static long allocatedBytes() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	/**
+	 * Private constructor
+	 */
+	private Benchmark() {
+	}
+
+}
@@ -0,0 +1,133 @@
+package company.tap.nfcreader.internal.library.bin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.model.BinInfo;
+import company.tap.nfcreader.internal.library.model.enums.CardTypeEnum;
+import company.tap.nfcreader.internal.library.model.enums.CountryCodeEnum;
+
+public class BinDatabaseTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static String digits(final Random pRandom, final int pLength) {
+		StringBuilder ret = new StringBuilder();
+		for (int i = 0; i < pLength; i++) {
+			ret.append((char) ('0' + pRandom.nextInt(10)));
+		}
+		return ret.toString();
+	}
+
+	private static long key(final String pPrefix, final char pPad) {
+		StringBuilder ret = new StringBuilder(pPrefix);
+		while (ret.length() < BinDatabase.KEY_DIGITS) {
+			ret.append(pPad);
+		}
+		return Long.parseLong(ret.toString());
+	}
+
+	private static BinDatabase write(final List<BinRange> pRanges) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BinDatabase.write(pRanges, out);
+		return BinDatabase.wrap(ByteBuffer.wrap(out.toByteArray()));
+	}
+
+	@Test
+	public void testNarrowestRangeWins() throws IOException {
+		Random random = new Random(7);
+		CountryCodeEnum[] countries = CountryCodeEnum.values();
+		CardTypeEnum[] types = CardTypeEnum.values();
+		for (int round = 0; round < 20; round++) {
+			int size = 50 + random.nextInt(300);
+			List<BinRange> ranges = new ArrayList<BinRange>();
+			long[][] keys = new long[size][];
+			for (int i = 0; i < size; i++) {
+				int length = 1 + random.nextInt(4);
+				String low = digits(random, length);
+				long high = Long.parseLong(low) + (random.nextInt(3) == 0 ? 0 : random.nextInt(5));
+				String highValue = high >= Math.pow(10, length) ? low : String.format("%0" + length + "d", high);
+				ranges.add(new BinRange(low, highValue, i % 2 == 0 ? "VISA" : "Brand" + i % 7, "Issuer " + i,
+						countries[random.nextInt(countries.length)], types[random.nextInt(types.length)]));
+				keys[i] = new long[] { key(low, '0'), key(highValue, '9') };
+			}
+			BinDatabase database = write(ranges);
+			for (int query = 0; query < 500; query++) {
+				String pan = digits(random, 16);
+				long key = Long.parseLong(pan.substring(0, BinDatabase.KEY_DIGITS));
+				// narrowest range containing the key, the last one for the same width
+				int best = -1;
+				long width = Long.MAX_VALUE;
+				for (int i = 0; i < size; i++) {
+					if (keys[i][0] <= key && key <= keys[i][1] && keys[i][1] - keys[i][0] <= width) {
+						width = keys[i][1] - keys[i][0];
+						best = i;
+					}
+				}
+				int index = database.find(pan);
+				if (best < 0) {
+					assertEquals(pan, -1, index);
+					continue;
+				}
+				BinRange expected = ranges.get(best);
+				assertEquals(pan, expected.getIssuer(), database.getIssuer(index));
+				assertEquals(expected.getBrand(), database.getBrand(index));
+				assertSame(best % 2 == 0 ? EmvCardScheme.VISA : null, database.getScheme(index));
+				assertSame(expected.getCountry(), database.getCountry(index));
+				assertSame(expected.getCardType(), database.getCardType(index));
+			}
+		}
+	}
+
+	@Test
+	public void testSaveAndOpen() throws IOException {
+		File file = new File(folder.getRoot(), "bins.db");
+		BinDatabase.save(Arrays.asList(
+				new BinRange("4", "4", "VISA", "Any bank", CountryCodeEnum.FR, CardTypeEnum.DEBIT),
+				new BinRange("497010", "497010", "CB", "Banque", CountryCodeEnum.FR, null)), file);
+		BinDatabase database = BinDatabase.open(file);
+
+		BinInfo info = database.lookup("4970 1000 0000 0006");
+		assertEquals("CB", info.getBrand());
+		assertSame(EmvCardScheme.CB, info.getScheme());
+		assertEquals("Banque", info.getIssuer());
+		assertSame(CountryCodeEnum.FR, info.getCountry());
+		assertSame(CardTypeEnum.UNKNOWN, info.getCardType());
+
+		info = database.lookup("4111111111111111");
+		assertEquals("Any bank", info.getIssuer());
+		assertSame(EmvCardScheme.VISA, info.getScheme());
+		assertSame(CardTypeEnum.DEBIT, info.getCardType());
+
+		assertNull(database.lookup("5111111111111111"));
+		assertNull(database.lookup(""));
+	}
+
+	@Test
+	public void testInvalidDatabase() {
+		try {
+			BinDatabase.wrap(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+			fail("IOException expected");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+}
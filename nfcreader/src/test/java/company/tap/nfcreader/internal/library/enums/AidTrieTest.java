@@ -0,0 +1,105 @@
+package company.tap.nfcreader.internal.library.enums;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.utils.BytesUtils;
+
+public class AidTrieTest {
+
+	/**
+	 * Longest AID prefix, the last declared scheme for the same AID
+	 */
+	private static EmvCardScheme longestPrefix(final EmvCardScheme[] pSchemes, final byte[] pAid) {
+		EmvCardScheme ret = null;
+		int length = -1;
+		for (EmvCardScheme scheme : pSchemes) {
+			for (byte[] aid : scheme.getAidByte()) {
+				if (aid.length <= pAid.length && aid.length >= length
+						&& Arrays.equals(aid, Arrays.copyOf(pAid, aid.length))) {
+					ret = scheme;
+					length = aid.length;
+				}
+			}
+		}
+		return ret;
+	}
+
+	private static List<byte[]> inputs(final EmvCardScheme[] pSchemes) {
+		Random random = new Random(6);
+		List<byte[]> ret = new ArrayList<byte[]>();
+		for (EmvCardScheme scheme : pSchemes) {
+			for (byte[] aid : scheme.getAidByte()) {
+				for (int cut = 0; cut <= aid.length; cut++) {
+					for (int i = 0; i < 10; i++) {
+						byte[] input = Arrays.copyOf(aid, cut + random.nextInt(6));
+						for (int j = cut; j < input.length; j++) {
+							input[j] = i % 3 == 0 ? aid[Math.min(j, aid.length - 1)] : (byte) random.nextInt(256);
+						}
+						ret.add(input);
+					}
+				}
+			}
+		}
+		for (int i = 0; i < 5000; i++) {
+			byte[] input = new byte[random.nextInt(10)];
+			random.nextBytes(input);
+			if (input.length > 0) {
+				input[0] = (byte) 0xA0;
+			}
+			ret.add(input);
+		}
+		return ret;
+	}
+
+	@Test
+	public void testSchemeAids() {
+		EmvCardScheme[] schemes = EmvCardScheme.values();
+		for (byte[] aid : inputs(schemes)) {
+			EmvCardScheme expected = longestPrefix(schemes, aid);
+			String hex = BytesUtils.bytesToStringNoSpace(aid);
+			assertSame(hex, expected, EmvCardScheme.getCardTypeByAid(aid));
+			assertSame(hex, expected, EmvCardScheme.getCardTypeByAid(hex));
+			assertSame(hex, expected, EmvCardScheme.getCardTypeByAid(BytesUtils.bytesToString(aid).toLowerCase()));
+		}
+	}
+
+	@Test
+	public void testLongestPrefixWins() {
+		// the longest AID wins whatever the declaration order
+		AidTrie trie = new AidTrie(new EmvCardScheme[] { EmvCardScheme.INTER_SWITCH, EmvCardScheme.VERVE });
+		assertSame(EmvCardScheme.INTER_SWITCH, trie.find(BytesUtils.fromString("A000000371000102"), 0, 8));
+		assertSame(EmvCardScheme.VERVE, trie.find(BytesUtils.fromString("A0000003711010"), 0, 7));
+		assertSame(EmvCardScheme.VERVE, trie.find("A0 00 00 03 71 00"));
+		assertSame(EmvCardScheme.INTER_SWITCH, trie.find("a0000003710001"));
+	}
+
+	@Test
+	public void testSameAidLastSchemeWins() {
+		byte[] aid = BytesUtils.fromString("A0000001211010");
+		assertSame(EmvCardScheme.DANKORT,
+				new AidTrie(new EmvCardScheme[] { EmvCardScheme.PBS, EmvCardScheme.DANKORT }).find(aid, 0, aid.length));
+		assertSame(EmvCardScheme.PBS,
+				new AidTrie(new EmvCardScheme[] { EmvCardScheme.DANKORT, EmvCardScheme.PBS }).find(aid, 0, aid.length));
+	}
+
+	@Test
+	public void testOffsetAndHexEnd() {
+		AidTrie trie = new AidTrie(EmvCardScheme.values());
+		byte[] data = BytesUtils.fromString("84 07 A0000000041010 9000");
+		assertSame(EmvCardScheme.MASTER_CARD, trie.find(data, 2, 7));
+		assertNull(trie.find(data, 0, 7));
+		// the AID ends on the first character which is not hexa
+		assertSame(EmvCardScheme.MASTER_CARD, trie.find("A000000004-A000000003"));
+		assertNull(trie.find("A0-00000004"));
+		assertNull(trie.find(""));
+	}
+
+}
@@ -0,0 +1,59 @@
+package company.tap.nfcreader.internal.library.enums;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.benchmark.Benchmark;
+import company.tap.nfcreader.internal.library.utils.BytesUtils;
+
+public class EnumLookupBenchmark {
+
+	@Before
+	public void enabled() {
+		Benchmark.assumeEnabled();
+	}
+
+	@Test
+	public void benchmarkGetSw() throws Exception {
+		final byte[][] responses = { BytesUtils.fromString("9000"), BytesUtils.fromString("6A82"),
+				BytesUtils.fromString("6283"), BytesUtils.fromString("6C10"), BytesUtils.fromString("1234") };
+		Benchmark.run("SwEnum.getSW", new Benchmark.Operation() {
+			private int i;
+
+			@Override
+			public int run() {
+				SwEnum sw = SwEnum.getSW(responses[i++ % responses.length]);
+				return sw == null ? 0 : sw.ordinal();
+			}
+		});
+	}
+
+	@Test
+	public void benchmarkGetCardTypeByAid() throws Exception {
+		final String[] hexa = { "A0000000031010", "A0000000041010", "A00000002501", "A0000000421010",
+				"A0000006723010", "A0000009999999" };
+		final byte[][] aids = new byte[hexa.length][];
+		for (int i = 0; i < hexa.length; i++) {
+			aids[i] = BytesUtils.fromString(hexa[i]);
+		}
+		Benchmark.run("EmvCardScheme.getCardTypeByAid(String)", new Benchmark.Operation() {
+			private int i;
+
+			@Override
+			public int run() {
+				EmvCardScheme scheme = EmvCardScheme.getCardTypeByAid(hexa[i++ % hexa.length]);
+				return scheme == null ? 0 : scheme.ordinal();
+			}
+		});
+		Benchmark.run("EmvCardScheme.getCardTypeByAid(byte[])", new Benchmark.Operation() {
+			private int i;
+
+			@Override
+			public int run() {
+				EmvCardScheme scheme = EmvCardScheme.getCardTypeByAid(aids[i++ % aids.length]);
+				return scheme == null ? 0 : scheme.ordinal();
+			}
+		});
+	}
+
+}
@@ -0,0 +1,35 @@
+package company.tap.nfcreader.internal.library.enums;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SwCategoryEnumTest {
+
+	@Test
+	public void testCategories() {
+		assertEquals(SwCategoryEnum.SUCCESS, SwCategoryEnum.getCategory(0x90, 0x00));
+		assertEquals(SwCategoryEnum.PROPRIETARY, SwCategoryEnum.getCategory(0x90, 0x01));
+		assertEquals(SwCategoryEnum.PROPRIETARY, SwCategoryEnum.getCategory(0x9F, 0x10));
+		assertEquals(SwCategoryEnum.MORE_DATA, SwCategoryEnum.getCategory(0x61, 0x00));
+		assertEquals(SwCategoryEnum.WRONG_LE, SwCategoryEnum.getCategory(0x6C, 0x1A));
+		assertEquals(SwCategoryEnum.WARNING, SwCategoryEnum.getCategory(0x62, 0x83));
+		assertEquals(SwCategoryEnum.WARNING, SwCategoryEnum.getCategory(0x63, 0xC2));
+		assertEquals(SwCategoryEnum.EXECUTION_ERROR, SwCategoryEnum.getCategory(0x64, 0x00));
+		assertEquals(SwCategoryEnum.EXECUTION_ERROR, SwCategoryEnum.getCategory(0x66, 0x00));
+		assertEquals(SwCategoryEnum.CHECKING_ERROR, SwCategoryEnum.getCategory(0x67, 0x00));
+		assertEquals(SwCategoryEnum.CHECKING_ERROR, SwCategoryEnum.getCategory(0x6A, 0x82));
+		assertEquals(SwCategoryEnum.CHECKING_ERROR, SwCategoryEnum.getCategory(0x6F, 0x00));
+		assertEquals(SwCategoryEnum.UNKNOWN, SwCategoryEnum.getCategory(0x60, 0x00));
+		assertEquals(SwCategoryEnum.UNKNOWN, SwCategoryEnum.getCategory(0x12, 0x34));
+	}
+
+	@Test
+	public void testResponse() {
+		assertEquals(SwCategoryEnum.SUCCESS, SwCategoryEnum.getCategory(new byte[] { 0x5A, 0x01, (byte) 0x90, 0x00 }));
+		assertEquals(SwCategoryEnum.MORE_DATA, SwCategoryEnum.getCategory(new byte[] { 0x61, 0x10 }));
+		assertEquals(SwCategoryEnum.UNKNOWN, SwCategoryEnum.getCategory(new byte[] { (byte) 0x90 }));
+		assertEquals(SwCategoryEnum.UNKNOWN, SwCategoryEnum.getCategory((byte[]) null));
+	}
+
+}
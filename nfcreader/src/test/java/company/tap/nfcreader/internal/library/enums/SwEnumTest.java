@@ -0,0 +1,50 @@
+package company.tap.nfcreader.internal.library.enums;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class SwEnumTest {
+
+	/**
+	 * Lookup done before the table: first declared status word matching the response
+	 */
+	private static SwEnum scan(final byte[] pData) {
+		for (SwEnum val : SwEnum.values()) {
+			byte[] status = val.getStatus();
+			if (status.length == 1 && pData[pData.length - 2] == status[0]
+					|| pData[pData.length - 2] == status[0] && pData[pData.length - 1] == status[1]) {
+				return val;
+			}
+		}
+		return null;
+	}
+
+	@Test
+	public void testSameAsScan() {
+		for (int sw = 0; sw <= 0xFFFF; sw++) {
+			byte[] response = { 0x12, (byte) (sw >> 8), (byte) sw };
+			SwEnum expected = scan(response);
+			assertSame(Integer.toHexString(sw), expected, SwEnum.getSW(response));
+			assertSame(Integer.toHexString(sw), expected, SwEnum.getSW(sw >> 8, sw & 0xFF));
+		}
+	}
+
+	@Test
+	public void testFirstDeclaredWins() {
+		// 6C00 is declared before the one byte 6C entry
+		assertEquals(SwEnum.SW_6C00, SwEnum.getSW(new byte[] { 0x6C, 0x00 }));
+		assertEquals(SwEnum.SW_6C, SwEnum.getSW(new byte[] { 0x6C, 0x10 }));
+		assertEquals(SwEnum.SW_61, SwEnum.getSW(0x61, 0x20));
+		assertEquals(SwEnum.SW_9000, SwEnum.getSW(0x90, 0x00));
+	}
+
+	@Test
+	public void testInvalidResponse() {
+		assertNull(SwEnum.getSW(null));
+		assertNull(SwEnum.getSW(new byte[] { (byte) 0x90 }));
+	}
+
+}
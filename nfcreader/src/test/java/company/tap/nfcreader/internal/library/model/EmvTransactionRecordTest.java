@@ -0,0 +1,86 @@
+package company.tap.nfcreader.internal.library.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.iso7816emv.TagAndLength;
+import company.tap.nfcreader.internal.library.parser.apdu.annotation.AnnotationData;
+import company.tap.nfcreader.internal.library.parser.apdu.annotation.AnnotationUtils;
+import company.tap.nfcreader.internal.library.parser.apdu.annotation.Data;
+import company.tap.nfcreader.internal.library.parser.apdu.impl.DataFactory;
+import company.tap.nfcreader.internal.library.utils.BytesUtils;
+import company.tap.nfcreader.internal.library.utils.TlvUtil;
+
+public class EmvTransactionRecordTest {
+
+	private static final List<TagAndLength> FORMAT = TlvUtil.parseTagAndLength(BytesUtils
+			.fromString("9F02069F27019F1A025F2A029A039C019F2103"));
+
+	private static final byte[] RECORD = BytesUtils.fromString("000000001234 40 0250 0978 170102 00 123456");
+
+	private static List<Field> annotatedFields() {
+		List<Field> ret = new ArrayList<Field>();
+		for (Field field : EmvTransactionRecord.class.getDeclaredFields()) {
+			if (field.isAnnotationPresent(Data.class)) {
+				field.setAccessible(true);
+				ret.add(field);
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Parsing with reflection only (the fields set before the hand-written binder)
+	 */
+	private static EmvTransactionRecord parseWithReflection(final List<AnnotationData> pPlan) throws Exception {
+		EmvTransactionRecord ret = new EmvTransactionRecord();
+		int bitIndex = 0;
+		for (AnnotationData data : pPlan) {
+			if (data.isSkip()) {
+				bitIndex += data.getSize();
+			} else {
+				data.getField().set(ret, DataFactory.getObject(data, RECORD, bitIndex));
+				bitIndex += DataFactory.getReadSize(data);
+			}
+		}
+		return ret;
+	}
+
+	@Test
+	public void testBinderSameAsReflection() throws Exception {
+		List<AnnotationData> plan = AnnotationUtils.getInstance().getParsePlan(EmvTransactionRecord.class, FORMAT);
+		EmvTransactionRecord expected = parseWithReflection(plan);
+		EmvTransactionRecord record = new EmvTransactionRecord();
+		record.parseWithPlan(RECORD, plan);
+		List<Field> fields = annotatedFields();
+		assertEquals(7, fields.size());
+		for (Field field : fields) {
+			assertNotNull(field.getName(), field.get(expected));
+			assertEquals(field.getName(), field.get(expected), field.get(record));
+		}
+	}
+
+	@Test
+	public void testBinderIndexes() throws Exception {
+		List<AnnotationData> plan = AnnotationUtils.getInstance().getParsePlan(EmvTransactionRecord.class, FORMAT);
+		EmvTransactionRecord parsed = parseWithReflection(plan);
+		List<Field> fields = annotatedFields();
+		// each index of the binder sets the field annotated with this index and no other
+		for (Field field : fields) {
+			EmvTransactionRecord record = new EmvTransactionRecord();
+			Object value = field.get(parsed);
+			assertTrue(field.getName(), record.setValue(field.getAnnotation(Data.class).index(), value));
+			for (Field other : fields) {
+				assertEquals(field.getName() + " " + other.getName(), other == field ? value : null, other.get(record));
+			}
+		}
+	}
+
+}
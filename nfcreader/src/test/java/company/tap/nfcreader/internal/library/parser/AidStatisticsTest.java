@@ -0,0 +1,129 @@
+package company.tap.nfcreader.internal.library.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.utils.BytesUtils;
+
+public class AidStatisticsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static int getCount(final EmvCardScheme pScheme, final String pAid) {
+		byte[] aid = BytesUtils.fromString(pAid);
+		for (AidStatistics.Entry entry : AidStatistics.getOrder()) {
+			if (entry.getScheme() == pScheme && Arrays.equals(entry.getAid(), aid)) {
+				return entry.getCount();
+			}
+		}
+		throw new AssertionError("Unknown AID " + pAid);
+	}
+
+	@Test
+	public void testLongestPrefixIsCounted() {
+		int rid = getCount(EmvCardScheme.VISA, "A000000003");
+		int aid = getCount(EmvCardScheme.VISA, "A0000000031010");
+		AidStatistics.addSuccess(BytesUtils.fromString("A000000003101001"));
+		assertEquals(rid, getCount(EmvCardScheme.VISA, "A000000003"));
+		assertEquals(aid + 1, getCount(EmvCardScheme.VISA, "A0000000031010"));
+
+		// Verve RID is declared before the InterSwitch AID
+		int verve = getCount(EmvCardScheme.VERVE, "A000000371");
+		int interSwitch = getCount(EmvCardScheme.INTER_SWITCH, "A0000003710001");
+		AidStatistics.addSuccess(BytesUtils.fromString("A0000003710001"));
+		assertEquals(verve, getCount(EmvCardScheme.VERVE, "A000000371"));
+		assertEquals(interSwitch + 1, getCount(EmvCardScheme.INTER_SWITCH, "A0000003710001"));
+		AidStatistics.addSuccess(BytesUtils.fromString("A0000003711010"));
+		assertEquals(verve + 1, getCount(EmvCardScheme.VERVE, "A000000371"));
+	}
+
+	@Test
+	public void testSameAidCountsLastScheme() {
+		int dankort = getCount(EmvCardScheme.DANKORT, "A0000001211010");
+		int pbs = getCount(EmvCardScheme.PBS, "A0000001211010");
+		AidStatistics.addSuccess(BytesUtils.fromString("A0000001211010"));
+		assertEquals(dankort, getCount(EmvCardScheme.DANKORT, "A0000001211010"));
+		assertEquals(pbs + 1, getCount(EmvCardScheme.PBS, "A0000001211010"));
+		assertEquals(EmvCardScheme.PBS, EmvCardScheme.getCardTypeByAid("A0000001211010"));
+	}
+
+	private static void store(final Properties pProperties, final File pFile) throws IOException {
+		OutputStream os = new FileOutputStream(pFile);
+		try {
+			pProperties.store(os, null);
+		} finally {
+			os.close();
+		}
+	}
+
+	private static Properties read(final File pFile) throws IOException {
+		Properties ret = new Properties();
+		InputStream is = new FileInputStream(pFile);
+		try {
+			ret.load(is);
+		} finally {
+			is.close();
+		}
+		return ret;
+	}
+
+	@Test
+	public void testCorruptFileIsReplaced() throws IOException {
+		int span = getCount(EmvCardScheme.SPAN, "A000000228");
+		int tenn = getCount(EmvCardScheme.TENN, "A000000439");
+		File file = folder.newFile("corrupt.properties");
+		Properties properties = new Properties();
+		properties.setProperty("SPAN.A000000228", "3");
+		properties.setProperty("TENN.A000000439", "three");
+		store(properties, file);
+
+		// nothing is merged from a corrupt file, even when loaded again
+		AidStatistics.load(file);
+		AidStatistics.load(file);
+		assertEquals(span, getCount(EmvCardScheme.SPAN, "A000000228"));
+		assertEquals(tenn, getCount(EmvCardScheme.TENN, "A000000439"));
+
+		AidStatistics.save();
+		properties = read(file);
+		assertEquals(span == 0 ? null : String.valueOf(span), properties.getProperty("SPAN.A000000228"));
+		assertEquals(tenn == 0 ? null : String.valueOf(tenn), properties.getProperty("TENN.A000000439"));
+		assertFalse(new File(file.getPath() + ".tmp").exists());
+	}
+
+	@Test
+	public void testLoadMergesCounters() throws IOException {
+		int before = getCount(EmvCardScheme.JCB, "A000000065");
+		// card read before the end of the load
+		AidStatistics.addSuccess(BytesUtils.fromString("A0000000651010"));
+		File file = folder.newFile("aid.properties");
+		Properties properties = new Properties();
+		properties.setProperty("JCB.A000000065", "5");
+		store(properties, file);
+
+		AidStatistics.load(file);
+		assertEquals(before + 6, getCount(EmvCardScheme.JCB, "A000000065"));
+		// the same file is not added twice
+		AidStatistics.load(file);
+		assertEquals(before + 6, getCount(EmvCardScheme.JCB, "A000000065"));
+
+		AidStatistics.save();
+		properties = read(file);
+		assertEquals(String.valueOf(before + 6), properties.getProperty("JCB.A000000065"));
+	}
+
+}
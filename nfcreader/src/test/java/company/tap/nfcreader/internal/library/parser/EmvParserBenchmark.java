@@ -0,0 +1,87 @@
+package company.tap.nfcreader.internal.library.parser;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.benchmark.Benchmark;
+import company.tap.nfcreader.internal.library.iso7816emv.TagAndLength;
+import company.tap.nfcreader.internal.library.model.EmvTransactionRecord;
+import company.tap.nfcreader.internal.library.parser.apdu.annotation.AnnotationData;
+import company.tap.nfcreader.internal.library.parser.apdu.annotation.AnnotationUtils;
+import company.tap.nfcreader.internal.library.provider.RecordingProvider;
+import company.tap.nfcreader.internal.library.provider.ReplayProvider;
+import company.tap.nfcreader.internal.library.provider.VirtualCard;
+import company.tap.nfcreader.internal.library.provider.VirtualCardProvider;
+import company.tap.nfcreader.internal.library.utils.BytesUtils;
+import company.tap.nfcreader.internal.library.utils.TlvUtil;
+import company.tap.nfcreader.open.reader.TapEmvCard;
+
+public class EmvParserBenchmark {
+
+	@Before
+	public void enabled() {
+		Benchmark.assumeEnabled();
+	}
+
+	private static int read(final IProvider pProvider) throws Exception {
+		TapEmvCard card = new EmvParser(pProvider, true).readEmvCard();
+		return card.getCardNumber().length() + card.getListTransactions().size();
+	}
+
+	private static void benchmarkRead(final String pName, final VirtualCard pCard) throws Exception {
+		final VirtualCardProvider provider = new VirtualCardProvider(pCard);
+		Benchmark.run("readEmvCard virtual " + pName, new Benchmark.Operation() {
+			@Override
+			public int run() throws Exception {
+				provider.reset();
+				return read(provider);
+			}
+		});
+		RecordingProvider recording = new RecordingProvider(new VirtualCardProvider(pCard));
+		read(recording);
+		final ReplayProvider replay = new ReplayProvider(recording.getTrace());
+		Benchmark.run("readEmvCard replay " + pName, new Benchmark.Operation() {
+			@Override
+			public int run() throws Exception {
+				replay.reset();
+				return read(replay);
+			}
+		});
+	}
+
+	@Test
+	public void benchmarkReadEmvCard() throws Exception {
+		benchmarkRead("visa", VirtualCard.visa());
+		benchmarkRead("mastercard", VirtualCard.mastercard());
+		benchmarkRead("amex", VirtualCard.amex());
+		benchmarkRead("cb", VirtualCard.cb());
+	}
+
+	@Test
+	public void benchmarkTransactionRecord() throws Exception {
+		final List<TagAndLength> format = TlvUtil.parseTagAndLength(BytesUtils
+				.fromString("9F02069F27019F1A025F2A029A039C019F2103"));
+		final byte[] data = BytesUtils.fromString("000000001234 40 0250 0978 170102 00 123456");
+		Benchmark.run("EmvTransactionRecord.parse", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				EmvTransactionRecord record = new EmvTransactionRecord();
+				record.parse(data, format);
+				return record.getAmount().intValue();
+			}
+		});
+		final List<AnnotationData> plan = AnnotationUtils.getInstance().getParsePlan(EmvTransactionRecord.class,
+				format);
+		Benchmark.run("EmvTransactionRecord.parseWithPlan", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				EmvTransactionRecord record = new EmvTransactionRecord();
+				record.parseWithPlan(data, plan);
+				return record.getAmount().intValue();
+			}
+		});
+	}
+
+}
@@ -0,0 +1,122 @@
+package company.tap.nfcreader.internal.library.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.text.SimpleDateFormat;
+import java.util.Random;
+
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.enums.CommandEnum;
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.exception.CommunicationException;
+import company.tap.nfcreader.internal.library.provider.VirtualCard;
+import company.tap.nfcreader.internal.library.provider.VirtualCardProvider;
+import company.tap.nfcreader.internal.library.provider.VirtualCardProvider.Injection;
+import company.tap.nfcreader.internal.library.utils.BytesUtils;
+import company.tap.nfcreader.internal.library.utils.CommandApdu;
+import company.tap.nfcreader.open.reader.TapEmvCard;
+
+public class EmvParserTest {
+
+	private static final int[] INSTRUCTIONS = { 0xA4, 0xA8, 0xB2, 0xCA };
+
+	private static VirtualCard[] profiles() {
+		return new VirtualCard[] { VirtualCard.visa(), VirtualCard.mastercard(), VirtualCard.amex(), VirtualCard.cb() };
+	}
+
+	private static TapEmvCard read(final VirtualCardProvider pProvider) throws CommunicationException {
+		return new EmvParser(pProvider, true).readEmvCard();
+	}
+
+	private static void assertCard(final VirtualCard pExpected, final TapEmvCard pCard, final TapEmvCard pReference) {
+		assertNotNull(pCard);
+		assertEquals(pExpected.getCardNumber(), pCard.getCardNumber());
+		assertEquals(pExpected.getExpireDate(), new SimpleDateFormat("yyMM").format(pCard.getExpireDate()));
+		assertEquals(pReference.getType(), pCard.getType());
+		assertEquals(pReference.getHolderLastname(), pCard.getHolderLastname());
+		assertEquals(pReference.getLeftPinTry(), pCard.getLeftPinTry());
+		assertEquals(pReference.getListTransactions().size(), pCard.getListTransactions().size());
+	}
+
+	@Test
+	public void testProfiles() throws CommunicationException {
+		// the scheme of a CB card is the scheme of its card number
+		EmvCardScheme[] schemes = { EmvCardScheme.VISA, EmvCardScheme.MASTER_CARD, EmvCardScheme.AMERICAN_EXPRESS,
+				EmvCardScheme.VISA };
+		int[] logs = { 5, 10, 0, 5 };
+		VirtualCard[] profiles = profiles();
+		for (int i = 0; i < profiles.length; i++) {
+			TapEmvCard card = read(new VirtualCardProvider(profiles[i]));
+			assertNotNull(card);
+			assertEquals(profiles[i].getCardNumber(), card.getCardNumber());
+			assertEquals(schemes[i], card.getType());
+			assertEquals(3, card.getLeftPinTry());
+			assertEquals(logs[i], card.getListTransactions().size());
+		}
+	}
+
+	@Test
+	public void testWrongLe() throws CommunicationException {
+		for (VirtualCard profile : profiles()) {
+			TapEmvCard reference = read(new VirtualCardProvider(profile));
+			for (int ins : INSTRUCTIONS) {
+				VirtualCardProvider provider = new VirtualCardProvider(profile).setInjection(ins, Injection.WRONG_LE);
+				assertCard(profile, read(provider), reference);
+			}
+		}
+	}
+
+	@Test
+	public void testGetResponse() throws CommunicationException {
+		for (VirtualCard profile : profiles()) {
+			TapEmvCard reference = read(new VirtualCardProvider(profile));
+			for (int ins : INSTRUCTIONS) {
+				VirtualCardProvider provider = new VirtualCardProvider(profile).setInjection(ins, Injection.GET_RESPONSE);
+				assertCard(profile, read(provider), reference);
+				assertTrue(provider.getCommands(0xC0) > 0);
+			}
+			// every instruction at once
+			VirtualCardProvider provider = new VirtualCardProvider(profile);
+			for (int ins : INSTRUCTIONS) {
+				provider.setInjection(ins, Injection.GET_RESPONSE);
+			}
+			assertCard(profile, read(provider), reference);
+		}
+	}
+
+	@Test
+	public void testRandomCards() throws CommunicationException {
+		Random random = new Random(3);
+		Injection[] injections = Injection.values();
+		for (int i = 0; i < 500; i++) {
+			VirtualCard profile = VirtualCard.random(random);
+			VirtualCardProvider provider = new VirtualCardProvider(profile);
+			provider.setInjection(INSTRUCTIONS[random.nextInt(INSTRUCTIONS.length)],
+					injections[random.nextInt(injections.length)]);
+			TapEmvCard card = read(provider);
+			assertNotNull(card);
+			assertEquals(profile.getCardNumber(), card.getCardNumber());
+		}
+	}
+
+	@Test
+	public void testCachedEmptyPdolRetriedWithPdol() throws CommunicationException {
+		VirtualCard profile = VirtualCard.cb().setCardNumber("4970100000000014");
+		VirtualCardProvider provider = new VirtualCardProvider(profile);
+		byte[] ppse = provider.transceive(new CommandApdu(CommandEnum.SELECT, "2PAY.SYS.DDF01".getBytes(), 0).toBytes());
+		ReadPathCache.put(ReadPathCache.getPpseKey(ppse), new ReadPathCache.ReadPath(BytesUtils.fromString("A0000000421010"), true));
+		provider.reset();
+
+		TapEmvCard card = read(provider);
+		assertNotNull(card);
+		assertEquals(profile.getCardNumber(), card.getCardNumber());
+		// GPO without PDOL data refused, then sent again with the PDOL data
+		assertEquals(2, provider.getCommands(0xA8));
+		assertFalse(ReadPathCache.get(ReadPathCache.getPpseKey(ppse)).isEmptyPdol());
+	}
+
+}
@@ -0,0 +1,94 @@
+package company.tap.nfcreader.internal.library.parser;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.enums.CommandEnum;
+import company.tap.nfcreader.internal.library.enums.EmvCardScheme;
+import company.tap.nfcreader.internal.library.model.Afl;
+import company.tap.nfcreader.internal.library.utils.CommandApdu;
+
+public class RecordReadPlannerTest {
+
+	private static List<Afl> afl(final int... pEntries) {
+		List<Afl> ret = new ArrayList<Afl>();
+		for (int i = 0; i < pEntries.length; i += 3) {
+			Afl afl = new Afl();
+			afl.setSfi(pEntries[i]);
+			afl.setFirstRecord(pEntries[i + 1]);
+			afl.setLastRecord(pEntries[i + 2]);
+			ret.add(afl);
+		}
+		return ret;
+	}
+
+	private static int key(final int pSfi, final int pRecord) {
+		return RecordReadPlanner.getKey(pSfi, pRecord);
+	}
+
+	@Test
+	public void testAflOrderWithoutStatistics() {
+		// SFI 1 record 2 is listed twice
+		int[] plan = RecordReadPlanner.plan(EmvCardScheme.LINK, afl(1, 1, 2, 2, 1, 3, 1, 2, 2));
+		assertArrayEquals(new int[] { key(1, 1), key(1, 2), key(2, 1), key(2, 2), key(2, 3) }, plan);
+	}
+
+	@Test
+	public void testTrack2ThenNameFirst() {
+		List<Afl> afl = afl(1, 1, 2, 2, 1, 2, 3, 1, 1);
+		RecordReadPlanner.update(EmvCardScheme.JCB, key(3, 1), false, true);
+		RecordReadPlanner.update(EmvCardScheme.JCB, key(2, 2), true, false);
+		RecordReadPlanner.update(EmvCardScheme.JCB, key(1, 2), true, true);
+		// same track 2 hits: the name hits decide
+		assertArrayEquals(new int[] { key(1, 2), key(2, 2), key(3, 1), key(1, 1), key(2, 1) },
+				RecordReadPlanner.plan(EmvCardScheme.JCB, afl));
+
+		RecordReadPlanner.update(EmvCardScheme.JCB, key(2, 2), true, false);
+		assertArrayEquals(new int[] { key(2, 2), key(1, 2), key(3, 1), key(1, 1), key(2, 1) },
+				RecordReadPlanner.plan(EmvCardScheme.JCB, afl));
+
+		// a record without track 2 nor name is not counted
+		RecordReadPlanner.update(EmvCardScheme.JCB, key(2, 1), false, false);
+		assertEquals(key(2, 1), RecordReadPlanner.plan(EmvCardScheme.JCB, afl)[4]);
+	}
+
+	@Test
+	public void testStatisticsByScheme() {
+		List<Afl> afl = afl(1, 1, 3);
+		RecordReadPlanner.update(EmvCardScheme.INTERAC, key(1, 3), true, false);
+		assertArrayEquals(new int[] { key(1, 3), key(1, 1), key(1, 2) }, RecordReadPlanner.plan(EmvCardScheme.INTERAC, afl));
+		assertArrayEquals(new int[] { key(1, 1), key(1, 2), key(1, 3) }, RecordReadPlanner.plan(EmvCardScheme.RUPAY, afl));
+	}
+
+	@Test
+	public void testMayContainName() {
+		int[] plan = RecordReadPlanner.plan(EmvCardScheme.DISCOVER, afl(1, 1, 3));
+		assertFalse(RecordReadPlanner.mayContainName(EmvCardScheme.DISCOVER, plan, 0));
+		RecordReadPlanner.update(EmvCardScheme.DISCOVER, key(1, 2), false, true);
+		plan = RecordReadPlanner.plan(EmvCardScheme.DISCOVER, afl(1, 1, 3));
+		assertEquals(key(1, 2), plan[0]);
+		assertTrue(RecordReadPlanner.mayContainName(EmvCardScheme.DISCOVER, plan, 0));
+		assertFalse(RecordReadPlanner.mayContainName(EmvCardScheme.DISCOVER, plan, 1));
+	}
+
+	@Test
+	public void testReadRecordCommands() {
+		for (int sfi = 1; sfi < 32; sfi++) {
+			for (int record = 0; record < 256; record++) {
+				int key = RecordReadPlanner.getKey(sfi, record);
+				assertEquals(sfi, RecordReadPlanner.getSfi(key));
+				assertEquals(record, RecordReadPlanner.getRecord(key));
+				assertArrayEquals(new CommandApdu(CommandEnum.READ_RECORD, record, sfi << 3 | 4, 0).toBytes(),
+						RecordReadPlanner.getReadRecord(key));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,69 @@
+package company.tap.nfcreader.internal.library.parser.apdu.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.iso7816emv.EmvTags;
+import company.tap.nfcreader.internal.library.iso7816emv.TagAndLength;
+import company.tap.nfcreader.internal.library.model.EmvTransactionRecord;
+import company.tap.nfcreader.internal.library.model.enums.CurrencyEnum;
+import company.tap.nfcreader.internal.library.utils.BytesUtils;
+
+public class AnnotationUtilsTest {
+
+	private static List<TagAndLength> format(final int pAmountLength) {
+		List<TagAndLength> ret = new ArrayList<TagAndLength>();
+		ret.add(new TagAndLength(EmvTags.AMOUNT_AUTHORISED_NUMERIC, pAmountLength));
+		ret.add(new TagAndLength(EmvTags.APPLICATION_LABEL, 2));
+		ret.add(new TagAndLength(EmvTags.TRANSACTION_CURRENCY_CODE, 2));
+		return ret;
+	}
+
+	@Test
+	public void testPlanCachedByFormat() {
+		AnnotationUtils utils = AnnotationUtils.getInstance();
+		List<AnnotationData> plan = utils.getParsePlan(EmvTransactionRecord.class, format(6));
+		// an equal format built by another read gets the same plan
+		assertSame(plan, utils.getParsePlan(EmvTransactionRecord.class, format(6)));
+		assertEquals(3, plan.size());
+		assertFalse(plan.get(0).isSkip());
+		assertEquals(48, plan.get(0).getSize());
+		assertTrue(plan.get(1).isSkip());
+		assertEquals(16, plan.get(1).getSize());
+
+		List<AnnotationData> other = utils.getParsePlan(EmvTransactionRecord.class, format(4));
+		assertEquals(32, other.get(0).getSize());
+	}
+
+	@Test
+	public void testCallerFormatChange() {
+		AnnotationUtils utils = AnnotationUtils.getInstance();
+		List<TagAndLength> format = format(5);
+		List<AnnotationData> plan = utils.getParsePlan(EmvTransactionRecord.class, format);
+		format.remove(2);
+		assertEquals(2, utils.getParsePlan(EmvTransactionRecord.class, format).size());
+		assertSame(plan, utils.getParsePlan(EmvTransactionRecord.class, format(5)));
+	}
+
+	@Test
+	public void testParseWithPlan() {
+		List<TagAndLength> format = format(6);
+		byte[] data = BytesUtils.fromString("000000001234 FFFF 0978");
+		EmvTransactionRecord record = new EmvTransactionRecord();
+		record.parse(data, format);
+		EmvTransactionRecord planned = new EmvTransactionRecord();
+		planned.parseWithPlan(data, AnnotationUtils.getInstance().getParsePlan(EmvTransactionRecord.class, format));
+		assertEquals(Float.valueOf(1234), record.getAmount());
+		assertEquals(CurrencyEnum.EUR, record.getCurrency());
+		assertEquals(record.getAmount(), planned.getAmount());
+		assertEquals(record.getCurrency(), planned.getCurrency());
+	}
+
+}
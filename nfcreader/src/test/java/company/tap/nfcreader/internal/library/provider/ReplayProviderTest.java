@@ -0,0 +1,49 @@
+package company.tap.nfcreader.internal.library.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.exception.CommunicationException;
+import company.tap.nfcreader.internal.library.parser.EmvParser;
+import company.tap.nfcreader.internal.library.utils.BytesUtils;
+import company.tap.nfcreader.open.reader.TapEmvCard;
+
+public class ReplayProviderTest {
+
+	@Test
+	public void testReplayRecordedRead() throws CommunicationException {
+		VirtualCard[] profiles = { VirtualCard.visa(), VirtualCard.mastercard(), VirtualCard.amex(), VirtualCard.cb() };
+		for (VirtualCard profile : profiles) {
+			RecordingProvider recording = new RecordingProvider(new VirtualCardProvider(profile));
+			TapEmvCard recorded = new EmvParser(recording, true).readEmvCard();
+			// the GPO data of the replay has another unpredictable number
+			ReplayProvider replay = new ReplayProvider(recording.getTrace());
+			for (int i = 0; i < 2; i++) {
+				replay.reset();
+				TapEmvCard card = new EmvParser(replay, true).readEmvCard();
+				assertEquals(recorded.getCardNumber(), card.getCardNumber());
+				assertEquals(recorded.getExpireDate(), card.getExpireDate());
+				assertEquals(recorded.getListTransactions().size(), card.getListTransactions().size());
+				assertEquals(recording.getTrace().getExchanges().size(), replay.getCommands());
+			}
+		}
+	}
+
+	@Test
+	public void testUnknownCommand() throws CommunicationException {
+		RecordingProvider recording = new RecordingProvider(new VirtualCardProvider(VirtualCard.visa()));
+		new EmvParser(recording, true).readEmvCard();
+		ReplayProvider replay = new ReplayProvider(recording.getTrace());
+		assertEquals("6A82", BytesUtils.bytesToStringNoSpace(replay.transceive(BytesUtils
+				.fromString("00A4040007A000000004101000"))));
+		// a GPO is found by its header and length only
+		assertEquals("6A82", BytesUtils.bytesToStringNoSpace(replay.transceive(BytesUtils
+				.fromString("80A8000004830212340000"))));
+		byte[] gpo = new byte[41];
+		System.arraycopy(BytesUtils.fromString("80A80000238321"), 0, gpo, 0, 7);
+		assertTrue(replay.transceive(gpo).length > 2);
+	}
+
+}
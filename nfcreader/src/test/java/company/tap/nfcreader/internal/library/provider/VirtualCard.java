@@ -0,0 +1,603 @@
+package company.tap.nfcreader.internal.library.provider;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import company.tap.nfcreader.internal.library.utils.BytesUtils;
+
+/**
+ * Data of a virtual EMV card answered by {@link VirtualCardProvider}.<br/>
+ * Predefined profiles ({@link #visa()}, {@link #mastercard()}, {@link #amex()}, {@link #cb()}) follow the layout of
+ * real cards of each scheme, every field can then be changed. Records are listed by the AFL, the track 2 equivalent data
+ * and the card holder name can be in any of them (or in the GPO response for the track 2).
+ *
+ */
+public final class VirtualCard {
+
+	/**
+	 * PPSE directory "2PAY.SYS.DDF01"
+	 */
+	static final byte[] PPSE = "2PAY.SYS.DDF01".getBytes();
+
+	/**
+	 * Log format of the transaction records
+	 */
+	private static final byte[] LOG_FORMAT = BytesUtils.fromString("9F02069F27019F1A025F2A029A039C019F2103");
+
+	/**
+	 * Selectable AID
+	 */
+	private byte[] aid;
+
+	/**
+	 * Application label
+	 */
+	private String applicationLabel;
+
+	/**
+	 * PDOL (tags and lengths) or null
+	 */
+	private byte[] pdol;
+
+	/**
+	 * Application file locator (4 bytes by entry)
+	 */
+	private byte[] afl;
+
+	/**
+	 * Card number
+	 */
+	private String cardNumber;
+
+	/**
+	 * Expire date (YYMM)
+	 */
+	private String expireDate = "2912";
+
+	/**
+	 * Service code
+	 */
+	private String serviceCode = "201";
+
+	/**
+	 * Card holder name ("LASTNAME/FIRSTNAME") or null
+	 */
+	private String holderName = "DOE/JOHN";
+
+	/**
+	 * True if the track 2 is returned in the GPO response
+	 */
+	private boolean track2InGpo;
+
+	/**
+	 * Record containing the track 2 (SFI << 8 | record)
+	 */
+	private int track2Record = 0x0101;
+
+	/**
+	 * Record containing the card holder name (SFI << 8 | record)
+	 */
+	private int nameRecord = 0x0101;
+
+	/**
+	 * PIN try counter (-1 if not available)
+	 */
+	private int pinTryCounter = 3;
+
+	/**
+	 * True if the log entry uses the VISA tag DF60 instead of 9F4D
+	 */
+	private boolean visaLogEntry;
+
+	/**
+	 * SFI of the transaction log
+	 */
+	private int logSfi = 0x0B;
+
+	/**
+	 * Number of transaction log records (0 for no log)
+	 */
+	private int logRecords;
+
+	/**
+	 * True if the card answers the PPSE selection
+	 */
+	private boolean ppse = true;
+
+	/**
+	 * Method used to create a VISA card (qVSDC: PDOL, track 2 in the GPO response, log in DF60)
+	 *
+	 * @return the card
+	 */
+	public static VirtualCard visa() {
+		VirtualCard card = new VirtualCard();
+		card.aid = BytesUtils.fromString("A0000000031010");
+		card.applicationLabel = "VISA CREDIT";
+		card.pdol = BytesUtils.fromString("9F66049F02069F03069F1A0295055F2A029A039C019F3704");
+		card.afl = BytesUtils.fromString("08010100" + "10010200");
+		card.cardNumber = "4761739001010010";
+		card.track2InGpo = true;
+		card.nameRecord = 0x0201;
+		card.visaLogEntry = true;
+		card.logRecords = 5;
+		return card;
+	}
+
+	/**
+	 * Method used to create a Mastercard card (M/Chip: no PDOL, track 2 and name in SFI 2, log in 9F4D)
+	 *
+	 * @return the card
+	 */
+	public static VirtualCard mastercard() {
+		VirtualCard card = new VirtualCard();
+		card.aid = BytesUtils.fromString("A0000000041010");
+		card.applicationLabel = "MASTERCARD";
+		card.afl = BytesUtils.fromString("08010100" + "10010301" + "18010200");
+		card.cardNumber = "5413330089010012";
+		card.track2Record = 0x0201;
+		card.nameRecord = 0x0201;
+		card.logRecords = 10;
+		return card;
+	}
+
+	/**
+	 * Method used to create an American express card (PDOL, track 2 and name in distinct records, no log)
+	 *
+	 * @return the card
+	 */
+	public static VirtualCard amex() {
+		VirtualCard card = new VirtualCard();
+		card.aid = BytesUtils.fromString("A00000002501");
+		card.applicationLabel = "AMERICAN EXPRESS";
+		card.pdol = BytesUtils.fromString("9F3501" + "9F6E04");
+		card.afl = BytesUtils.fromString("08010400");
+		card.cardNumber = "374245001721004";
+		card.track2Record = 0x0101;
+		card.nameRecord = 0x0102;
+		return card;
+	}
+
+	/**
+	 * Method used to create a CB card (PDOL, track 2 in SFI 2, name in SFI 1, log in 9F4D)
+	 *
+	 * @return the card
+	 */
+	public static VirtualCard cb() {
+		VirtualCard card = new VirtualCard();
+		card.aid = BytesUtils.fromString("A0000000421010");
+		card.applicationLabel = "CB";
+		card.pdol = BytesUtils.fromString("9F02069F1A025F2A029A039C019F3704");
+		card.afl = BytesUtils.fromString("08010200" + "10010301");
+		card.cardNumber = "4970100000000006";
+		card.track2Record = 0x0201;
+		card.nameRecord = 0x0102;
+		card.logRecords = 5;
+		return card;
+	}
+
+	/**
+	 * Method used to create a random variant of a predefined profile (card number, expire date, holder name, position
+	 * of the track 2 and of the name, PIN try counter and log size)
+	 *
+	 * @param pRandom
+	 *            random generator
+	 * @return the card
+	 */
+	public static VirtualCard random(final Random pRandom) {
+		VirtualCard card;
+		switch (pRandom.nextInt(4)) {
+		case 0:
+			card = visa();
+			break;
+		case 1:
+			card = mastercard();
+			break;
+		case 2:
+			card = amex();
+			break;
+		default:
+			card = cb();
+			break;
+		}
+		// keep the scheme prefix of the card number
+		StringBuilder number = new StringBuilder(card.cardNumber.substring(0, 6));
+		while (number.length() < card.cardNumber.length() - 1) {
+			number.append((char) ('0' + pRandom.nextInt(10)));
+		}
+		card.cardNumber = number.append(luhn(number)).toString();
+		card.expireDate = String.format("%02d%02d", 20 + pRandom.nextInt(15), 1 + pRandom.nextInt(12));
+		card.holderName = pRandom.nextInt(4) == 0 ? null : "HOLDER" + pRandom.nextInt(1000) + "/CARD";
+		int[] records = card.getRecords();
+		card.track2Record = records[pRandom.nextInt(records.length)];
+		card.nameRecord = records[pRandom.nextInt(records.length)];
+		card.pinTryCounter = pRandom.nextInt(5) - 1;
+		card.logRecords = card.logRecords == 0 ? 0 : pRandom.nextInt(31);
+		return card;
+	}
+
+	/**
+	 * Method used to compute the Luhn check digit of a card number
+	 *
+	 * @param pNumber
+	 *            card number without check digit
+	 * @return the check digit
+	 */
+	private static int luhn(final CharSequence pNumber) {
+		int sum = 0;
+		for (int i = 0; i < pNumber.length(); i++) {
+			int digit = pNumber.charAt(pNumber.length() - 1 - i) - '0';
+			if (i % 2 == 0) {
+				digit *= 2;
+				if (digit > 9) {
+					digit -= 9;
+				}
+			}
+			sum += digit;
+		}
+		return (10 - sum % 10) % 10;
+	}
+
+	/**
+	 * Private constructor (use a profile)
+	 */
+	private VirtualCard() {
+	}
+
+	/**
+	 * Method used to get the records listed by the AFL
+	 *
+	 * @return records (SFI << 8 | record)
+	 */
+	int[] getRecords() {
+		int count = 0;
+		for (int i = 0; i + 3 < afl.length; i += 4) {
+			count += Math.max(0, (afl[i + 2] & 0xFF) - (afl[i + 1] & 0xFF) + 1);
+		}
+		int[] ret = new int[count];
+		int index = 0;
+		for (int i = 0; i + 3 < afl.length; i += 4) {
+			for (int record = afl[i + 1] & 0xFF; record <= (afl[i + 2] & 0xFF); record++) {
+				ret[index++] = (afl[i] & 0xFF) >> 3 << 8 | record;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to get the length of the PDOL data
+	 *
+	 * @return the length expected in the GPO command
+	 */
+	int getPdolLength() {
+		int ret = 0;
+		if (pdol != null) {
+			for (int i = 0; i < pdol.length; i++) {
+				// skip the tag (2 bytes if the low bits of the first byte are set)
+				if ((pdol[i] & 0x1F) == 0x1F) {
+					i++;
+				}
+				i++;
+				ret += pdol[i] & 0xFF;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to get the response of the PPSE selection
+	 *
+	 * @return the FCI (without status word)
+	 */
+	byte[] getPpseFci() {
+		byte[] entry = tlv("61", tlv("4F", aid), tlv("50", applicationLabel.getBytes()), tlv("87", new byte[] { 1 }));
+		return tlv("6F", tlv("84", PPSE), tlv("A5", tlv("BF0C", entry)));
+	}
+
+	/**
+	 * Method used to get the response of the application selection
+	 *
+	 * @return the FCI (without status word)
+	 */
+	byte[] getApplicationFci() {
+		byte[] logEntry = logRecords == 0 ? new byte[0] : tlv("BF0C", tlv(visaLogEntry ? "DF60" : "9F4D", new byte[] {
+				(byte) logSfi, (byte) logRecords }));
+		byte[] pdolTlv = pdol == null ? new byte[0] : tlv("9F38", pdol);
+		return tlv("6F", tlv("84", aid), tlv("A5", tlv("50", applicationLabel.getBytes()), pdolTlv, logEntry));
+	}
+
+	/**
+	 * Method used to get the response of the GPO (format 2)
+	 *
+	 * @return the response template (without status word)
+	 */
+	byte[] getGpoResponse() {
+		byte[] track2 = track2InGpo ? getTrack2() : new byte[0];
+		return tlv("77", tlv("82", new byte[] { 0x19, (byte) 0x80 }), tlv("94", afl), track2);
+	}
+
+	/**
+	 * Method used to get a record of the AFL
+	 *
+	 * @param pSfi
+	 *            short file identifier
+	 * @param pRecord
+	 *            record number
+	 * @return the record template (without status word) or null if the record does not exist
+	 */
+	byte[] getRecord(final int pSfi, final int pRecord) {
+		int key = pSfi << 8 | pRecord;
+		boolean found = false;
+		for (int record : getRecords()) {
+			found |= record == key;
+		}
+		if (!found) {
+			return null;
+		}
+		byte[] track2 = !track2InGpo && key == track2Record ? getTrack2() : new byte[0];
+		byte[] name = holderName != null && key == nameRecord ? tlv("5F20", holderName.getBytes()) : new byte[0];
+		// issuer country code and application usage control as filler
+		return tlv("70", track2, name, tlv("5F28", new byte[] { 0x02, 0x50 }), tlv("9F07", new byte[] { (byte) 0xFF, 0x00 }));
+	}
+
+	/**
+	 * Method used to get a transaction log record
+	 *
+	 * @param pSfi
+	 *            short file identifier
+	 * @param pRecord
+	 *            record number
+	 * @return the log record (values of the log format, without status word) or null if the record does not exist
+	 */
+	byte[] getLogRecord(final int pSfi, final int pRecord) {
+		if (pSfi != logSfi || pRecord < 1 || pRecord > logRecords) {
+			return null;
+		}
+		String amount = String.format("%012d", pRecord * 1250L);
+		String date = String.format("24%02d%02d", 1 + pRecord % 12, 1 + pRecord % 28);
+		return BytesUtils.fromString(amount + "40" + "0250" + "0978" + date + "00" + "123456");
+	}
+
+	/**
+	 * Method used to get the log format
+	 *
+	 * @return the log format or null if the card has no log
+	 */
+	byte[] getLogFormat() {
+		return logRecords == 0 ? null : LOG_FORMAT.clone();
+	}
+
+	/**
+	 * Method used to get the track 2 equivalent data TLV
+	 *
+	 * @return the TLV
+	 */
+	private byte[] getTrack2() {
+		String track2 = cardNumber + "D" + expireDate + serviceCode + "0000000000";
+		if (track2.length() % 2 != 0) {
+			track2 += "F";
+		}
+		return tlv("57", BytesUtils.fromString(track2));
+	}
+
+	/**
+	 * Method used to encode a TLV
+	 *
+	 * @param pTag
+	 *            tag in hexa
+	 * @param pValues
+	 *            concatenated values
+	 * @return the TLV
+	 */
+	static byte[] tlv(final String pTag, final byte[]... pValues) {
+		ByteArrayOutputStream value = new ByteArrayOutputStream();
+		for (byte[] part : pValues) {
+			value.write(part, 0, part.length);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] tag = BytesUtils.fromString(pTag);
+		out.write(tag, 0, tag.length);
+		int length = value.size();
+		if (length > 0xFF) {
+			out.write(0x82);
+			out.write(length >> 8);
+		} else if (length > 0x7F) {
+			out.write(0x81);
+		}
+		out.write(length);
+		byte[] data = value.toByteArray();
+		out.write(data, 0, data.length);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Method used to know if an AID (or a prefix of the AID) selects the application
+	 *
+	 * @param pAid
+	 *            selected name
+	 * @return true if the application is selected
+	 */
+	boolean isSelectedBy(final byte[] pAid) {
+		if (pAid.length == 0 || pAid.length > aid.length) {
+			return false;
+		}
+		for (int i = 0; i < pAid.length; i++) {
+			if (pAid[i] != aid[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Method used to get the field pinTryCounter
+	 *
+	 * @return the pinTryCounter (-1 if not available)
+	 */
+	int getPinTryCounter() {
+		return pinTryCounter;
+	}
+
+	/**
+	 * Method used to know if the card answers the PPSE selection
+	 *
+	 * @return true if the PPSE is available
+	 */
+	boolean isPpse() {
+		return ppse;
+	}
+
+	/**
+	 * Method used to get the field cardNumber
+	 *
+	 * @return the cardNumber
+	 */
+	public String getCardNumber() {
+		return cardNumber;
+	}
+
+	/**
+	 * Setter for the field cardNumber
+	 *
+	 * @param pCardNumber
+	 *            the cardNumber to set
+	 * @return this card
+	 */
+	public VirtualCard setCardNumber(final String pCardNumber) {
+		cardNumber = pCardNumber;
+		return this;
+	}
+
+	/**
+	 * Method used to get the field expireDate
+	 *
+	 * @return the expireDate (YYMM)
+	 */
+	public String getExpireDate() {
+		return expireDate;
+	}
+
+	/**
+	 * Setter for the field expireDate
+	 *
+	 * @param pExpireDate
+	 *            the expireDate to set (YYMM)
+	 * @return this card
+	 */
+	public VirtualCard setExpireDate(final String pExpireDate) {
+		expireDate = pExpireDate;
+		return this;
+	}
+
+	/**
+	 * Method used to get the field holderName
+	 *
+	 * @return the holderName ("LASTNAME/FIRSTNAME") or null
+	 */
+	public String getHolderName() {
+		return holderName;
+	}
+
+	/**
+	 * Setter for the field holderName
+	 *
+	 * @param pHolderName
+	 *            the holderName to set ("LASTNAME/FIRSTNAME") or null
+	 * @return this card
+	 */
+	public VirtualCard setHolderName(final String pHolderName) {
+		holderName = pHolderName;
+		return this;
+	}
+
+	/**
+	 * Setter for the field pdol
+	 *
+	 * @param pPdol
+	 *            the PDOL to set (tags and lengths) or null
+	 * @return this card
+	 */
+	public VirtualCard setPdol(final byte[] pPdol) {
+		pdol = pPdol == null ? null : pPdol.clone();
+		return this;
+	}
+
+	/**
+	 * Setter for the field afl
+	 *
+	 * @param pAfl
+	 *            the AFL to set (4 bytes by entry)
+	 * @return this card
+	 */
+	public VirtualCard setAfl(final byte[] pAfl) {
+		afl = pAfl.clone();
+		return this;
+	}
+
+	/**
+	 * Setter for the position of the track 2
+	 *
+	 * @param pInGpo
+	 *            true to return the track 2 in the GPO response
+	 * @param pSfi
+	 *            SFI of the record containing the track 2 (if not in the GPO response)
+	 * @param pRecord
+	 *            record containing the track 2 (if not in the GPO response)
+	 * @return this card
+	 */
+	public VirtualCard setTrack2Record(final boolean pInGpo, final int pSfi, final int pRecord) {
+		track2InGpo = pInGpo;
+		track2Record = pSfi << 8 | pRecord;
+		return this;
+	}
+
+	/**
+	 * Setter for the record containing the card holder name
+	 *
+	 * @param pSfi
+	 *            SFI of the record
+	 * @param pRecord
+	 *            record number
+	 * @return this card
+	 */
+	public VirtualCard setNameRecord(final int pSfi, final int pRecord) {
+		nameRecord = pSfi << 8 | pRecord;
+		return this;
+	}
+
+	/**
+	 * Setter for the field pinTryCounter
+	 *
+	 * @param pPinTryCounter
+	 *            the pinTryCounter to set (-1 if not available)
+	 * @return this card
+	 */
+	public VirtualCard setPinTryCounter(final int pPinTryCounter) {
+		pinTryCounter = pPinTryCounter;
+		return this;
+	}
+
+	/**
+	 * Setter for the field logRecords
+	 *
+	 * @param pLogRecords
+	 *            the number of transaction log records to set (0 for no log)
+	 * @return this card
+	 */
+	public VirtualCard setLogRecords(final int pLogRecords) {
+		logRecords = pLogRecords;
+		return this;
+	}
+
+	/**
+	 * Setter for the field ppse
+	 *
+	 * @param pPpse
+	 *            true if the card answers the PPSE selection
+	 * @return this card
+	 */
+	public VirtualCard setPpse(final boolean pPpse) {
+		ppse = pPpse;
+		return this;
+	}
+
+}
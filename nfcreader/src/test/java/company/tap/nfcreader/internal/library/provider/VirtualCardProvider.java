@@ -0,0 +1,468 @@
+package company.tap.nfcreader.internal.library.provider;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+import company.tap.nfcreader.internal.library.exception.CommunicationException;
+import company.tap.nfcreader.internal.library.parser.IProvider;
+
+/**
+ * Provider simulating an EMV card ({@link VirtualCard}) to measure the parser without NFC.<br/>
+ * The card answers SELECT (PPSE and AID, partial selection allowed), GPO (the PDOL data length is checked), READ
+ * RECORD (AFL and transaction log records), GET DATA 9F17/9F4F and GET RESPONSE. A latency and a status word can be
+ * injected for each instruction: 6Cxx (wrong Le, the command must be sent again with the right Le) or 61xx (the data
+ * must be read with GET RESPONSE).
+ *
+ */
+public class VirtualCardProvider implements IProvider {
+
+	/**
+	 * Status word injected for an instruction
+	 */
+	public enum Injection {
+
+		/**
+		 * Data returned with 9000
+		 */
+		NONE,
+
+		/**
+		 * 6Cxx returned when the Le of the command is not the length of the data
+		 */
+		WRONG_LE,
+
+		/**
+		 * 61xx returned, the data are read with GET RESPONSE
+		 */
+		GET_RESPONSE
+	}
+
+	/**
+	 * Instruction SELECT
+	 */
+	private static final int INS_SELECT = 0xA4;
+
+	/**
+	 * Instruction GET PROCESSING OPTIONS
+	 */
+	private static final int INS_GPO = 0xA8;
+
+	/**
+	 * Instruction READ RECORD
+	 */
+	private static final int INS_READ_RECORD = 0xB2;
+
+	/**
+	 * Instruction GET DATA
+	 */
+	private static final int INS_GET_DATA = 0xCA;
+
+	/**
+	 * Instruction GET RESPONSE
+	 */
+	private static final int INS_GET_RESPONSE = 0xC0;
+
+	/**
+	 * Status word: success
+	 */
+	private static final int SW_OK = 0x9000;
+
+	/**
+	 * Status word: wrong length
+	 */
+	private static final int SW_WRONG_LENGTH = 0x6700;
+
+	/**
+	 * Status word: conditions of use not satisfied
+	 */
+	private static final int SW_CONDITIONS_NOT_SATISFIED = 0x6985;
+
+	/**
+	 * Status word: file not found
+	 */
+	private static final int SW_FILE_NOT_FOUND = 0x6A82;
+
+	/**
+	 * Status word: record not found
+	 */
+	private static final int SW_RECORD_NOT_FOUND = 0x6A83;
+
+	/**
+	 * Status word: referenced data not found
+	 */
+	private static final int SW_DATA_NOT_FOUND = 0x6A88;
+
+	/**
+	 * Status word: instruction not supported
+	 */
+	private static final int SW_INS_NOT_SUPPORTED = 0x6D00;
+
+	/**
+	 * Simulated card
+	 */
+	private final VirtualCard card;
+
+	/**
+	 * Latency by instruction (nanoseconds, -1 for the default latency)
+	 */
+	private final long[] latencies = new long[256];
+
+	/**
+	 * Default latency (nanoseconds)
+	 */
+	private long latency;
+
+	/**
+	 * Injected status word by instruction
+	 */
+	private final Injection[] injections = new Injection[256];
+
+	/**
+	 * Number of commands by instruction
+	 */
+	private final int[] commands = new int[256];
+
+	/**
+	 * True if the application is selected
+	 */
+	private boolean selected;
+
+	/**
+	 * Status word of the last failed instruction
+	 */
+	private int lastError;
+
+	/**
+	 * Data waiting for GET RESPONSE (or null)
+	 */
+	private byte[] pending;
+
+	/**
+	 * Position of the next byte of the pending data
+	 */
+	private int pendingOffset;
+
+	/**
+	 * Constructor
+	 *
+	 * @param pCard
+	 *            simulated card
+	 */
+	public VirtualCardProvider(final VirtualCard pCard) {
+		card = pCard;
+		Arrays.fill(latencies, -1);
+		Arrays.fill(injections, Injection.NONE);
+	}
+
+	@Override
+	public byte[] transceive(final byte[] pCommand) throws CommunicationException {
+		if (pCommand == null || pCommand.length < 4) {
+			throw new CommunicationException("Invalid command");
+		}
+		int ins = pCommand[1] & 0xFF;
+		commands[ins]++;
+		long pause = latencies[ins] >= 0 ? latencies[ins] : latency;
+		if (pause > 0) {
+			LockSupport.parkNanos(pause);
+		}
+		if (ins == INS_GET_RESPONSE) {
+			return getResponse(pCommand);
+		}
+		pending = null;
+		byte[] data;
+		switch (ins) {
+		case INS_SELECT:
+			data = select(getData(pCommand));
+			break;
+		case INS_GPO:
+			data = gpo(getData(pCommand));
+			break;
+		case INS_READ_RECORD:
+			data = readRecord(pCommand[2] & 0xFF, (pCommand[3] & 0xFF) >> 3);
+			break;
+		case INS_GET_DATA:
+			data = getData(pCommand[2] & 0xFF, pCommand[3] & 0xFF);
+			break;
+		default:
+			return status(SW_INS_NOT_SUPPORTED);
+		}
+		if (data == null) {
+			return status(lastError);
+		}
+		return respond(ins, pCommand, data);
+	}
+
+	/**
+	 * Method used to answer data with the injected status word
+	 *
+	 * @param pIns
+	 *            instruction
+	 * @param pCommand
+	 *            command
+	 * @param pData
+	 *            response data
+	 * @return the response
+	 */
+	private byte[] respond(final int pIns, final byte[] pCommand, final byte[] pData) {
+		switch (injections[pIns]) {
+		case WRONG_LE:
+			int le = getLe(pCommand);
+			if (pData.length <= 0xFF && le != pData.length) {
+				return status(0x6C00 | pData.length);
+			}
+			break;
+		case GET_RESPONSE:
+			if (pData.length > 0) {
+				pending = pData;
+				pendingOffset = 0;
+				return status(0x6100 | Math.min(pData.length, 0xFF));
+			}
+			break;
+		default:
+			break;
+		}
+		return withStatus(pData, SW_OK);
+	}
+
+	/**
+	 * Method used to answer GET RESPONSE
+	 *
+	 * @param pCommand
+	 *            command
+	 * @return the next pending data
+	 */
+	private byte[] getResponse(final byte[] pCommand) {
+		if (pending == null) {
+			return status(SW_CONDITIONS_NOT_SATISFIED);
+		}
+		int le = getLe(pCommand);
+		int length = Math.min(le <= 0 ? 0x100 : le, pending.length - pendingOffset);
+		byte[] data = Arrays.copyOfRange(pending, pendingOffset, pendingOffset + length);
+		pendingOffset += length;
+		int remaining = pending.length - pendingOffset;
+		if (remaining == 0) {
+			pending = null;
+			return withStatus(data, SW_OK);
+		}
+		return withStatus(data, 0x6100 | Math.min(remaining, 0xFF));
+	}
+
+	/**
+	 * Method used to answer SELECT
+	 *
+	 * @param pName
+	 *            selected name
+	 * @return the FCI or null
+	 */
+	private byte[] select(final byte[] pName) {
+		selected = false;
+		if (Arrays.equals(pName, VirtualCard.PPSE)) {
+			if (card.isPpse()) {
+				return card.getPpseFci();
+			}
+		} else if (card.isSelectedBy(pName)) {
+			selected = true;
+			return card.getApplicationFci();
+		}
+		lastError = SW_FILE_NOT_FOUND;
+		return null;
+	}
+
+	/**
+	 * Method used to answer GET PROCESSING OPTIONS
+	 *
+	 * @param pData
+	 *            command template (83 length PDOL data)
+	 * @return the response template or null
+	 */
+	private byte[] gpo(final byte[] pData) {
+		if (!selected) {
+			lastError = SW_CONDITIONS_NOT_SATISFIED;
+			return null;
+		}
+		if (pData.length < 2 || (pData[0] & 0xFF) != 0x83 || (pData[1] & 0xFF) != pData.length - 2
+				|| pData.length - 2 != card.getPdolLength()) {
+			lastError = SW_WRONG_LENGTH;
+			return null;
+		}
+		return card.getGpoResponse();
+	}
+
+	/**
+	 * Method used to answer READ RECORD
+	 *
+	 * @param pRecord
+	 *            record number
+	 * @param pSfi
+	 *            short file identifier
+	 * @return the record or null
+	 */
+	private byte[] readRecord(final int pRecord, final int pSfi) {
+		if (!selected) {
+			lastError = SW_CONDITIONS_NOT_SATISFIED;
+			return null;
+		}
+		byte[] ret = card.getLogRecord(pSfi, pRecord);
+		if (ret == null) {
+			ret = card.getRecord(pSfi, pRecord);
+		}
+		if (ret == null) {
+			lastError = SW_RECORD_NOT_FOUND;
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to answer GET DATA
+	 *
+	 * @param pP1
+	 *            first byte of the tag
+	 * @param pP2
+	 *            second byte of the tag
+	 * @return the data object or null
+	 */
+	private byte[] getData(final int pP1, final int pP2) {
+		lastError = SW_DATA_NOT_FOUND;
+		if (!selected) {
+			lastError = SW_CONDITIONS_NOT_SATISFIED;
+		} else if (pP1 == 0x9F && pP2 == 0x17 && card.getPinTryCounter() >= 0) {
+			return VirtualCard.tlv("9F17", new byte[] { (byte) card.getPinTryCounter() });
+		} else if (pP1 == 0x9F && pP2 == 0x4F && card.getLogFormat() != null) {
+			return VirtualCard.tlv("9F4F", card.getLogFormat());
+		}
+		return null;
+	}
+
+	/**
+	 * Method used to get the data field of a command
+	 *
+	 * @param pCommand
+	 *            command
+	 * @return the data field (empty if none)
+	 */
+	private static byte[] getData(final byte[] pCommand) {
+		if (pCommand.length <= 5) {
+			return new byte[0];
+		}
+		int lc = pCommand[4] & 0xFF;
+		return Arrays.copyOfRange(pCommand, 5, Math.min(5 + lc, pCommand.length));
+	}
+
+	/**
+	 * Method used to get the Le of a command
+	 *
+	 * @param pCommand
+	 *            command
+	 * @return the Le (0 for 256) or -1 if the command has no Le
+	 */
+	private static int getLe(final byte[] pCommand) {
+		if (pCommand.length == 5) {
+			return pCommand[4] & 0xFF;
+		}
+		if (pCommand.length > 5 && pCommand.length == 6 + (pCommand[4] & 0xFF)) {
+			return pCommand[pCommand.length - 1] & 0xFF;
+		}
+		return -1;
+	}
+
+	/**
+	 * Method used to append a status word to data
+	 *
+	 * @param pData
+	 *            data
+	 * @param pSw
+	 *            status word
+	 * @return the response
+	 */
+	private static byte[] withStatus(final byte[] pData, final int pSw) {
+		byte[] ret = Arrays.copyOf(pData, pData.length + 2);
+		ret[pData.length] = (byte) (pSw >> 8);
+		ret[pData.length + 1] = (byte) pSw;
+		return ret;
+	}
+
+	/**
+	 * Method used to create a response without data
+	 *
+	 * @param pSw
+	 *            status word
+	 * @return the response
+	 */
+	private static byte[] status(final int pSw) {
+		return new byte[] { (byte) (pSw >> 8), (byte) pSw };
+	}
+
+	/**
+	 * Method used to set the latency of every command
+	 *
+	 * @param pMicros
+	 *            latency in microseconds
+	 * @return this provider
+	 */
+	public VirtualCardProvider setLatency(final long pMicros) {
+		latency = pMicros * 1000L;
+		return this;
+	}
+
+	/**
+	 * Method used to set the latency of an instruction
+	 *
+	 * @param pIns
+	 *            instruction (for example 0xB2 for READ RECORD)
+	 * @param pMicros
+	 *            latency in microseconds (-1 for the latency of every command)
+	 * @return this provider
+	 */
+	public VirtualCardProvider setLatency(final int pIns, final long pMicros) {
+		latencies[pIns & 0xFF] = pMicros < 0 ? -1 : pMicros * 1000L;
+		return this;
+	}
+
+	/**
+	 * Method used to inject a status word for an instruction
+	 *
+	 * @param pIns
+	 *            instruction (for example 0xB2 for READ RECORD)
+	 * @param pInjection
+	 *            injected status word
+	 * @return this provider
+	 */
+	public VirtualCardProvider setInjection(final int pIns, final Injection pInjection) {
+		injections[pIns & 0xFF] = pInjection;
+		return this;
+	}
+
+	/**
+	 * Method used to get the number of commands sent
+	 *
+	 * @return the number of commands
+	 */
+	public int getCommands() {
+		int ret = 0;
+		for (int count : commands) {
+			ret += count;
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to get the number of commands sent for an instruction
+	 *
+	 * @param pIns
+	 *            instruction (for example 0xB2 for READ RECORD)
+	 * @return the number of commands
+	 */
+	public int getCommands(final int pIns) {
+		return commands[pIns & 0xFF];
+	}
+
+	/**
+	 * Method used to reset the card (application not selected, counters cleared)
+	 */
+	public void reset() {
+		selected = false;
+		pending = null;
+		Arrays.fill(commands, 0);
+	}
+
+}
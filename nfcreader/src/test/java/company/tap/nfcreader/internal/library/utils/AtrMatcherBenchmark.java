@@ -0,0 +1,154 @@
+package company.tap.nfcreader.internal.library.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.benchmark.Benchmark;
+
+public class AtrMatcherBenchmark {
+
+	private static Map<String, List<String>> patterns;
+
+	private static final List<Pattern> REGEX = new ArrayList<Pattern>();
+
+	private static final AtrMatcher MATCHER = new AtrMatcher();
+
+	/**
+	 * ATR of the list without wildcard (one in 50) and an unknown ATR
+	 */
+	private static final List<String> ATRS = new ArrayList<String>();
+
+	/**
+	 * Historical bytes of the ATRS, as in an ATS
+	 */
+	private static final List<String> ATS = new ArrayList<String>();
+
+	@BeforeClass
+	public static void load() throws Exception {
+		// the whole class is skipped before the smartcard list is compiled
+		Benchmark.assumeEnabled();
+		patterns = AtrMatcherTest.readList();
+		int i = 0;
+		for (Map.Entry<String, List<String>> entry : patterns.entrySet()) {
+			String pattern = entry.getKey();
+			for (String description : entry.getValue()) {
+				MATCHER.add(pattern, description);
+			}
+			REGEX.add(Pattern.compile("^" + pattern + "$"));
+			if (pattern.matches("[0-9A-F]+") && i++ % 50 == 0) {
+				ATRS.add(pattern);
+				ATS.add(pattern.substring(Math.max(0, pattern.length() - 16)));
+			}
+		}
+		ATRS.add("3B8F8001804F0CA0000003060300030000000068");
+		ATS.add("78807002");
+	}
+
+	/**
+	 * ATR lookup done before the matcher: regex compiled for each key
+	 */
+	private static List<String> getDescriptionWithRegex(final String pAtr) {
+		for (Map.Entry<String, List<String>> entry : patterns.entrySet()) {
+			if (pAtr.matches("^" + entry.getKey() + "$")) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * ATS lookup done before the matcher: backward scan of every key
+	 */
+	private static List<String> getDescriptionFromAtsWithScan(final String pAts) {
+		List<String> ret = new ArrayList<String>();
+		for (Map.Entry<String, List<String>> entry : patterns.entrySet()) {
+			String key = entry.getKey();
+			int j = pAts.length() - 1;
+			int i = key.length() - 1;
+			while (i >= 0) {
+				if (key.charAt(i) == '.' || key.charAt(i) == pAts.charAt(j)) {
+					j--;
+					i--;
+					if (j < 0) {
+						if (!key.substring(key.length() - pAts.length(), key.length()).replace(".", "").isEmpty()) {
+							ret.addAll(entry.getValue());
+						}
+						break;
+					}
+				} else if (j != pAts.length() - 1) {
+					j = pAts.length() - 1;
+				} else if (i == key.length() - 1) {
+					break;
+				} else {
+					i--;
+					break;
+				}
+			}
+		}
+		return ret;
+	}
+
+	private static int size(final List<String> pList) {
+		return pList == null ? 0 : pList.size();
+	}
+
+	@Test
+	public void benchmarkGetDescription() throws Exception {
+		Benchmark.run("ATR regex per key", new Benchmark.Operation() {
+			private int i;
+
+			@Override
+			public int run() {
+				return size(getDescriptionWithRegex(ATRS.get(i++ % ATRS.size())));
+			}
+		});
+		Benchmark.run("ATR compiled regex scan", new Benchmark.Operation() {
+			private int i;
+
+			@Override
+			public int run() {
+				String atr = ATRS.get(i++ % ATRS.size());
+				for (Pattern pattern : REGEX) {
+					if (pattern.matcher(atr).matches()) {
+						return pattern.pattern().length();
+					}
+				}
+				return 0;
+			}
+		});
+		Benchmark.run("AtrMatcher.getDescription", new Benchmark.Operation() {
+			private int i;
+
+			@Override
+			public int run() {
+				return size(MATCHER.getDescription(ATRS.get(i++ % ATRS.size())));
+			}
+		});
+	}
+
+	@Test
+	public void benchmarkGetDescriptionFromAts() throws Exception {
+		Benchmark.run("ATS scan", new Benchmark.Operation() {
+			private int i;
+
+			@Override
+			public int run() {
+				return size(getDescriptionFromAtsWithScan(ATS.get(i++ % ATS.size())));
+			}
+		});
+		Benchmark.run("AtrMatcher.getDescriptionFromAts", new Benchmark.Operation() {
+			private int i;
+
+			@Override
+			public int run() {
+				return size(MATCHER.getDescriptionFromAts(ATS.get(i++ % ATS.size())));
+			}
+		});
+	}
+
+}
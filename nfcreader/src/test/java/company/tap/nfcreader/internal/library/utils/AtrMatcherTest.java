@@ -0,0 +1,212 @@
+package company.tap.nfcreader.internal.library.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class AtrMatcherTest {
+
+	private static final String HEX = "0123456789ABCDEF";
+
+	private static final Pattern ATOM = Pattern.compile("\\[[^\\]]*\\]\\*?|.\\*?");
+
+	/**
+	 * Descriptions by ATR pattern, in the order of the smartcard list
+	 */
+	private static final Map<String, List<String>> PATTERNS = new LinkedHashMap<String, List<String>>();
+
+	private static final List<Pattern> REGEX = new ArrayList<Pattern>();
+
+	private static final List<List<String>> DESCRIPTIONS = new ArrayList<List<String>>();
+
+	private static final AtrMatcher MATCHER = new AtrMatcher();
+
+	private static final Map<String, Pattern> ATOM_PATTERNS = new HashMap<String, Pattern>();
+
+	/**
+	 * Method used to read the smartcard list: descriptions by ATR pattern, in the order of the list
+	 */
+	static Map<String, List<String>> readList() throws IOException {
+		Map<String, List<String>> ret = new LinkedHashMap<String, List<String>>();
+		BufferedReader br = new BufferedReader(new InputStreamReader(
+				new FileInputStream(new File("src/main/res/raw/smartcard_list.txt")), "UTF-8"));
+		try {
+			String line;
+			String currentATR = null;
+			while ((line = br.readLine()) != null) {
+				if (line.startsWith("#") || line.trim().length() == 0) {
+					continue;
+				} else if (line.startsWith("\t") && currentATR != null) {
+					List<String> descriptions = ret.get(currentATR);
+					if (descriptions == null) {
+						descriptions = new ArrayList<String>();
+						ret.put(currentATR, descriptions);
+					}
+					descriptions.add(line.replace("\t", "").trim());
+				} else if (line.startsWith("3")) {
+					currentATR = line.toUpperCase().replaceAll("\\s", "");
+				}
+			}
+		} finally {
+			br.close();
+		}
+		return ret;
+	}
+
+	@BeforeClass
+	public static void loadList() throws IOException {
+		PATTERNS.putAll(readList());
+		for (Map.Entry<String, List<String>> entry : PATTERNS.entrySet()) {
+			for (String description : entry.getValue()) {
+				MATCHER.add(entry.getKey(), description);
+			}
+			REGEX.add(Pattern.compile("^" + entry.getKey() + "$"));
+			DESCRIPTIONS.add(entry.getValue());
+		}
+	}
+
+	/**
+	 * Lookup done before the matcher: first regex of the list matching the ATR
+	 */
+	private static List<String> referenceAtr(final String pAtr) {
+		for (int i = 0; i < REGEX.size(); i++) {
+			if (REGEX.get(i).matcher(pAtr).matches()) {
+				return DESCRIPTIONS.get(i);
+			}
+		}
+		return null;
+	}
+
+	private static List<String> atoms(final String pPattern) {
+		List<String> ret = new ArrayList<String>();
+		Matcher matcher = ATOM.matcher(pPattern);
+		while (matcher.find()) {
+			ret.add(matcher.group());
+		}
+		return ret;
+	}
+
+	private static boolean matches(final String pAtom, final char pChar) {
+		Pattern pattern = ATOM_PATTERNS.get(pAtom);
+		if (pattern == null) {
+			pattern = Pattern.compile(pAtom);
+			ATOM_PATTERNS.put(pAtom, pattern);
+		}
+		return pattern.matcher(String.valueOf(pChar)).matches();
+	}
+
+	/**
+	 * Patterns ending with the ATS: the last atoms of the pattern match the ATS and are not all wildcards
+	 */
+	private static List<String> referenceAts(final Map<List<String>, List<String>> pPatterns, final String pAts) {
+		List<String> ret = new ArrayList<String>();
+		for (Map.Entry<List<String>, List<String>> entry : pPatterns.entrySet()) {
+			List<String> atoms = entry.getKey();
+			int start = atoms.size() - pAts.length();
+			if (start < 0) {
+				continue;
+			}
+			boolean significant = false;
+			boolean match = true;
+			for (int i = 0; match && i < pAts.length(); i++) {
+				String atom = atoms.get(start + i);
+				significant |= !".".equals(atom);
+				match = matches(atom, pAts.charAt(i));
+			}
+			if (match && significant) {
+				ret.addAll(entry.getValue());
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to create a value matching a pattern
+	 */
+	private static String instance(final Random pRandom, final String pPattern) {
+		StringBuilder ret = new StringBuilder();
+		for (String atom : atoms(pPattern)) {
+			int count = 1;
+			if (atom.endsWith("*")) {
+				atom = atom.substring(0, atom.length() - 1);
+				count = pRandom.nextInt(4);
+			}
+			for (int i = 0; i < count; i++) {
+				char c;
+				do {
+					c = HEX.charAt(pRandom.nextInt(HEX.length()));
+				} while (!String.valueOf(c).matches(atom));
+				ret.append(c);
+			}
+		}
+		return ret.toString();
+	}
+
+	private static String mutate(final Random pRandom, final String pValue) {
+		if (pValue.length() == 0) {
+			return pValue;
+		}
+		char[] chars = pValue.toCharArray();
+		chars[pRandom.nextInt(chars.length)] = HEX.charAt(pRandom.nextInt(HEX.length()));
+		return new String(chars);
+	}
+
+	@Test
+	public void testAtrSameAsRegex() {
+		Random random = new Random(4);
+		List<String> patterns = new ArrayList<String>(PATTERNS.keySet());
+		for (int i = 0; i < 1000; i++) {
+			String atr = instance(random, patterns.get(random.nextInt(patterns.size())));
+			if (random.nextInt(3) == 0) {
+				atr = mutate(random, atr);
+			}
+			assertEquals(atr, referenceAtr(atr), MATCHER.getDescription(atr));
+		}
+		assertNull(MATCHER.getDescription("3B00"));
+		assertNull(MATCHER.getDescription(""));
+	}
+
+	@Test
+	public void testAtsEndOfPattern() {
+		// the reference compares the atoms one by one: patterns with a repeated atom are left out
+		Map<List<String>, List<String>> fixed = new LinkedHashMap<List<String>, List<String>>();
+		List<String> patterns = new ArrayList<String>();
+		AtrMatcher matcher = new AtrMatcher();
+		for (Map.Entry<String, List<String>> entry : PATTERNS.entrySet()) {
+			if (entry.getKey().indexOf('*') < 0) {
+				fixed.put(atoms(entry.getKey()), entry.getValue());
+				patterns.add(entry.getKey());
+				for (String description : entry.getValue()) {
+					matcher.add(entry.getKey(), description);
+				}
+			}
+		}
+		Random random = new Random(5);
+		for (int i = 0; i < 300; i++) {
+			String atr = instance(random, patterns.get(random.nextInt(patterns.size())));
+			String ats = atr.substring(Math.max(0, atr.length() - 2 - random.nextInt(24)));
+			if (random.nextInt(3) == 0) {
+				ats = mutate(random, ats);
+			}
+			assertEquals(ats, referenceAts(fixed, ats), matcher.getDescriptionFromAts(ats));
+		}
+		assertEquals(0, matcher.getDescriptionFromAts("").size());
+	}
+
+}
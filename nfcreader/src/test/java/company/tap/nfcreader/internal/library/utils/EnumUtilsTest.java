@@ -0,0 +1,103 @@
+package company.tap.nfcreader.internal.library.utils;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.model.enums.CardTypeEnum;
+import company.tap.nfcreader.internal.library.model.enums.CountryCodeEnum;
+import company.tap.nfcreader.internal.library.model.enums.CurrencyEnum;
+import company.tap.nfcreader.internal.library.model.enums.IKeyEnum;
+import company.tap.nfcreader.internal.library.model.enums.ServiceCode1Enum;
+import company.tap.nfcreader.internal.library.model.enums.ServiceCode2Enum;
+import company.tap.nfcreader.internal.library.model.enums.ServiceCode3Enum;
+import company.tap.nfcreader.internal.library.model.enums.TransactionTypeEnum;
+
+public class EnumUtilsTest {
+
+	/**
+	 * Small key range (table index) with duplicate keys
+	 */
+	private enum DenseEnum implements IKeyEnum {
+		FIRST(-2), SECOND(5), DUPLICATE(5), THIRD(7);
+
+		private final int key;
+
+		private DenseEnum(final int pKey) {
+			key = pKey;
+		}
+
+		@Override
+		public int getKey() {
+			return key;
+		}
+	}
+
+	/**
+	 * Large key range (sorted index) with duplicate keys
+	 */
+	private enum SparseEnum implements IKeyEnum {
+		MIN(Integer.MIN_VALUE), FIRST(10), SECOND(100000), DUPLICATE(10), MAX(Integer.MAX_VALUE), LAST(100000);
+
+		private final int key;
+
+		private SparseEnum(final int pKey) {
+			key = pKey;
+		}
+
+		@Override
+		public int getKey() {
+			return key;
+		}
+	}
+
+	/**
+	 * Lookup done before the index: first declared constant with the key
+	 */
+	private static <T extends IKeyEnum> T scan(final int pKey, final Class<T> pClass) {
+		for (T val : pClass.getEnumConstants()) {
+			if (val.getKey() == pKey) {
+				return val;
+			}
+		}
+		return null;
+	}
+
+	private static <T extends IKeyEnum> void assertSameAsScan(final Class<T> pClass, final int pFrom, final int pTo) {
+		for (int key = pFrom; key <= pTo; key++) {
+			assertSame(pClass.getSimpleName() + " " + key, scan(key, pClass), EnumUtils.getValue(key, pClass));
+		}
+	}
+
+	@Test
+	public void testLibraryEnums() {
+		assertSameAsScan(CurrencyEnum.class, -10, 1100);
+		assertSameAsScan(CountryCodeEnum.class, -10, 1100);
+		assertSameAsScan(TransactionTypeEnum.class, -10, 300);
+		assertSameAsScan(ServiceCode1Enum.class, -10, 20);
+		assertSameAsScan(ServiceCode2Enum.class, -10, 20);
+		assertSameAsScan(ServiceCode3Enum.class, -10, 20);
+		assertSameAsScan(CardTypeEnum.class, -10, 20);
+	}
+
+	@Test
+	public void testFirstDeclaredWins() {
+		assertSame(DenseEnum.SECOND, EnumUtils.getValue(5, DenseEnum.class));
+		assertSame(SparseEnum.FIRST, EnumUtils.getValue(10, SparseEnum.class));
+		assertSame(SparseEnum.SECOND, EnumUtils.getValue(100000, SparseEnum.class));
+		assertSameAsScan(DenseEnum.class, -20, 20);
+		assertSameAsScan(SparseEnum.class, -20, 20);
+	}
+
+	@Test
+	public void testLimits() {
+		assertSame(SparseEnum.MIN, EnumUtils.getValue(Integer.MIN_VALUE, SparseEnum.class));
+		assertSame(SparseEnum.MAX, EnumUtils.getValue(Integer.MAX_VALUE, SparseEnum.class));
+		assertNull(EnumUtils.getValue(Integer.MAX_VALUE - 1, SparseEnum.class));
+		assertNull(EnumUtils.getValue(Integer.MIN_VALUE, DenseEnum.class));
+		assertNull(EnumUtils.getValue(Integer.MAX_VALUE, DenseEnum.class));
+		assertNull(EnumUtils.getValue(Integer.MIN_VALUE, CurrencyEnum.class));
+	}
+
+}
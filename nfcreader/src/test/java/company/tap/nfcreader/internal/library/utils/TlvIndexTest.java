@@ -0,0 +1,77 @@
+package company.tap.nfcreader.internal.library.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.exception.TlvException;
+import company.tap.nfcreader.internal.library.iso7816emv.EmvTags;
+import company.tap.nfcreader.internal.library.iso7816emv.ITag;
+
+public class TlvIndexTest {
+
+	private static void assertSameValue(final byte[] pData, final TlvIndex pIndex, final ITag... pTag) {
+		byte[] expected;
+		try {
+			expected = TlvReaderTest.referenceValue(pData, pTag);
+		} catch (TlvException e) {
+			try {
+				pIndex.getValue(pTag);
+				fail("TlvException expected for " + BytesUtils.bytesToStringNoSpace(pData));
+			} catch (TlvException e2) {
+				// same result
+			}
+			return;
+		}
+		assertArrayEquals(expected, pIndex.getValue(pTag));
+		assertArrayEquals(expected, TlvUtil.getValue(pData, pTag));
+		assertEquals(expected != null, pIndex.contains(pTag));
+	}
+
+	@Test
+	public void testSameAsGetNextTlv() {
+		Random random = new Random(2);
+		ITag[] tags = new ITag[TlvReaderTest.PRIMITIVE_TAGS.length + TlvReaderTest.CONSTRUCTED_TAGS.length];
+		for (int i = 0; i < tags.length; i++) {
+			String tag = i < TlvReaderTest.PRIMITIVE_TAGS.length ? TlvReaderTest.PRIMITIVE_TAGS[i]
+					: TlvReaderTest.CONSTRUCTED_TAGS[i - TlvReaderTest.PRIMITIVE_TAGS.length];
+			tags[i] = TlvUtil.getNextTLV(new ByteArrayInputStream(BytesUtils.fromString(tag + "00"))).getTag();
+		}
+		for (int i = 0; i < 10000; i++) {
+			byte[] data = TlvReaderTest.randomTlv(random, 0);
+			if (random.nextBoolean()) {
+				data = TlvReaderTest.damage(random, data);
+			}
+			TlvIndex index = new TlvIndex(data);
+			for (ITag tag : tags) {
+				assertSameValue(data, index, tag);
+			}
+			// first tag found in the data when several tags are given
+			assertSameValue(data, index, tags[random.nextInt(tags.length)], tags[random.nextInt(tags.length)]);
+		}
+	}
+
+	@Test
+	public void testFirstOccurrence() {
+		byte[] data = BytesUtils.fromString("70 0A 61 04 50 02 4142 50 02 4344 50 02 4546");
+		TlvIndex index = new TlvIndex(data);
+		assertArrayEquals(BytesUtils.fromString("4142"), index.getValue(EmvTags.APPLICATION_LABEL));
+		assertArrayEquals(BytesUtils.fromString("4142"),
+				index.getValue(EmvTags.TRACK_2_EQV_DATA, EmvTags.APPLICATION_LABEL));
+	}
+
+	@Test
+	public void testNullData() {
+		TlvIndex index = new TlvIndex(null);
+		assertNull(index.getValue(EmvTags.APPLICATION_LABEL));
+		assertFalse(index.contains(EmvTags.APPLICATION_LABEL));
+	}
+
+}
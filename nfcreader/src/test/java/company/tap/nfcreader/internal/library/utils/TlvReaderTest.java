@@ -0,0 +1,187 @@
+package company.tap.nfcreader.internal.library.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.exception.TlvException;
+import company.tap.nfcreader.internal.library.iso7816emv.EmvTags;
+import company.tap.nfcreader.internal.library.iso7816emv.ITag;
+import company.tap.nfcreader.internal.library.iso7816emv.TLV;
+
+public class TlvReaderTest {
+
+	static final String[] PRIMITIVE_TAGS = { "4F", "50", "57", "5A", "87", "9F17", "5F20", "9F4D", "DF60", "5F2D",
+			"9F6E", "DF8101" };
+
+	static final String[] CONSTRUCTED_TAGS = { "6F", "A5", "70", "77", "61", "BF0C" };
+
+	/**
+	 * Method used to create random TLV data (nested templates, short and long length forms, padding)
+	 */
+	static byte[] randomTlv(final Random pRandom, final int pDepth) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		int count = 1 + pRandom.nextInt(4);
+		for (int i = 0; i < count; i++) {
+			if (pRandom.nextInt(8) == 0) {
+				out.write(pRandom.nextBoolean() ? 0x00 : 0xFF);
+			}
+			byte[] value;
+			String tag;
+			if (pDepth < 3 && pRandom.nextInt(3) == 0) {
+				tag = CONSTRUCTED_TAGS[pRandom.nextInt(CONSTRUCTED_TAGS.length)];
+				value = randomTlv(pRandom, pDepth + 1);
+			} else {
+				tag = PRIMITIVE_TAGS[pRandom.nextInt(PRIMITIVE_TAGS.length)];
+				value = new byte[pRandom.nextInt(pRandom.nextInt(10) == 0 ? 300 : 20)];
+				pRandom.nextBytes(value);
+			}
+			byte[] tagBytes = BytesUtils.fromString(tag);
+			out.write(tagBytes, 0, tagBytes.length);
+			if (value.length > 0xFF || pRandom.nextInt(10) == 0) {
+				out.write(0x82);
+				out.write(value.length >> 8);
+				out.write(value.length);
+			} else if (value.length > 0x7F || pRandom.nextInt(10) == 0) {
+				out.write(0x81);
+				out.write(value.length);
+			} else {
+				out.write(value.length);
+			}
+			out.write(value, 0, value.length);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Method used to damage TLV data (truncation or random byte)
+	 */
+	static byte[] damage(final Random pRandom, final byte[] pData) {
+		byte[] ret = pData.clone();
+		if (pRandom.nextBoolean() && ret.length > 1) {
+			byte[] truncated = new byte[pRandom.nextInt(ret.length)];
+			System.arraycopy(ret, 0, truncated, 0, truncated.length);
+			return truncated;
+		}
+		if (ret.length > 0) {
+			ret[pRandom.nextInt(ret.length)] = (byte) pRandom.nextInt(256);
+		}
+		return ret;
+	}
+
+	/**
+	 * Method used to read TLV data with TlvUtil.getNextTLV (the reading done before the reader)
+	 */
+	static List<TLV> readStream(final byte[] pData) {
+		List<TLV> ret = new ArrayList<TLV>();
+		ByteArrayInputStream stream = new ByteArrayInputStream(pData);
+		while (stream.available() > 0) {
+			ret.add(TlvUtil.getNextTLV(stream));
+		}
+		return ret;
+	}
+
+	/**
+	 * Lookup done before the reader: depth-first walk with TlvUtil.getNextTLV
+	 */
+	static byte[] referenceValue(final byte[] pData, final ITag... pTag) {
+		ByteArrayInputStream stream = new ByteArrayInputStream(pData);
+		while (stream.available() > 0) {
+			TLV tlv = TlvUtil.getNextTLV(stream);
+			if (Arrays.asList(pTag).contains(tlv.getTag())) {
+				return tlv.getValueBytes();
+			} else if (tlv.getTag().isConstructed()) {
+				byte[] ret = referenceValue(tlv.getValueBytes(), pTag);
+				if (ret != null) {
+					return ret;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static List<TLV> readCursor(final byte[] pData) {
+		List<TLV> ret = new ArrayList<TLV>();
+		TlvReader reader = new TlvReader(pData);
+		while (reader.hasNext()) {
+			reader.next();
+			ret.add(reader.toTlv());
+		}
+		return ret;
+	}
+
+	private static void assertSameTlv(final byte[] pData) {
+		List<TLV> expected;
+		try {
+			expected = readStream(pData);
+		} catch (TlvException e) {
+			try {
+				readCursor(pData);
+				fail("TlvException expected for " + BytesUtils.bytesToStringNoSpace(pData));
+			} catch (TlvException e2) {
+				// same result
+			}
+			return;
+		}
+		List<TLV> actual = readCursor(pData);
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertArrayEquals(expected.get(i).getTagBytes(), actual.get(i).getTagBytes());
+			assertEquals(expected.get(i).getLength(), actual.get(i).getLength());
+			assertArrayEquals(expected.get(i).getRawEncodedLengthBytes(), actual.get(i).getRawEncodedLengthBytes());
+			assertArrayEquals(expected.get(i).getValueBytes(), actual.get(i).getValueBytes());
+		}
+	}
+
+	@Test
+	public void testSameAsGetNextTlv() {
+		Random random = new Random(1);
+		for (int i = 0; i < 20000; i++) {
+			byte[] data = randomTlv(random, 0);
+			assertSameTlv(data);
+			assertSameTlv(damage(random, data));
+		}
+	}
+
+	@Test
+	public void testIndefiniteLengthAndPadding() {
+		assertSameTlv(BytesUtils.fromString("00FF 5A 80 4111 0000 FF 50 02 4142 00"));
+		assertSameTlv(BytesUtils.fromString("5A 80 4111"));
+		assertSameTlv(BytesUtils.fromString("FFFF"));
+		assertSameTlv(BytesUtils.fromString("9F"));
+	}
+
+	@Test
+	public void testInPlaceValues() {
+		byte[] data = BytesUtils.fromString("6F 0B 84 02 3F00 A5 05 50 03 414243");
+		TlvReader reader = new TlvReader(data);
+		assertTrue(reader.hasNext());
+		reader.next();
+		assertTrue(reader.matches(EmvTags.FCI_TEMPLATE));
+		assertTrue(reader.isConstructed());
+		assertEquals(2, reader.getValueOffset());
+		assertEquals(11, reader.getValueLength());
+		assertFalse(reader.hasNext());
+
+		TlvReader value = reader.getValueReader();
+		assertTrue(value.hasNext());
+		value.next();
+		assertTrue(value.matches(EmvTags.DEDICATED_FILE_NAME));
+		assertArrayEquals(BytesUtils.fromString("3F00"), value.copyValue());
+		assertEquals(4, value.getValueOffset());
+		assertSame(data, value.getData());
+	}
+
+}
@@ -0,0 +1,177 @@
+package company.tap.nfcreader.internal.library.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.benchmark.Benchmark;
+import company.tap.nfcreader.internal.library.exception.TlvException;
+import company.tap.nfcreader.internal.library.iso7816emv.EmvTags;
+import company.tap.nfcreader.internal.library.iso7816emv.ITag;
+import company.tap.nfcreader.internal.library.iso7816emv.TLV;
+import company.tap.nfcreader.internal.library.parser.EmvParser;
+import company.tap.nfcreader.internal.library.provider.ApduTrace;
+import company.tap.nfcreader.internal.library.provider.RecordingProvider;
+import company.tap.nfcreader.internal.library.provider.VirtualCard;
+import company.tap.nfcreader.internal.library.provider.VirtualCardProvider;
+
+public class TlvUtilBenchmark {
+
+	private static final ITag[] SEARCHED = { EmvTags.TRACK_2_EQV_DATA, EmvTags.TRACK2_DATA };
+
+	/**
+	 * TLV responses (without status word) of the commands sent to read the virtual cards (log records excluded)
+	 */
+	private static final List<byte[]> RESPONSES = new ArrayList<byte[]>();
+
+	@BeforeClass
+	public static void record() throws Exception {
+		// the reads change the parser statistics and caches used by the other tests
+		Benchmark.assumeEnabled();
+		VirtualCard[] profiles = { VirtualCard.visa(), VirtualCard.mastercard(), VirtualCard.amex(), VirtualCard.cb() };
+		for (VirtualCard profile : profiles) {
+			RecordingProvider recording = new RecordingProvider(new VirtualCardProvider(profile));
+			new EmvParser(recording, true).readEmvCard();
+			for (ApduTrace.Exchange exchange : recording.getTrace().getExchanges()) {
+				byte[] response = exchange.getResponse();
+				if (response != null && response.length > 2) {
+					byte[] data = Arrays.copyOf(response, response.length - 2);
+					try {
+						walkWithStream(data);
+						RESPONSES.add(data);
+					} catch (TlvException e) {
+						// transaction log record
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * List lookup done before the reader
+	 */
+	private static List<TLV> getlistWithStream(final byte[] pData, final ITag... pTag) {
+		List<TLV> list = new ArrayList<TLV>();
+		for (TLV tlv : TlvReaderTest.readStream(pData)) {
+			if (CommonsUtils.contains(pTag, tlv.getTag())) {
+				list.add(tlv);
+			} else if (tlv.getTag().isConstructed()) {
+				list.addAll(getlistWithStream(tlv.getValueBytes(), pTag));
+			}
+		}
+		return list;
+	}
+
+	private static int walkWithStream(final byte[] pData) {
+		int ret = 0;
+		for (TLV tlv : TlvReaderTest.readStream(pData)) {
+			ret++;
+			if (tlv.getTag().isConstructed()) {
+				ret += walkWithStream(tlv.getValueBytes());
+			}
+		}
+		return ret;
+	}
+
+	private static int walkWithReader(final TlvReader pReader) {
+		int ret = 0;
+		while (pReader.hasNext()) {
+			pReader.next();
+			ret++;
+			if (pReader.isConstructed()) {
+				ret += walkWithReader(pReader.getValueReader());
+			}
+		}
+		return ret;
+	}
+
+	private static int length(final byte[] pValue) {
+		return pValue == null ? 0 : pValue.length;
+	}
+
+	@Test
+	public void benchmarkWalk() throws Exception {
+		Benchmark.run("TLV walk getNextTLV", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				int ret = 0;
+				for (byte[] response : RESPONSES) {
+					ret += walkWithStream(response);
+				}
+				return ret;
+			}
+		});
+		Benchmark.run("TLV walk TlvReader", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				int ret = 0;
+				for (byte[] response : RESPONSES) {
+					ret += walkWithReader(new TlvReader(response));
+				}
+				return ret;
+			}
+		});
+	}
+
+	@Test
+	public void benchmarkGetValue() throws Exception {
+		Benchmark.run("getValue getNextTLV", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				int ret = 0;
+				for (byte[] response : RESPONSES) {
+					ret += length(TlvReaderTest.referenceValue(response, SEARCHED));
+				}
+				return ret;
+			}
+		});
+		Benchmark.run("TlvUtil.getValue", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				int ret = 0;
+				for (byte[] response : RESPONSES) {
+					ret += length(TlvUtil.getValue(response, SEARCHED));
+				}
+				return ret;
+			}
+		});
+		Benchmark.run("TlvIndex.getValue", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				int ret = 0;
+				for (byte[] response : RESPONSES) {
+					ret += length(new TlvIndex(response).getValue(SEARCHED));
+				}
+				return ret;
+			}
+		});
+	}
+
+	@Test
+	public void benchmarkGetlistTlv() throws Exception {
+		Benchmark.run("getlistTLV getNextTLV", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				int ret = 0;
+				for (byte[] response : RESPONSES) {
+					ret += getlistWithStream(response, EmvTags.AID_CARD, EmvTags.KERNEL_IDENTIFIER).size();
+				}
+				return ret;
+			}
+		});
+		Benchmark.run("TlvUtil.getlistTLV", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				int ret = 0;
+				for (byte[] response : RESPONSES) {
+					ret += TlvUtil.getlistTLV(response, EmvTags.AID_CARD, EmvTags.KERNEL_IDENTIFIER).size();
+				}
+				return ret;
+			}
+		});
+	}
+
+}
@@ -0,0 +1,71 @@
+package company.tap.nfcreader.internal.library.utils;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.benchmark.Benchmark;
+import company.tap.nfcreader.open.reader.TapEmvCard;
+
+public class TrackUtilsBenchmark {
+
+	private static final byte[] TRACK2 = BytesUtils.fromString("4970100000000006D29122010000000000000F");
+
+	private static final byte[] TLV = BytesUtils.fromString("5713 4970100000000006D29122010000000000000F");
+
+	@Before
+	public void enabled() {
+		Benchmark.assumeEnabled();
+	}
+
+	@Test
+	public void benchmarkExtractTrack2Data() throws Exception {
+		Benchmark.run("track 2 regex", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				return TrackUtilsTest.extractWithRegex(TRACK2).getCardNumber().length();
+			}
+		});
+		Benchmark.run("TrackUtils.extractTrack2Data", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				TapEmvCard card = new TapEmvCard();
+				TrackUtils.extractTrack2Data(card, TLV);
+				return card.getCardNumber().length();
+			}
+		});
+		Benchmark.run("TrackUtils.decodeTrack2", new Benchmark.Operation() {
+			@Override
+			public int run() {
+				return (int) TrackUtils.decodeTrack2(TRACK2);
+			}
+		});
+	}
+
+	@Test
+	public void benchmarkRandomTracks() throws Exception {
+		Random random = new Random(5);
+		final byte[][] tracks = new byte[1024][];
+		for (int i = 0; i < tracks.length; i++) {
+			tracks[i] = BytesUtils.fromString(TrackUtilsTest.randomTrack2(random));
+		}
+		Benchmark.run("random track 2 regex", new Benchmark.Operation() {
+			private int i;
+
+			@Override
+			public int run() {
+				return TrackUtilsTest.extractWithRegex(tracks[i++ & tracks.length - 1]) == null ? 0 : 1;
+			}
+		});
+		Benchmark.run("random track 2 decodeTrack2", new Benchmark.Operation() {
+			private int i;
+
+			@Override
+			public int run() {
+				return (int) TrackUtils.decodeTrack2(tracks[i++ & tracks.length - 1]);
+			}
+		});
+	}
+
+}
@@ -0,0 +1,189 @@
+package company.tap.nfcreader.internal.library.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import company.tap.nfcreader.internal.library.model.Service;
+import company.tap.nfcreader.open.reader.TapEmvCard;
+
+public class TrackUtilsTest {
+
+	private static final Pattern TRACK2_PATTERN = Pattern.compile("([0-9]{1,19})D([0-9]{4})([0-9]{3})?(.*)");
+
+	/**
+	 * Extraction done before the decoder: regex on the hexa string and date parser
+	 */
+	static TapEmvCard extractWithRegex(final byte[] pTrack2) {
+		Matcher m = TRACK2_PATTERN.matcher(BytesUtils.bytesToStringNoSpace(pTrack2));
+		if (!m.find()) {
+			return null;
+		}
+		TapEmvCard ret = new TapEmvCard();
+		ret.setCardNumber(m.group(1));
+		SimpleDateFormat sdf = new SimpleDateFormat("yyMM", Locale.getDefault());
+		try {
+			ret.setExpireDate(CommonsUtils.truncate(sdf.parse(m.group(2)), Calendar.MONTH));
+		} catch (ParseException e) {
+			return null;
+		}
+		ret.setService(new Service(m.group(3)));
+		return ret;
+	}
+
+	/**
+	 * Random track 2 in hexa: well formed, random digits and separators, or random hexa
+	 */
+	static String randomTrack2(final Random pRandom) {
+		StringBuilder buf = new StringBuilder();
+		switch (pRandom.nextInt(4)) {
+		case 0:
+			appendDigits(pRandom, buf, 1 + pRandom.nextInt(22));
+			buf.append('D');
+			appendDigits(pRandom, buf, pRandom.nextInt(12));
+			break;
+		case 1:
+			for (int i = 2 + pRandom.nextInt(40); i > 0; i--) {
+				buf.append("0123456789D".charAt(pRandom.nextInt(11)));
+			}
+			break;
+		case 2:
+			for (int i = 2 + pRandom.nextInt(40); i > 0; i--) {
+				buf.append("0123456789ABCDEF".charAt(pRandom.nextInt(16)));
+			}
+			break;
+		default:
+			appendDigits(pRandom, buf, 16);
+			buf.append('D');
+			appendDigits(pRandom, buf, 17);
+			break;
+		}
+		if (buf.length() % 2 == 1) {
+			buf.append('F');
+		}
+		return buf.toString();
+	}
+
+	private static void appendDigits(final Random pRandom, final StringBuilder pBuf, final int pCount) {
+		for (int i = 0; i < pCount; i++) {
+			pBuf.append((char) ('0' + pRandom.nextInt(10)));
+		}
+	}
+
+	private static byte[] tlv(final byte[] pTrack2) {
+		byte[] ret = new byte[pTrack2.length + 2];
+		ret[0] = 0x57;
+		ret[1] = (byte) pTrack2.length;
+		System.arraycopy(pTrack2, 0, ret, 2, pTrack2.length);
+		return ret;
+	}
+
+	private static void assertSameAsRegex(final String pTrack2) {
+		byte[] track2 = BytesUtils.fromString(pTrack2);
+		TapEmvCard expected = extractWithRegex(track2);
+		TapEmvCard card = new TapEmvCard();
+		boolean found = TrackUtils.extractTrack2Data(card, tlv(track2));
+		assertEquals(pTrack2, expected != null, found);
+		if (expected != null) {
+			assertEquals(pTrack2, expected.getCardNumber(), card.getCardNumber());
+			assertEquals(pTrack2, expected.getExpireDate(), card.getExpireDate());
+			assertSame(pTrack2, expected.getService().getServiceCode1(), card.getService().getServiceCode1());
+			assertSame(pTrack2, expected.getService().getServiceCode2(), card.getService().getServiceCode2());
+			assertSame(pTrack2, expected.getService().getServiceCode3(), card.getService().getServiceCode3());
+		}
+	}
+
+	@Test
+	public void testRandomTracksMatchRegex() {
+		Random random = new Random(5);
+		for (int i = 0; i < 20000; i++) {
+			assertSameAsRegex(randomTrack2(random));
+		}
+	}
+
+	@Test
+	public void testDecodedFields() {
+		byte[] track2 = BytesUtils.fromString("4970100000000006D29122010000000000000F");
+		long decoded = TrackUtils.decodeTrack2(track2);
+		assertEquals("4970100000000006", TrackUtils.getCardNumber(track2, decoded));
+		assertEquals(2912, TrackUtils.getExpiry(decoded));
+		assertEquals(201, TrackUtils.getServiceCode(decoded));
+		assertSameAsRegex("4970100000000006D29122010000000000000F");
+	}
+
+	@Test
+	public void testOverLongPan() {
+		// the regex finds the last 19 digits before the separator
+		byte[] track2 = BytesUtils.fromString("1234567890123456789012D2512201");
+		long decoded = TrackUtils.decodeTrack2(track2);
+		assertEquals("4567890123456789012", TrackUtils.getCardNumber(track2, decoded));
+		assertSameAsRegex("1234567890123456789012D2512201");
+		assertSameAsRegex("12345678901234567890D2512201FF");
+		assertSameAsRegex("1234567890123456789D2512201F");
+	}
+
+	@Test
+	public void testSeveralSeparators() {
+		// first separator not followed by 4 digits
+		byte[] track2 = BytesUtils.fromString("12D34D2512101F");
+		long decoded = TrackUtils.decodeTrack2(track2);
+		assertEquals("34", TrackUtils.getCardNumber(track2, decoded));
+		assertEquals(2512, TrackUtils.getExpiry(decoded));
+		assertSameAsRegex("12D34D2512101F");
+		// first valid separator wins
+		assertSameAsRegex("1234D2512D2601101F");
+		assertSameAsRegex("D1234D2512101F");
+		assertSameAsRegex("DD1234D2512101");
+		assertSameAsRegex("1234DD2512101F");
+		assertSameAsRegex("12A4D2512101");
+		assertSameAsRegex("4970D25DD2512F");
+	}
+
+	@Test
+	public void testNoServiceCode() {
+		byte[] track2 = BytesUtils.fromString("4970100000000006D2512F");
+		long decoded = TrackUtils.decodeTrack2(track2);
+		assertEquals(TrackUtils.NO_SERVICE, TrackUtils.getServiceCode(decoded));
+		assertSameAsRegex("4970100000000006D2512F");
+		assertSameAsRegex("4970100000000006D25122");
+		assertSameAsRegex("4970100000000006D251220F");
+		assertSameAsRegex("4970100000000006D25122D1");
+	}
+
+	@Test
+	public void testLenientMonthsAndCentury() {
+		for (int year = 0; year < 100; year++) {
+			for (int month = 0; month < 100; month += 13) {
+				assertSameAsRegex(String.format("4970100000000006D%02d%02d201", year, month));
+			}
+		}
+		assertSameAsRegex("4970100000000006D2500201");
+		assertSameAsRegex("4970100000000006D2513201");
+		assertSameAsRegex("4970100000000006D2599201");
+	}
+
+	@Test
+	public void testNoTrack2() {
+		assertEquals(TrackUtils.NO_TRACK2, TrackUtils.decodeTrack2(new byte[0]));
+		assertEquals(TrackUtils.NO_TRACK2, TrackUtils.decodeTrack2(BytesUtils.fromString("FFFF")));
+		assertEquals(TrackUtils.NO_TRACK2, TrackUtils.decodeTrack2(BytesUtils.fromString("D2512201")));
+		assertEquals(TrackUtils.NO_TRACK2, TrackUtils.decodeTrack2(BytesUtils.fromString("4970D251")));
+		TapEmvCard card = new TapEmvCard();
+		assertFalse(TrackUtils.extractTrack2Data(card, tlv(BytesUtils.fromString("4970D2A1201F"))));
+		assertNull(card.getCardNumber());
+		assertTrue(TrackUtils.extractTrack2Data(card, tlv(BytesUtils.fromString("4970D2512201"))));
+	}
+
+}